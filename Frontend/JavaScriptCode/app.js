@@ -115,7 +115,7 @@ async function loadGlobalContext() {
         
         // MOCK LIVE MARKET: Apply random noise
         currentHoldings = rawData.map(h => {
-            const volatility = h.asset.category === 'COMMODITY' ? 0.08 : 0.04; 
+            const volatility = h.category === 'COMMODITY' ? 0.08 : 0.04; 
             const noise = (Math.random() * volatility * 2) - volatility; 
             const curPrice = h.avgBuyPrice * (1 + noise);
             
@@ -186,7 +186,7 @@ function calculateRiskProfile() {
 
     currentHoldings.forEach(h => {
         const val = h.mktValue;
-        const cat = h.asset.category;
+        const cat = h.category;
         const assetBeta = weights[cat] || 1.0;
         
         totalValue += val;
@@ -194,7 +194,7 @@ function calculateRiskProfile() {
         weightedBetaSum += (val * assetBeta);
 
         riskContributors.push({
-            symbol: h.asset.symbol,
+            symbol: h.symbol,
             val: val,
             beta: assetBeta,
             contrib: val * assetBeta
@@ -494,7 +494,7 @@ function renderCharts() {
     const ctxAlloc = document.getElementById('allocationChart').getContext('2d');
     const categories = {};
     currentHoldings.forEach(h => {
-        categories[h.asset.category] = (categories[h.asset.category] || 0) + h.mktValue;
+        categories[h.category] = (categories[h.category] || 0) + h.mktValue;
     });
 
     if (allocationChart) allocationChart.destroy();
@@ -729,7 +729,7 @@ function renderCharts() {
     topHoldingsChart = new Chart(topCtx, {
         type: 'bar',
         data: {
-            labels: top.map(t => t.asset.symbol),
+            labels: top.map(t => t.symbol),
             datasets: [{
                 label: 'Market Value',
                 data: top.map(t => t.mktValue),
@@ -803,8 +803,8 @@ function renderHoldings() {
         const pnlC = h.pnl >= 0 ? 'text-up' : 'text-down';
         tbody.innerHTML += `
             <tr onclick="openAssetDetail(${h.holdingId})">
-                <td style="font-weight:bold; color:var(--primary)">${h.asset.symbol}</td>
-                <td style="color:#888">${h.asset.assetName}</td>
+                <td style="font-weight:bold; color:var(--primary)">${h.symbol}</td>
+                <td style="color:#888">${h.assetName}</td>
                 <td>${h.quantity}</td>
                 <td>₹${h.avgBuyPrice.toFixed(2)}</td>
                 <td style="font-weight:bold">₹${h.curPrice.toFixed(2)}</td>
@@ -868,7 +868,7 @@ function renderHoldingsCharts() {
     
     const categoryMap = {};
     currentHoldings.forEach(h => {
-        const cat = h.asset.category || 'UNKNOWN';
+        const cat = h.category || 'UNKNOWN';
         if (!categoryMap[cat]) {
             categoryMap[cat] = { totalPnl: 0, count: 0, totalValue: 0 };
         }
@@ -933,7 +933,7 @@ async function handleOnboard(e) {
 function processHoldingsData(holdings) {
     return holdings.map(h => {
         // Simulate market volatility based on asset category
-        const volatility = h.asset.category === 'COMMODITY' ? 0.08 : 0.04; 
+        const volatility = h.category === 'COMMODITY' ? 0.08 : 0.04; 
         const noise = (Math.random() * volatility * 2) - volatility; 
         const curPrice = h.avgBuyPrice * (1 + noise);
         
@@ -971,7 +971,7 @@ async function runComparison() {
 
         // 3. Calculate Aggregates
         const getTotal = (p) => p.reduce((acc, h) => acc + h.mktValue, 0);
-        const getAllocation = (p, cat) => p.filter(h => h.asset.category === cat).reduce((acc, h) => acc + h.mktValue, 0);
+        const getAllocation = (p, cat) => p.filter(h => h.category === cat).reduce((acc, h) => acc + h.mktValue, 0);
 
         const v1 = getTotal(p1);
         const v2 = getTotal(p2);
@@ -1013,7 +1013,7 @@ async function runComparison() {
         const calcBeta = (p, val) => {
             if(val === 0) return 0;
             const weights = { 'COMMODITY': 1.5, 'NSE': 1.0, 'MF': 0.7 };
-            return p.reduce((acc, h) => acc + (h.mktValue * (weights[h.asset.category] || 1)), 0) / val;
+            return p.reduce((acc, h) => acc + (h.mktValue * (weights[h.category] || 1)), 0) / val;
         };
 
         const beta1 = calcBeta(p1, v1);
@@ -1088,7 +1088,7 @@ function openSellModal(holdingId) {
     const mktEl = document.getElementById('sellMarketPrice');
     const customEl = document.getElementById('sellCustomPrice');
 
-    if (labelEl) labelEl.value = `${holding.asset.symbol} — ${holding.asset.assetName}`;
+    if (labelEl) labelEl.value = `${holding.symbol} — ${holding.assetName}`;
     if (qtyEl) qtyEl.value = holding.quantity;
     if (mktEl) mktEl.innerText = fmtUSD(holding.curPrice);
     if (customEl) { customEl.value = ''; customEl.disabled = true; }
@@ -1125,7 +1125,7 @@ async function executeSellFromModal() {
     const realizedPnL = (sellPrice - holding.avgBuyPrice) * holding.quantity;
     const record = {
         date: new Date().toISOString().slice(0, 10),
-        symbol: holding.asset.symbol,
+        symbol: holding.symbol,
         type: 'SELL',
         qty: holding.quantity,
         buy: holding.avgBuyPrice,
@@ -1167,7 +1167,7 @@ async function openAssetDetail(holdingId) {
     const pnlPct = invested ? (pnlAbs / invested) * 100 : 0;
     const deltaPct = holding.avgBuyPrice ? ((holding.curPrice - holding.avgBuyPrice) / holding.avgBuyPrice) * 100 : 0;
 
-    setText('assetTitle', `${holding.asset.symbol} — ${holding.asset.assetName}`);
+    setText('assetTitle', `${holding.symbol} — ${holding.assetName}`);
     setText('assetLtp', fmtUSD(holding.curPrice));
     const deltaEl = document.getElementById('assetDelta');
     if (deltaEl) {
@@ -1190,7 +1190,7 @@ async function openAssetDetail(holdingId) {
 
     setText('assetQty', String(holding.quantity));
     setText('assetAvgPrice', fmtUSD(holding.avgBuyPrice));
-    setText('assetCategory', holding.asset.category || '-');
+    setText('assetCategory', holding.category || '-');
 
     // Wire buttons
     const addBtn = document.getElementById('assetAddBtn');
@@ -1201,7 +1201,7 @@ async function openAssetDetail(holdingId) {
             if (sel) {
                 // Match by data-symbol attribute populated during fetchAssets()
                 for (const opt of sel.options) {
-                    if (opt.getAttribute('data-symbol') === holding.asset.symbol) {
+                    if (opt.getAttribute('data-symbol') === holding.symbol) {
                         sel.value = opt.value; break;
                     }
                 }
@@ -1237,7 +1237,7 @@ async function renderAssetDetailCharts(holding) {
     // Fallback to backend endpoint
     if (series.length === 0) {
         try {
-            const res = await fetch(`${API_BASE}/market/prices?symbol=${encodeURIComponent(holding.asset.symbol)}&range=52w`);
+            const res = await fetch(`${API_BASE}/market/prices?symbol=${encodeURIComponent(holding.symbol)}&range=52w`);
             if (res.ok) {
                 const data = await res.json();
                 if (data && Array.isArray(data.labels) && Array.isArray(data.prices)) {
@@ -1328,8 +1328,8 @@ function generateSyntheticSeries(base, points) {
 
 // === Alpha Vantage integration for 52w trend ===
 function normalizeSymbolForAlpha(holding) {
-    const raw = (holding && holding.asset && holding.asset.symbol) ? holding.asset.symbol : '';
-    const cat = (holding && holding.asset && holding.asset.category) ? holding.asset.category : '';
+    const raw = (holding && holding.symbol) ? holding.symbol : '';
+    const cat = (holding && holding.category) ? holding.category : '';
     // Append .NS for NSE category, else use as-is
     if (cat === 'NSE' && !raw.endsWith('.NS')) return raw + '.NS';
     return raw;
@@ -1414,9 +1414,9 @@ function exportHoldingsCSV() {
     
     const headers = ['Symbol', 'Asset Name', 'Category', 'Quantity', 'Avg Buy Price', 'Market Price', 'Market Value', 'P&L (₹)', 'P&L (%)'];
     const rows = currentHoldings.map(h => [
-        h.asset.symbol || '',
-        h.asset.assetName || '',
-        h.asset.category || '',
+        h.symbol || '',
+        h.assetName || '',
+        h.category || '',
         h.quantity || 0,
         (h.avgBuyPrice || 0).toFixed(2),
         (h.curPrice || 0).toFixed(2),
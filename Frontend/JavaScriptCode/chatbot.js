@@ -144,23 +144,16 @@ class ChatbotWidget {
             // Update current context
             this.updateContext();
 
-            const response = await fetch(`${CHATBOT_API_BASE}/chat`, {
-                method: 'POST',
-                headers: {
-                    'Content-Type': 'application/json'
-                },
-                body: JSON.stringify({
-                    message: message,
-                    clientId: this.currentClientId != null ? this.currentClientId : null,
-                    currentPage: this.currentPage || 'dashboard',
-                    visualizationContext: this.visualizationContext
-                })
-            });
-
-            const data = await response.json();
+            const data = await this.streamReply(JSON.stringify({
+                message: message,
+                clientId: this.currentClientId != null ? this.currentClientId : null,
+                currentPage: this.currentPage || 'dashboard',
+                visualizationContext: this.visualizationContext
+            }), typingId);
             
-            // Remove typing indicator
+            // Remove typing indicator (and the streamed draft, replaced by the final response)
             this.removeTypingIndicator(typingId);
+            this.removeStreamingMessage();
 
             // Add assistant response
             this.addMessage('assistant', data.response, data.confidence, data.type);
@@ -176,6 +169,7 @@ class ChatbotWidget {
         } catch (error) {
             console.error('Chatbot error:', error);
             this.removeTypingIndicator(typingId);
+            this.removeStreamingMessage();
             this.addMessage('assistant', 
                 '## Error\n\nI encountered an error processing your request. Please check your connection and try again.',
                 'LOW',
@@ -184,6 +178,87 @@ class ChatbotWidget {
         }
     }
 
+    /**
+     * POST to /stream and render "delta" events into a draft bubble as they arrive
+     * Resolves with the ChatResponse carried by the final "done" (or "error") event.
+     */
+    async streamReply(payload, typingId) {
+        const response = await fetch(`${CHATBOT_API_BASE}/stream`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+                'Accept': 'text/event-stream'
+            },
+            body: payload
+        });
+        if (!response.ok || !response.body) {
+            throw new Error(`Chat stream failed with status ${response.status}`);
+        }
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        let text = '';
+        let bubble = null;
+        while (true) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true }).replace(/\r/g, '');
+
+            let boundary;
+            while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                const event = this.parseServerSentEvent(buffer.slice(0, boundary));
+                buffer = buffer.slice(boundary + 2);
+                if (event.name === 'delta') {
+                    if (!bubble) {
+                        this.removeTypingIndicator(typingId);
+                        bubble = this.createStreamingMessage();
+                    }
+                    text += event.data.text;
+                    bubble.innerHTML = this.renderMarkdown(text);
+                    const messagesContainer = document.getElementById('chatbotMessages');
+                    messagesContainer.scrollTop = messagesContainer.scrollHeight;
+                } else if (event.name === 'done' || event.name === 'error') {
+                    reader.cancel();
+                    return event.data;
+                }
+            }
+        }
+        throw new Error('Chat stream ended without a final event');
+    }
+
+    parseServerSentEvent(block) {
+        let name = 'message';
+        const data = [];
+        for (const line of block.split('\n')) {
+            if (line.startsWith('event:')) {
+                name = line.slice(6).trim();
+            } else if (line.startsWith('data:')) {
+                data.push(line.slice(5).replace(/^ /, ''));
+            }
+        }
+        return { name, data: data.length > 0 ? JSON.parse(data.join('\n')) : null };
+    }
+
+    createStreamingMessage() {
+        const messagesContainer = document.getElementById('chatbotMessages');
+        const messageDiv = document.createElement('div');
+        messageDiv.className = 'message assistant';
+        messageDiv.id = 'streamingMessage';
+        const bubble = document.createElement('div');
+        bubble.className = 'message-bubble';
+        messageDiv.appendChild(bubble);
+        messagesContainer.appendChild(messageDiv);
+        return bubble;
+    }
+
+    removeStreamingMessage() {
+        const draft = document.getElementById('streamingMessage');
+        if (draft) {
+            draft.remove();
+        }
+    }
+
     addMessage(role, content, confidence, type) {
         const messagesContainer = document.getElementById('chatbotMessages');
         const messageDiv = document.createElement('div');
@@ -0,0 +1,45 @@
+package com.portfolio.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration for the chat pipeline
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chatbot")
+@Data
+public class ChatbotConfig {
+    // Threads for stages that run concurrently within a request (portfolio analysis, RAG); unused with virtual threads
+    private int pipelineThreads = 8;
+    // Token budget for the context sent with each question (portfolio data, chart, knowledge)
+    private int contextTokenBudget = 1500;
+
+    /**
+     * With spring.threads.virtual.enabled every stage gets its own virtual thread, like Tomcat's
+     * request threads and the scheduler; the analysis stage then waits for JDBC without holding a
+     * platform thread, and the connection pool is what bounds concurrent queries
+     */
+    @Bean(name = "chatPipelineExecutor", destroyMethod = "shutdown")
+    public ExecutorService chatPipelineExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chat-pipeline-", 1).factory());
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "chat-pipeline-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(pipelineThreads, threadFactory);
+    }
+}
@@ -2,8 +2,10 @@ package com.portfolio.backend.config;
 
 import com.portfolio.backend.entity.Asset;
 import com.portfolio.backend.entity.enums.AssetCategory;
+import com.portfolio.backend.event.AssetsChangedEvent;
 import com.portfolio.backend.repository.AssetRepository;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
@@ -13,9 +15,11 @@ import java.util.List;
 public class DataSeeder implements CommandLineRunner {
 
     private final AssetRepository assetRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DataSeeder(AssetRepository assetRepository) {
+    public DataSeeder(AssetRepository assetRepository, ApplicationEventPublisher eventPublisher) {
         this.assetRepository = assetRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -53,6 +57,7 @@ public class DataSeeder implements CommandLineRunner {
 
         // 3. Save all to Database
         assetRepository.saveAll(assets);
+        eventPublisher.publishEvent(new AssetsChangedEvent());
         System.out.println("✅ Successfully seeded " + assets.size() + " assets!");
     }
 }
\ No newline at end of file
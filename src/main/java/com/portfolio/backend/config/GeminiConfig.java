@@ -20,9 +20,30 @@ import java.util.List;
 public class GeminiConfig {
     private String apiKeys; 
     private String baseUrl = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent";
-    private int maxRetries = 3;
+    private String streamUrl = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:streamGenerateContent";
+    private int maxRetries = 3; // Gemini calls per chat request, the first one included
+    private long retryBudgetSeconds = 60; // No retry starts later than this after the first call
     private int timeoutSeconds = 30;
+    private long retryBackoffMillis = 1000; // First retry delay; later attempts wait proportionally longer
     private double minConfidenceThreshold = 0.6; 
+    // Circuit opens when this share of the last window calls failed (once minimum calls are in),
+    // stays open for circuit-open-seconds, then lets half-open calls through as trials
+    private int circuitWindowSize = 20;
+    private int circuitMinimumCalls = 10;
+    private double circuitFailureRateThreshold = 0.5;
+    private long circuitOpenSeconds = 30;
+    private int circuitHalfOpenCalls = 2;
+    private int maxConcurrentCalls = 16; // Calls over this get the fallback answer at once
+    // Quota of each key; requests go to the key with the most of it left
+    private int keyRequestsPerMinute = 10;
+    private int keyTokensPerMinute = 250000;
+    private long keyCooldownSeconds = 60; // After a 429 without Retry-After
+    private long keyForbiddenCooldownSeconds = 600; // After a 401/403
+    // Answers keyed by (model, normalized question, packed context hash); least recently used are evicted first
+    private boolean responseCacheEnabled = true;
+    private int responseCacheMaxEntries = 500;
+    private long responseCacheTtlSeconds = 3600;
+    private String responseCacheDir = ""; // Also keep answers on disk across restarts; empty for memory only
     
     private List<String> parsedApiKeys = new ArrayList<>(); // Parsed API keys
     
@@ -0,0 +1,35 @@
+package com.portfolio.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the in-memory market data caches
+ */
+@Configuration
+@ConfigurationProperties(prefix = "market")
+@Data
+public class MarketDataConfig {
+    private long priceRefreshIntervalMs = 5000;
+    private int refreshBatchSize = 5000;
+    // Rows below the high-water mark re-read by every refresh: data_id is assigned at insert, not at
+    // commit, so a row can become visible after a higher id was already applied
+    private int refreshOverlapRows = 200;
+    private int seriesHistoryDays = 366;
+    private int seriesIntradayCapacity = 4096;
+    private int seriesDailyCapacity = 400;
+    // Re-read the assets table for rows changed outside the application
+    private long assetCatalogRefreshMs = 300000;
+    private TickStoreProperties tickStore = new TickStoreProperties();
+
+    @Data
+    public static class TickStoreProperties {
+        private boolean enabled = false;
+        private String path = "data/ticks";
+        private int segmentCapacity = 65536;
+        // When true, archived rows are deleted from market_data and only the latest row per asset is kept
+        private boolean pruneDatabase = false;
+        private long pruneIntervalMs = 3600000;
+    }
+}
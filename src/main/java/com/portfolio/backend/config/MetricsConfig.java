@@ -0,0 +1,61 @@
+package com.portfolio.backend.config;
+
+import com.portfolio.backend.dto.CacheStats;
+import com.portfolio.backend.service.analysis.PortfolioAnalysisCache;
+import com.portfolio.backend.service.llm.LLMResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters that read application state at scrape time, exposed with the rest on /actuator/prometheus
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Size, lookups by result, evictions and hit ratio of the chat caches (the same counters as
+     * GET /api/chatbot/cache/stats)
+     */
+    @Bean
+    public MeterBinder chatCacheMetrics(PortfolioAnalysisCache portfolioAnalysisCache, LLMResponseCache llmResponseCache) {
+        return registry -> {
+            bindCache(registry, "portfolioAnalysis", portfolioAnalysisCache, PortfolioAnalysisCache::getStats);
+            bindCache(registry, "llmResponse", llmResponseCache, LLMResponseCache::getStats);
+        };
+    }
+
+    /**
+     * Meters reference their state weakly, so they get the cache itself, which lives as long as the context
+     */
+    private static <C> void bindCache(MeterRegistry registry, String name, C cache, Function<C, CacheStats> stats) {
+        Gauge.builder("cache.size", cache, value(stats, CacheStats::getSize))
+            .tag("cache", name)
+            .register(registry);
+        FunctionCounter.builder("cache.gets", cache, value(stats, CacheStats::getHits))
+            .tag("cache", name)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("cache.gets", cache, value(stats, CacheStats::getMisses))
+            .tag("cache", name)
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, value(stats, CacheStats::getEvictions))
+            .tag("cache", name)
+            .register(registry);
+        Gauge.builder("cache.hit.ratio", cache, value(stats, CacheStats::getHitRate))
+            .description("Hits over lookups since startup")
+            .tag("cache", name)
+            .register(registry);
+    }
+
+    private static <C> ToDoubleFunction<C> value(Function<C, CacheStats> stats, ToDoubleFunction<CacheStats> field) {
+        return cache -> field.applyAsDouble(stats.apply(cache));
+    }
+}
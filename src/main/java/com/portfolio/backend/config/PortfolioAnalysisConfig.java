@@ -0,0 +1,16 @@
+package com.portfolio.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for cached portfolio analysis
+ */
+@Configuration
+@ConfigurationProperties(prefix = "portfolio.analysis")
+@Data
+public class PortfolioAnalysisConfig {
+    // Entries of (client, holdings version, price epoch); least recently used are evicted first
+    private int cacheMaxEntries = 1000;
+}
@@ -0,0 +1,28 @@
+package com.portfolio.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for knowledge retrieval (BM25 over paragraph chunks)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag")
+@Data
+public class RagConfig {
+    private String knowledgeLocation = "classpath:knowledge/*.txt";
+    // External directory of *.txt files used instead of knowledgeLocation and watched for edits; empty = off
+    private String knowledgeDir = "";
+    // Quiet period after the last file event before a reload, so a multi-step editor save reloads once
+    private long reloadDebounceMs = 500;
+    private int topK = 4;
+    // Paragraphs shorter than this (section headings) are merged into the paragraph that follows
+    private int minChunkChars = 80;
+    private float bm25K1 = 1.2f;
+    private float bm25B = 0.75f;
+    // Build-time embeddings (VectorIndexBuilder); when missing or stale, retrieval is BM25 only
+    private boolean vectorEnabled = true;
+    private String vectorIndexLocation = "classpath:knowledge/vectors.bin";
+    private float vectorMinSimilarity = 0.15f;
+}
@@ -1,25 +1,35 @@
 package com.portfolio.backend.controller;
 
-import com.portfolio.backend.entity.Asset;
-import com.portfolio.backend.repository.AssetRepository;
+import com.portfolio.backend.service.market.AssetCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/assets") // This defines the URL
 @CrossOrigin(origins = "*")    // This allows your HTML frontend to connect
 public class AssetController {
 
     @Autowired
-    private AssetRepository assetRepository;
+    private AssetCatalog assetCatalog;
 
+    /**
+     * GET /api/assets
+     * The catalog's pre-serialized JSON with its strong ETag; Spring answers 304 with no body when
+     * If-None-Match carries the current tag. no-cache makes browsers revalidate on every load.
+     */
     @GetMapping
-    public List<Asset> getAllAssets() {
-        return assetRepository.findAll();
+    public ResponseEntity<byte[]> getAllAssets() {
+        AssetCatalog.Snapshot snapshot = assetCatalog.getSnapshot();
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getJson());
     }
-}
\ No newline at end of file
+}
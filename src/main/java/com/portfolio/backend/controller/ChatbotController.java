@@ -1,13 +1,26 @@
 package com.portfolio.backend.controller;
 
+import com.portfolio.backend.dto.CacheStats;
+import com.portfolio.backend.dto.chatbot.ApiKeyStatus;
 import com.portfolio.backend.dto.chatbot.ChatRequest;
 import com.portfolio.backend.dto.chatbot.ChatResponse;
+import com.portfolio.backend.dto.chatbot.ChatStreamEvent;
+import com.portfolio.backend.dto.chatbot.ResilienceStatus;
+import com.portfolio.backend.service.analysis.PortfolioAnalysisCache;
 import com.portfolio.backend.service.chatbot.ChatbotServiceInterface;
+import com.portfolio.backend.service.llm.ApiKeyPool;
+import com.portfolio.backend.service.llm.LLMResponseCache;
+import com.portfolio.backend.service.llm.LLMServiceInterface;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for chatbot interactions
@@ -21,32 +34,74 @@ public class ChatbotController {
     @Autowired
     private ChatbotServiceInterface chatbotService;
     
+    @Autowired
+    private PortfolioAnalysisCache portfolioAnalysisCache;
+    
+    @Autowired
+    private LLMResponseCache llmResponseCache;
+    
+    @Autowired
+    private ApiKeyPool apiKeyPool;
+    
+    @Autowired
+    private LLMServiceInterface llmService;
+    
     /**
      * POST /api/chatbot/chat
      * Main endpoint for chatbot interactions
+     * Completes asynchronously: the request thread is released while Gemini is working
      */
     @PostMapping("/chat")
-    public ResponseEntity<ChatResponse> chat(@RequestBody ChatRequest request) {
-        try {
-            // Validate request
-            if (request.getMessage() == null || request.getMessage().trim().isEmpty()) {
-                ChatResponse errorResponse = new ChatResponse();
-                errorResponse.setResponse("## Error\n\nPlease provide a message.");
-                errorResponse.setConfidence(ChatResponse.ConfidenceLevel.LOW);
-                errorResponse.setType(ChatResponse.ResponseType.INFORMATIONAL);
-                return ResponseEntity.badRequest().body(errorResponse);
-            }
-            
-            ChatResponse response = chatbotService.processChat(request);
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            ChatResponse errorResponse = new ChatResponse();
-            errorResponse.setResponse("## Error\n\nAn unexpected error occurred. Please try again.");
-            errorResponse.setConfidence(ChatResponse.ConfidenceLevel.LOW);
-            errorResponse.setType(ChatResponse.ResponseType.INFORMATIONAL);
-            return ResponseEntity.internalServerError().body(errorResponse);
+    public CompletableFuture<ResponseEntity<ChatResponse>> chat(@RequestBody ChatRequest request) {
+        // Validate request
+        if (request.getMessage() == null || request.getMessage().trim().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errorResponse("Please provide a message.")));
         }
+        
+        return chatbotService.processChat(request)
+            .thenApply(ResponseEntity::ok)
+            .exceptionally(e -> ResponseEntity.internalServerError()
+                .body(errorResponse("An unexpected error occurred. Please try again.")));
+    }
+    
+    /**
+     * POST /api/chatbot/stream
+     * Same request as /chat, answered as Server-Sent Events: "delta" events ({"text": ...}) as Gemini
+     * generates the answer, then one "done" event with the full ChatResponse ("error" if it failed)
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> stream(@RequestBody ChatRequest request) {
+        if (request.getMessage() == null || request.getMessage().trim().isEmpty()) {
+            return Flux.just(toServerSentEvent(ChatStreamEvent.error(errorResponse("Please provide a message."))));
+        }
+        return chatbotService.streamChat(request).map(this::toServerSentEvent);
+    }
+    
+    /**
+     * GET /api/chatbot/cache/stats
+     * Hit/miss/eviction counters of the chat caches
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStats>> cacheStats() {
+        return ResponseEntity.ok(List.of(portfolioAnalysisCache.getStats(), llmResponseCache.getStats()));
+    }
+    
+    /**
+     * GET /api/chatbot/llm/keys
+     * Remaining quota, cooldown and failure counts of each Gemini API key (masked)
+     */
+    @GetMapping("/llm/keys")
+    public ResponseEntity<List<ApiKeyStatus>> apiKeys() {
+        return ResponseEntity.ok(apiKeyPool.getStatus());
+    }
+    
+    /**
+     * GET /api/chatbot/llm/resilience
+     * Circuit breaker state and bulkhead usage of the Gemini calls
+     */
+    @GetMapping("/llm/resilience")
+    public ResponseEntity<ResilienceStatus> resilience() {
+        return ResponseEntity.ok(llmService.getResilienceStatus());
     }
     
     /**
@@ -57,4 +112,21 @@ public class ChatbotController {
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of("status", "healthy", "service", "chatbot"));
     }
+    
+    private ServerSentEvent<Object> toServerSentEvent(ChatStreamEvent event) {
+        Object data = event.getType() == ChatStreamEvent.EventType.DELTA
+            ? Map.of("text", event.getText())
+            : event.getResponse();
+        return ServerSentEvent.builder(data)
+            .event(event.getType().name().toLowerCase())
+            .build();
+    }
+    
+    private ChatResponse errorResponse(String message) {
+        ChatResponse errorResponse = new ChatResponse();
+        errorResponse.setResponse("## Error\n\n" + message);
+        errorResponse.setConfidence(ChatResponse.ConfidenceLevel.LOW);
+        errorResponse.setType(ChatResponse.ResponseType.INFORMATIONAL);
+        return errorResponse;
+    }
 }
@@ -1,10 +1,19 @@
 package com.portfolio.backend.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.dto.ClientPage;
 import com.portfolio.backend.entity.Client;
 import com.portfolio.backend.service.ClientServiceInterface;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -15,6 +24,9 @@ public class ClientController {
     @Autowired
     private ClientServiceInterface clientService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // GET /api/clients
     // Returns a list of all clients (used for the Manager's dropdown)
     @GetMapping
@@ -22,10 +34,40 @@ public class ClientController {
         return clientService.getAllClients();
     }
 
+    // GET /api/clients/page?after=0&size=100&managerId=1
+    // One keyset page in clientId order; request the next with after=nextCursor until nextCursor is null
+    @GetMapping("/page")
+    public ClientPage getClientPage(@RequestParam(required = false) Long managerId,
+                                    @RequestParam(defaultValue = "0") Long after,
+                                    @RequestParam(defaultValue = "100") int size) {
+        return clientService.getClientPage(managerId, after, size);
+    }
+
+    // GET /api/clients/stream?managerId=1
+    // The whole listing as one JSON array, written row by row as the database cursor returns them,
+    // so memory stays flat however many clients there are
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamClients(@RequestParam(required = false) Long managerId) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(StreamUtils.nonClosing(out))) {
+                json.writeStartArray();
+                clientService.forEachClient(managerId, client -> {
+                    try {
+                        json.writeObject(client);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // Client went away; closes the cursor
+                    }
+                });
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     // POST /api/clients
     // Creates a new client
     @PostMapping
     public Client createClient(@RequestBody Client client) {
         return clientService.addClient(client);
     }
-}
\ No newline at end of file
+}
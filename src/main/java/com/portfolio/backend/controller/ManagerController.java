@@ -0,0 +1,22 @@
+package com.portfolio.backend.controller;
+
+import com.portfolio.backend.dto.manager.ManagerBookResponse;
+import com.portfolio.backend.service.analysis.ManagerBookServiceInterface;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/managers")
+@CrossOrigin(origins = "*")
+public class ManagerController {
+
+    @Autowired
+    private ManagerBookServiceInterface managerBookService;
+
+    // GET /api/managers/{id}/book
+    @GetMapping("/{id}/book")
+    public ResponseEntity<ManagerBookResponse> getBook(@PathVariable Long id) {
+        return ResponseEntity.ok(managerBookService.getBook(id));
+    }
+}
@@ -0,0 +1,23 @@
+package com.portfolio.backend.controller;
+
+import com.portfolio.backend.dto.market.PriceSeriesResponse;
+import com.portfolio.backend.service.market.MarketSeriesServiceInterface;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/market")
+@CrossOrigin(origins = "*")
+public class MarketController {
+
+    @Autowired
+    private MarketSeriesServiceInterface marketSeriesService;
+
+    // GET /api/market/prices?symbol=TCS&range=52w
+    // Ranges: 1d (intraday), 1w, 1m, 1y (daily), 52w (weekly). Served from memory, never from MySQL.
+    @GetMapping("/prices")
+    public PriceSeriesResponse getPrices(@RequestParam String symbol,
+                                         @RequestParam(defaultValue = "52w") String range) {
+        return marketSeriesService.getPriceSeries(symbol, range);
+    }
+}
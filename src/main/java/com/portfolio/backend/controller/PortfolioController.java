@@ -1,9 +1,12 @@
 package com.portfolio.backend.controller;
 
 import com.portfolio.backend.dto.BuyAssetRequest;
+import com.portfolio.backend.dto.PortfolioValuation;
 import com.portfolio.backend.entity.ClientHolding;
 import com.portfolio.backend.repository.ClientHoldingRepository; // Import this
+import com.portfolio.backend.repository.projection.HoldingView;
 import com.portfolio.backend.service.PortfolioServiceInterface;
+import com.portfolio.backend.service.analysis.PortfolioValuationEngine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +24,9 @@ public class PortfolioController {
     @Autowired
     private ClientHoldingRepository holdingRepository; // Direct access for reading
 
+    @Autowired
+    private PortfolioValuationEngine valuationEngine;
+
     // --- EXISTING BUY ENDPOINT ---
     @PostMapping("/buy")
     public ResponseEntity<?> buyAsset(@RequestBody BuyAssetRequest request) {
@@ -33,15 +39,22 @@ public class PortfolioController {
     }
 
     // --- NEW: GET HOLDINGS FOR A CLIENT ---
+    // Flat rows (holdingId, symbol, assetName, category, quantity, avgBuyPrice, buyDate) from one select
     @GetMapping("/{clientId}")
-    public ResponseEntity<List<ClientHolding>> getHoldings(@PathVariable Long clientId) {
-        return ResponseEntity.ok(holdingRepository.findByClient_ClientId(clientId));
+    public ResponseEntity<List<HoldingView>> getHoldings(@PathVariable Long clientId) {
+        return ResponseEntity.ok(holdingRepository.findViewsByClientId(clientId));
+    }
+
+    // --- LIVE VALUATION: running aggregates, updated by price ticks ---
+    @GetMapping("/{clientId}/valuation")
+    public ResponseEntity<PortfolioValuation> getValuation(@PathVariable Long clientId) {
+        return ResponseEntity.ok(valuationEngine.getValuation(clientId));
     }
 
     // --- NEW: SELL ASSET (Basic Implementation) ---
     @DeleteMapping("/{holdingId}")
     public ResponseEntity<?> sellAsset(@PathVariable Long holdingId) {
-        holdingRepository.deleteById(holdingId);
+        portfolioService.sellAsset(holdingId);
         return ResponseEntity.ok("Sold successfully");
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.portfolio.backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Counters of an in-memory cache since startup
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+    private String name;
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate; // hits / (hits + misses), 0 before the first lookup
+}
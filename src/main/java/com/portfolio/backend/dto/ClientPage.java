@@ -0,0 +1,19 @@
+package com.portfolio.backend.dto;
+
+import com.portfolio.backend.repository.projection.ClientView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of the clients listing
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientPage {
+    private List<ClientView> clients;
+    private Long nextCursor; // Pass as ?after= for the next page; null on the last page
+}
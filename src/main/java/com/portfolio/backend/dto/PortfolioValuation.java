@@ -0,0 +1,24 @@
+package com.portfolio.backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of a client's running valuation aggregates
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioValuation {
+    private Long clientId;
+    private BigDecimal totalValue;
+    private BigDecimal totalInvested;
+    private BigDecimal unrealizedPnL;
+    private Double portfolioBeta;
+    private Map<String, BigDecimal> categoryExposure; // Category -> Value
+    private int holdingsCount;
+}
@@ -0,0 +1,23 @@
+package com.portfolio.backend.dto.chatbot;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * State of one Gemini API key in the pool
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiKeyStatus {
+    private String key; // Masked: last four characters only
+    private double healthScore; // 0 while cooling down, else remaining capacity discounted by recent failures
+    private int availableRequests; // Of requests-per-minute
+    private long availableTokens; // Of tokens-per-minute
+    private long coolingDownMillis;
+    private int consecutiveFailures;
+    private long successes;
+    private long failures;
+    private long rateLimited;
+}
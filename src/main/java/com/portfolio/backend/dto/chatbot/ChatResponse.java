@@ -19,6 +19,7 @@ public class ChatResponse {
     private List<String> insights; 
     private String explanation; 
     private List<String> suggestedQuestions; 
+    private Integer promptTokens; // As reported by Gemini, else estimated
     
     public enum ConfidenceLevel {
         LOW, MEDIUM, HIGH
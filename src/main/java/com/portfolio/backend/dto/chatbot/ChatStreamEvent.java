@@ -0,0 +1,36 @@
+package com.portfolio.backend.dto.chatbot;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * One event of a streamed chat answer: text deltas as they are generated, then the complete
+ * response with its metadata (DONE), or an error response if the stream failed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatStreamEvent {
+    private EventType type;
+    private String text;            // DELTA only
+    private ChatResponse response;  // DONE and ERROR only
+    
+    public enum EventType {
+        DELTA,
+        DONE,
+        ERROR
+    }
+    
+    public static ChatStreamEvent delta(String text) {
+        return new ChatStreamEvent(EventType.DELTA, text, null);
+    }
+    
+    public static ChatStreamEvent done(ChatResponse response) {
+        return new ChatStreamEvent(EventType.DONE, null, response);
+    }
+    
+    public static ChatStreamEvent error(ChatResponse response) {
+        return new ChatStreamEvent(EventType.ERROR, null, response);
+    }
+}
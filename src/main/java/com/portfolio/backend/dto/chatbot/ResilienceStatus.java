@@ -0,0 +1,23 @@
+package com.portfolio.backend.dto.chatbot;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Circuit breaker and bulkhead state of the Gemini calls
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResilienceStatus {
+    private String circuitState; // CLOSED, OPEN or HALF_OPEN
+    private long millisInState;
+    private double failureRate; // Over the buffered calls since the circuit last closed
+    private int bufferedCalls;
+    private long notPermittedCalls; // Refused while OPEN or with HALF_OPEN trials in flight
+    private long transitions;
+    private int activeCalls;
+    private int maxConcurrentCalls;
+    private long rejectedCalls; // Refused by the bulkhead
+}
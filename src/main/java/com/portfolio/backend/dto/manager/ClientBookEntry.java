@@ -0,0 +1,25 @@
+package com.portfolio.backend.dto.manager;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * One client's line in a manager book
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientBookEntry {
+    private Long clientId;
+    private String fullName;
+    private BigDecimal totalValue;
+    private BigDecimal totalInvested;
+    private BigDecimal unrealizedPnL;
+    private Double portfolioBeta;
+    private Map<String, BigDecimal> categoryExposure; // Category -> Value
+    private long holdingsCount;
+}
@@ -0,0 +1,27 @@
+package com.portfolio.backend.dto.manager;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated view of every client managed by one manager
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManagerBookResponse {
+    private Long managerId;
+    private int clientCount;
+    private BigDecimal totalValue;
+    private BigDecimal totalInvested;
+    private BigDecimal unrealizedPnL;
+    private Double portfolioBeta;
+    private Map<String, BigDecimal> categoryExposure; // Category -> Value
+    private Map<String, BigDecimal> categoryPercentage; // Category -> Percentage
+    private List<ClientBookEntry> clients;
+}
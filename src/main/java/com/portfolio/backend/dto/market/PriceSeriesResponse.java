@@ -0,0 +1,20 @@
+package com.portfolio.backend.dto.market;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Chart series for a single asset, shaped for Chart.js (labels + prices)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceSeriesResponse {
+    private String symbol;
+    private String range;
+    private List<String> labels;
+    private List<Double> prices;
+}
@@ -0,0 +1,24 @@
+package com.portfolio.backend.dto.market;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat view of a single market_data row
+ * Built directly by JPQL constructor expressions so no entity graph is loaded
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceTick {
+    private Long dataId;
+    private Long assetId;
+    private String symbol;
+    private BigDecimal price;
+    private Long volume;
+    private LocalDateTime recordedAt;
+}
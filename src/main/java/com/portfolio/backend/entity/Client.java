@@ -1,11 +1,12 @@
 package com.portfolio.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "clients")
+@Table(name = "clients", indexes = @Index(name = "idx_client_manager", columnList = "manager_id"))
 @Data
 public class Client {
     @Id
@@ -20,6 +21,13 @@ public class Client {
 
     private String email;
 
+    // Bumped in the same transaction as every buy/sell; caches of derived per-client data key on it.
+    // Internal, so not part of the API, and only ever changed by ClientRepository.incrementHoldingsVersion:
+    // saving a Client must not move it back
+    @JsonIgnore
+    @Column(name = "holdings_version", nullable = false, updatable = false)
+    private Long holdingsVersion = 0L;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 }
\ No newline at end of file
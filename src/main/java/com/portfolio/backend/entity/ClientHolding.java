@@ -1,5 +1,6 @@
 package com.portfolio.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*; // Imports @Entity, @Id, @ManyToOne, etc.
 import lombok.Data;           // Imports @Data for Getters/Setters
 import java.math.BigDecimal;
@@ -14,11 +15,13 @@ public class ClientHolding {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long holdingId;
 
-    @ManyToOne
+    // Lazy: reads that need the asset ask for it with an entity graph, and the client is rarely needed
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", nullable = false)
+    @JsonIgnore
     private Client client;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "asset_id", nullable = false)
     private Asset asset;
 
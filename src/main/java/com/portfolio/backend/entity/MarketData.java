@@ -0,0 +1,34 @@
+package com.portfolio.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "market_data", indexes = @Index(name = "idx_asset_time", columnList = "asset_id, recorded_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketData {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long dataId;
+
+    // Ticks are read in bulk, so never drag the Asset row along implicitly
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "asset_id", nullable = false)
+    private Asset asset;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal price;
+
+    private Long volume;
+
+    @Column(name = "recorded_at")
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,8 @@
+package com.portfolio.backend.event;
+
+/**
+ * Published when rows of the assets table are inserted, updated or deleted
+ * AssetCatalog rebuilds its snapshot after the transaction commits
+ */
+public class AssetsChangedEvent {
+}
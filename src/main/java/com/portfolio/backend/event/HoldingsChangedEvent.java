@@ -0,0 +1,15 @@
+package com.portfolio.backend.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published when a client's holdings are bought or sold
+ * Listeners that cache per-client state react after the transaction commits
+ */
+@Getter
+@RequiredArgsConstructor
+public class HoldingsChangedEvent {
+    private final Long clientId;
+    private final long holdingsVersion; // Client.holdingsVersion after the change
+}
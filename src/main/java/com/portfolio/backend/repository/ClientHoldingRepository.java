@@ -2,6 +2,9 @@ package com.portfolio.backend.repository;
 
 import com.portfolio.backend.entity.ClientHolding;
 import com.portfolio.backend.entity.enums.AssetCategory;
+import com.portfolio.backend.repository.projection.ClientCategoryAggregate;
+import com.portfolio.backend.repository.projection.HoldingView;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,11 +15,36 @@ import java.util.List;
 @Repository
 public interface ClientHoldingRepository extends JpaRepository<ClientHolding, Long> {
 
-    // Find all holdings for a specific client
+    // Find all holdings for a specific client, with their assets joined in (analysis and valuation read them)
+    @EntityGraph(attributePaths = "asset")
     List<ClientHolding> findByClient_ClientId(Long clientId);
 
+    // Holdings table of a client as flat rows: one select joining assets, no entities or Client rows
+    @Query("SELECT h.holdingId AS holdingId, a.symbol AS symbol, a.assetName AS assetName, a.category AS category, " +
+           "h.quantity AS quantity, h.avgBuyPrice AS avgBuyPrice, h.buyDate AS buyDate " +
+           "FROM ClientHolding h JOIN h.asset a WHERE h.client.clientId = :clientId ORDER BY h.holdingId")
+    List<HoldingView> findViewsByClientId(@Param("clientId") Long clientId);
+
     // CRITICAL: This is the method causing the Service error.
     // It counts how many assets of a specific category a client already owns.
     @Query("SELECT COUNT(ch) FROM ClientHolding ch WHERE ch.client.clientId = :clientId AND ch.asset.category = :category")
     long countByClientAndCategory(@Param("clientId") Long clientId, @Param("category") AssetCategory category);
-}
\ No newline at end of file
+
+    // Whole book of a manager in one round trip: per-client, per-category sums valued at the latest
+    // market_data row of each asset (newest recorded_at, ties broken by data_id, one idx_asset_time
+    // probe per asset), falling back to the buy price for assets without market data
+    @Query(value = "SELECT c.client_id AS clientId, c.full_name AS fullName, a.category AS category, " +
+                   "COUNT(h.holding_id) AS holdingsCount, " +
+                   "SUM(h.quantity * h.avg_buy_price) AS invested, " +
+                   "SUM(h.quantity * COALESCE(lp.price, h.avg_buy_price)) AS marketValue " +
+                   "FROM clients c " +
+                   "LEFT JOIN client_holdings h ON h.client_id = c.client_id " +
+                   "LEFT JOIN assets a ON a.asset_id = h.asset_id " +
+                   "LEFT JOIN (SELECT la.asset_id, (SELECT m.price FROM market_data m WHERE m.asset_id = la.asset_id " +
+                   "           ORDER BY m.recorded_at DESC, m.data_id DESC LIMIT 1) AS price FROM assets la) lp " +
+                   "       ON lp.asset_id = h.asset_id " +
+                   "WHERE c.manager_id = :managerId " +
+                   "GROUP BY c.client_id, c.full_name, a.category",
+           nativeQuery = true)
+    List<ClientCategoryAggregate> aggregateBookByManagerId(@Param("managerId") Long managerId);
+}
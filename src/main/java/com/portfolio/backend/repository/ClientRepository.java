@@ -2,12 +2,49 @@
 package com.portfolio.backend.repository;
 
 import com.portfolio.backend.entity.Client;
+import com.portfolio.backend.repository.projection.ClientView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
     List<Client> findByManagerId(Long managerId);
+
+    String CLIENT_VIEW = "SELECT c.clientId AS clientId, c.managerId AS managerId, c.fullName AS fullName, " +
+                         "c.email AS email, c.createdAt AS createdAt FROM Client c ";
+
+    // Keyset pages on the primary key: a range seek from afterId, so page 1000 costs the same as page 1
+    @Query(CLIENT_VIEW + "WHERE c.clientId > :afterId ORDER BY c.clientId")
+    List<ClientView> findViewsAfter(@Param("afterId") Long afterId, Pageable page);
+
+    // Seeks idx_client_manager, whose InnoDB entries end with the primary key, so rows come back in clientId order
+    @Query(CLIENT_VIEW + "WHERE c.managerId = :managerId AND c.clientId > :afterId ORDER BY c.clientId")
+    List<ClientView> findViewsByManagerAfter(@Param("managerId") Long managerId, @Param("afterId") Long afterId, Pageable page);
+
+    // Whole listing in clientId order, fetched from a server-side cursor. Must be consumed inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(CLIENT_VIEW + "ORDER BY c.clientId")
+    Stream<ClientView> streamViews();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(CLIENT_VIEW + "WHERE c.managerId = :managerId ORDER BY c.clientId")
+    Stream<ClientView> streamViewsByManager(@Param("managerId") Long managerId);
+
+    // Atomic in SQL so concurrent buys/sells of one client cannot lose an increment
+    @Modifying
+    @Query("UPDATE Client c SET c.holdingsVersion = c.holdingsVersion + 1 WHERE c.clientId = :clientId")
+    int incrementHoldingsVersion(@Param("clientId") Long clientId);
+
+    @Query("SELECT c.holdingsVersion FROM Client c WHERE c.clientId = :clientId")
+    Long findHoldingsVersion(@Param("clientId") Long clientId);
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.portfolio.backend.repository;
+
+import com.portfolio.backend.dto.market.PriceTick;
+import com.portfolio.backend.entity.MarketData;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface MarketDataRepository extends JpaRepository<MarketData, Long> {
+
+    // Latest row per asset. The correlated MAX is resolved through idx_asset_time (asset_id, recorded_at)
+    @Query("SELECT new com.portfolio.backend.dto.market.PriceTick(m.dataId, a.assetId, a.symbol, m.price, m.volume, m.recordedAt) " +
+           "FROM MarketData m JOIN m.asset a " +
+           "WHERE m.recordedAt = (SELECT MAX(m2.recordedAt) FROM MarketData m2 WHERE m2.asset = m.asset)")
+    List<PriceTick> findLatestPerAsset();
+
+    // Incremental read: only rows inserted after the given high-water mark (primary key range scan)
+    @Query("SELECT new com.portfolio.backend.dto.market.PriceTick(m.dataId, a.assetId, a.symbol, m.price, m.volume, m.recordedAt) " +
+           "FROM MarketData m JOIN m.asset a " +
+           "WHERE m.dataId > :afterId ORDER BY m.dataId")
+    List<PriceTick> findTicksAfter(@Param("afterId") Long afterId, Pageable page);
+
+    // Ids already visible in (afterId, upToId], on the primary key
+    @Query("SELECT m.dataId FROM MarketData m WHERE m.dataId > :afterId AND m.dataId <= :upToId")
+    List<Long> findDataIdsBetween(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    // History for the chart buffers, in (asset, time) order. Must be consumed inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.portfolio.backend.dto.market.PriceTick(m.dataId, a.assetId, a.symbol, m.price, m.volume, m.recordedAt) " +
+           "FROM MarketData m JOIN m.asset a " +
+           "WHERE m.recordedAt >= :since ORDER BY a.assetId, m.recordedAt, m.dataId")
+    Stream<PriceTick> streamTicksSince(@Param("since") LocalDateTime since);
+
+    // Range read for one asset on idx_asset_time, from (inclusive) so rows sharing the cursor's timestamp
+    // are not skipped. Must be consumed inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.portfolio.backend.dto.market.PriceTick(m.dataId, a.assetId, a.symbol, m.price, m.volume, m.recordedAt) " +
+           "FROM MarketData m JOIN m.asset a " +
+           "WHERE a.assetId = :assetId AND m.recordedAt >= :from ORDER BY m.recordedAt, m.dataId")
+    Stream<PriceTick> streamAssetTicksFrom(@Param("assetId") Long assetId, @Param("from") LocalDateTime from);
+
+    // Drop rows that are already archived in the tick store: none past its high-water mark, and the
+    // newest row stays as the snapshot
+    @Modifying
+    @Query("DELETE FROM MarketData m WHERE m.asset.assetId = :assetId AND m.recordedAt < :before AND m.dataId <= :upToId")
+    int deleteArchived(@Param("assetId") Long assetId, @Param("before") LocalDateTime before, @Param("upToId") Long upToId);
+
+    @Query("SELECT COALESCE(MAX(m.dataId), 0) FROM MarketData m")
+    Long findMaxDataId();
+}
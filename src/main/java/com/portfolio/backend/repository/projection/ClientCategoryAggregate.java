@@ -0,0 +1,16 @@
+package com.portfolio.backend.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of the manager book query: a client's holdings in one category, summed in SQL
+ * Clients without holdings come back as a single row with a null category and null sums.
+ */
+public interface ClientCategoryAggregate {
+    Long getClientId();
+    String getFullName();
+    String getCategory();
+    Long getHoldingsCount();
+    BigDecimal getInvested();
+    BigDecimal getMarketValue();
+}
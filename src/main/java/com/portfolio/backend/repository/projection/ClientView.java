@@ -0,0 +1,15 @@
+package com.portfolio.backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A client row as the clients listing serializes it; read by column, so large listings neither
+ * build entities nor fill the persistence context
+ */
+public interface ClientView {
+    Long getClientId();
+    Long getManagerId();
+    String getFullName();
+    String getEmail();
+    LocalDateTime getCreatedAt();
+}
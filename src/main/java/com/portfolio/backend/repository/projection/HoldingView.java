@@ -0,0 +1,20 @@
+package com.portfolio.backend.repository.projection;
+
+import com.portfolio.backend.entity.enums.AssetCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One holding with its asset flattened in, as the holdings table shows it; read in a single join
+ * without loading either entity
+ */
+public interface HoldingView {
+    Long getHoldingId();
+    String getSymbol();
+    String getAssetName();
+    AssetCategory getCategory();
+    BigDecimal getQuantity();
+    BigDecimal getAvgBuyPrice();
+    LocalDate getBuyDate();
+}
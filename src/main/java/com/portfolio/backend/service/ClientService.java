@@ -1,15 +1,23 @@
 package com.portfolio.backend.service;
 
+import com.portfolio.backend.dto.ClientPage;
 import com.portfolio.backend.entity.Client;
 import com.portfolio.backend.repository.ClientRepository;
+import com.portfolio.backend.repository.projection.ClientView;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ClientService implements ClientServiceInterface {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private ClientRepository clientRepository;
 
@@ -18,8 +26,31 @@ public class ClientService implements ClientServiceInterface {
         return clientRepository.findAll();
     }
 
+    // Clients with clientId > afterId in clientId order, optionally of one manager; size is clamped to 1..MAX_PAGE_SIZE
+    public ClientPage getClientPage(Long managerId, Long afterId, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long after = afterId == null ? 0L : afterId;
+        PageRequest page = PageRequest.ofSize(limit);
+        List<ClientView> clients = managerId == null
+                ? clientRepository.findViewsAfter(after, page)
+                : clientRepository.findViewsByManagerAfter(managerId, after, page);
+        // A full page may be followed by more; a short one is the last
+        Long nextCursor = clients.size() == limit ? clients.get(limit - 1).getClientId() : null;
+        return new ClientPage(clients, nextCursor);
+    }
+
+    // Hand every client (optionally of one manager) to action as the rows arrive from the cursor
+    @Transactional(readOnly = true)
+    public void forEachClient(Long managerId, Consumer<ClientView> action) {
+        try (Stream<ClientView> clients = managerId == null
+                ? clientRepository.streamViews()
+                : clientRepository.streamViewsByManager(managerId)) {
+            clients.forEach(action);
+        }
+    }
+
     // Save a new client to the database
     public Client addClient(Client client) {
         return clientRepository.save(client);
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,15 @@
 package com.portfolio.backend.service;
 
+import com.portfolio.backend.dto.ClientPage;
 import com.portfolio.backend.entity.Client;
+import com.portfolio.backend.repository.projection.ClientView;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ClientServiceInterface {
     List<Client> getAllClients();
+    ClientPage getClientPage(Long managerId, Long afterId, int size);
+    void forEachClient(Long managerId, Consumer<ClientView> action);
     Client addClient(Client client);
 }
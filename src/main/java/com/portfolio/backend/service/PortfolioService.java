@@ -4,10 +4,12 @@ import com.portfolio.backend.dto.BuyAssetRequest;
 import com.portfolio.backend.entity.Asset;
 import com.portfolio.backend.entity.Client;
 import com.portfolio.backend.entity.ClientHolding;
-import com.portfolio.backend.repository.AssetRepository;
+import com.portfolio.backend.event.HoldingsChangedEvent;
 import com.portfolio.backend.repository.ClientHoldingRepository;
 import com.portfolio.backend.repository.ClientRepository;
+import com.portfolio.backend.service.market.AssetCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,7 +25,10 @@ public class PortfolioService implements PortfolioServiceInterface {
     private ClientRepository clientRepository;
 
     @Autowired
-    private AssetRepository assetRepository;
+    private AssetCatalog assetCatalog;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ClientHolding buyAsset(BuyAssetRequest request) {
@@ -31,8 +36,8 @@ public class PortfolioService implements PortfolioServiceInterface {
         Client client = clientRepository.findById(request.getClientId())
                 .orElseThrow(() -> new RuntimeException("Client not found"));
 
-        // 2. Validate Asset
-        Asset asset = assetRepository.findById(request.getAssetId())
+        // 2. Validate Asset (from the in-memory catalog; the holding only needs its id for the foreign key)
+        Asset asset = assetCatalog.findById(request.getAssetId())
                 .orElseThrow(() -> new RuntimeException("Asset not found"));
 
         // 3. RULE CHECK: Max 5 Assets per Category
@@ -53,6 +58,26 @@ public class PortfolioService implements PortfolioServiceInterface {
         holding.setAvgBuyPrice(request.getPrice());
         holding.setBuyDate(LocalDate.now());
 
-        return holdingRepository.save(holding);
+        ClientHolding saved = holdingRepository.save(holding);
+        eventPublisher.publishEvent(new HoldingsChangedEvent(client.getClientId(), bumpHoldingsVersion(client.getClientId())));
+        return saved;
+    }
+
+    @Transactional
+    public void sellAsset(Long holdingId) {
+        // Unknown ids are ignored, matching the previous deleteById behaviour
+        holdingRepository.findById(holdingId).ifPresent(holding -> {
+            holdingRepository.delete(holding);
+            Long clientId = holding.getClient().getClientId();
+            eventPublisher.publishEvent(new HoldingsChangedEvent(clientId, bumpHoldingsVersion(clientId)));
+        });
+    }
+
+    /**
+     * Increment the client's holdings version inside the caller's transaction and return the new value
+     */
+    private long bumpHoldingsVersion(Long clientId) {
+        clientRepository.incrementHoldingsVersion(clientId);
+        return clientRepository.findHoldingsVersion(clientId);
     }
 }
\ No newline at end of file
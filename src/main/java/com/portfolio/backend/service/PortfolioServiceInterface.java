@@ -5,4 +5,5 @@ import com.portfolio.backend.entity.ClientHolding;
 
 public interface PortfolioServiceInterface {
     ClientHolding buyAsset(BuyAssetRequest request);
+    void sellAsset(Long holdingId);
 }
@@ -0,0 +1,17 @@
+package com.portfolio.backend.service.analysis;
+
+import com.portfolio.backend.dto.chatbot.PortfolioAnalysisResult;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A client's analysis together with its rendered markdown summary, as cached per holdings version and price epoch
+ */
+@Getter
+@RequiredArgsConstructor
+public class AnalysisSnapshot {
+    private final PortfolioAnalysisResult analysis;
+    private final String summary;
+    private final long holdingsVersion;
+    private final long priceEpoch;
+}
@@ -0,0 +1,219 @@
+package com.portfolio.backend.service.analysis;
+
+import com.portfolio.backend.dto.chatbot.PortfolioAnalysisResult;
+import com.portfolio.backend.entity.ClientHolding;
+import com.portfolio.backend.entity.enums.AssetCategory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scaled-long implementation of the portfolio metrics in PortfolioAnalysisService
+ *
+ * Quantities and prices are held as longs at scale 2 (the column scale), so every product is an
+ * exact long at scale 4 (1e-4 paise) and sums stay exact. BigDecimal is only created when the
+ * result is assembled, with the same values and scales the BigDecimal path produces, and the
+ * HALF_UP divisions are done on the integer quotient. Inputs with more than two decimals or
+ * values that overflow a long return null so the caller can fall back to BigDecimal.
+ */
+final class FixedPointPortfolioCalculator {
+
+    private static final int INPUT_SCALE = 2;
+    private static final int PRODUCT_SCALE = 2 * INPUT_SCALE;
+    private static final int RATIO_SCALE = 4;
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L};
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    private static final AssetCategory[] CATEGORIES = AssetCategory.values();
+    private static final long[] WEIGHTS = new long[CATEGORIES.length];
+    private static final int WEIGHT_SCALE;
+
+    static {
+        int scale = 0;
+        BigDecimal[] weights = new BigDecimal[CATEGORIES.length];
+        for (AssetCategory category : CATEGORIES) {
+            weights[category.ordinal()] = BigDecimal.valueOf(PortfolioAnalysisService.betaWeight(category));
+            scale = Math.max(scale, weights[category.ordinal()].scale());
+        }
+        for (AssetCategory category : CATEGORIES) {
+            WEIGHTS[category.ordinal()] = weights[category.ordinal()].setScale(scale).unscaledValue().longValueExact();
+        }
+        WEIGHT_SCALE = scale;
+    }
+
+    private FixedPointPortfolioCalculator() {
+    }
+
+    /**
+     * Fill totals, beta and category maps into result and return the per-holding performances,
+     * or null (with result untouched) when the inputs are outside the scaled-long range
+     */
+    static List<PortfolioAnalysisResult.AssetPerformance> calculate(List<ClientHolding> holdings,
+                                                                    Map<String, BigDecimal> currentPrices,
+                                                                    PortfolioAnalysisResult result) {
+        if (WEIGHT_SCALE > RATIO_SCALE) {
+            return null;
+        }
+        int n = holdings.size();
+        long[] invested = new long[n];
+        long[] marketValue = new long[n];
+        int[] investedScale = new int[n];
+        int[] valueScale = new int[n];
+
+        long totalInvested = 0;
+        long totalValue = 0;
+        long weightedBetaSum = 0;
+        int totalInvestedScale = 0;
+        int totalValueScale = 0;
+        long[] categoryValue = new long[CATEGORIES.length];
+        int[] categoryScale = new int[CATEGORIES.length];
+
+        try {
+            for (int i = 0; i < n; i++) {
+                ClientHolding holding = holdings.get(i);
+                AssetCategory category = holding.getAsset().getCategory();
+                BigDecimal quantity = holding.getQuantity();
+                BigDecimal avgBuyPrice = holding.getAvgBuyPrice();
+                BigDecimal currentPrice = currentPrices.getOrDefault(holding.getAsset().getSymbol(), avgBuyPrice);
+                if (category == null || !eligible(quantity) || !eligible(avgBuyPrice) || !eligible(currentPrice)) {
+                    return null;
+                }
+
+                long q = toScaled(quantity);
+                invested[i] = Math.multiplyExact(toScaled(avgBuyPrice), q);
+                marketValue[i] = Math.multiplyExact(toScaled(currentPrice), q);
+                investedScale[i] = avgBuyPrice.scale() + quantity.scale();
+                valueScale[i] = currentPrice.scale() + quantity.scale();
+
+                totalInvested = Math.addExact(totalInvested, invested[i]);
+                totalValue = Math.addExact(totalValue, marketValue[i]);
+                totalInvestedScale = Math.max(totalInvestedScale, investedScale[i]);
+                totalValueScale = Math.max(totalValueScale, valueScale[i]);
+
+                int c = category.ordinal();
+                categoryValue[c] = Math.addExact(categoryValue[c], marketValue[i]);
+                categoryScale[c] = Math.max(categoryScale[c], valueScale[i]);
+                weightedBetaSum = Math.addExact(weightedBetaSum, Math.multiplyExact(marketValue[i], WEIGHTS[c]));
+            }
+
+            // Ratios at scale 4; the beta numerator carries WEIGHT_SCALE extra decimals
+            long betaQuotient = totalValue > 0
+                    ? ratioHalfUp(weightedBetaSum, totalValue, RATIO_SCALE - WEIGHT_SCALE)
+                    : 0;
+            long[] categoryQuotient = new long[CATEGORIES.length];
+            if (totalValue > 0) {
+                for (int c = 0; c < CATEGORIES.length; c++) {
+                    categoryQuotient[c] = ratioHalfUp(categoryValue[c], totalValue, RATIO_SCALE);
+                }
+            }
+            long[] pnlQuotient = new long[n];
+            for (int i = 0; i < n; i++) {
+                if (invested[i] > 0) {
+                    long pnl = Math.subtractExact(marketValue[i], invested[i]);
+                    pnlQuotient[i] = ratioHalfUp(pnl, invested[i], RATIO_SCALE);
+                }
+            }
+
+            List<PortfolioAnalysisResult.AssetPerformance> performances = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                ClientHolding holding = holdings.get(i);
+                PortfolioAnalysisResult.AssetPerformance perf = new PortfolioAnalysisResult.AssetPerformance();
+                perf.setSymbol(holding.getAsset().getSymbol());
+                perf.setAssetName(holding.getAsset().getAssetName());
+                perf.setPnl(toBigDecimal(Math.subtractExact(marketValue[i], invested[i]),
+                        Math.max(valueScale[i], investedScale[i])));
+                perf.setPnlPercentage(toDouble(pnlQuotient[i], RATIO_SCALE - 2));
+                perf.setMarketValue(toBigDecimal(marketValue[i], valueScale[i]));
+                performances.add(perf);
+            }
+
+            Map<String, BigDecimal> categoryExposure = new HashMap<>();
+            Map<String, BigDecimal> categoryPercentage = new HashMap<>();
+            for (AssetCategory category : CATEGORIES) {
+                int c = category.ordinal();
+                categoryExposure.put(category.name(), toBigDecimal(categoryValue[c], categoryScale[c]));
+                if (totalValue > 0) {
+                    // divide(..., 4, HALF_UP).multiply(100) keeps scale 4
+                    categoryPercentage.put(category.name(),
+                            BigDecimal.valueOf(Math.multiplyExact(categoryQuotient[c], 100L), RATIO_SCALE));
+                }
+            }
+
+            BigDecimal unrealizedPnL = toBigDecimal(Math.subtractExact(totalValue, totalInvested),
+                    Math.max(totalValueScale, totalInvestedScale));
+            result.setTotalValue(toBigDecimal(totalValue, totalValueScale));
+            result.setTotalInvested(toBigDecimal(totalInvested, totalInvestedScale));
+            result.setUnrealizedPnL(unrealizedPnL);
+            result.setPortfolioBeta(totalValue > 0 ? toDouble(betaQuotient, RATIO_SCALE) : 1.0);
+            result.setCategoryExposure(categoryExposure);
+            result.setCategoryPercentage(categoryPercentage);
+            return performances;
+        } catch (ArithmeticException overflow) {
+            return null;
+        }
+    }
+
+    /**
+     * numerator / denominator with scale decimals, rounded HALF_UP, as an unscaled long
+     * Splitting off the integer part keeps the intermediate product small; if even the remainder
+     * overflows, that single division goes through BigDecimal.
+     */
+    static long ratioHalfUp(long numerator, long denominator, int scale) {
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        try {
+            // quotient and remainder share the numerator's sign, so rounding the fraction alone is enough
+            return Math.addExact(Math.multiplyExact(quotient, POW10[scale]),
+                    divideHalfUp(Math.multiplyExact(remainder, POW10[scale]), denominator));
+        } catch (ArithmeticException overflow) {
+            return BigDecimal.valueOf(numerator)
+                    .divide(BigDecimal.valueOf(denominator), scale, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+        }
+    }
+
+    /**
+     * Round-half-up integer division, matching RoundingMode.HALF_UP for either sign
+     */
+    static long divideHalfUp(long numerator, long denominator) {
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (remainder != 0) {
+            long absRemainder = Math.abs(remainder);
+            long absDenominator = Math.abs(denominator);
+            if (absRemainder >= absDenominator - absRemainder) {
+                quotient += (numerator ^ denominator) < 0 ? -1 : 1;
+            }
+        }
+        return quotient;
+    }
+
+    private static boolean eligible(BigDecimal value) {
+        return value != null && value.scale() >= 0 && value.scale() <= INPUT_SCALE && value.precision() <= 18;
+    }
+
+    private static long toScaled(BigDecimal value) {
+        return Math.multiplyExact(value.unscaledValue().longValue(), POW10[INPUT_SCALE - value.scale()]);
+    }
+
+    /**
+     * A product-scale long as BigDecimal with the given scale; exact since scale never exceeds the inputs'
+     */
+    private static BigDecimal toBigDecimal(long productScaled, int scale) {
+        return BigDecimal.valueOf(productScaled / POW10[PRODUCT_SCALE - scale], scale);
+    }
+
+    /**
+     * Same double BigDecimal.valueOf(unscaled, scale).doubleValue() returns; both round correctly
+     */
+    private static double toDouble(long unscaled, int scale) {
+        if (unscaled >= -MAX_EXACT_DOUBLE && unscaled <= MAX_EXACT_DOUBLE) {
+            return unscaled / (double) POW10[scale];
+        }
+        return BigDecimal.valueOf(unscaled, scale).doubleValue();
+    }
+}
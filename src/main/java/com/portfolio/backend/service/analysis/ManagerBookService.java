@@ -0,0 +1,113 @@
+package com.portfolio.backend.service.analysis;
+
+import com.portfolio.backend.dto.manager.ClientBookEntry;
+import com.portfolio.backend.dto.manager.ManagerBookResponse;
+import com.portfolio.backend.entity.enums.AssetCategory;
+import com.portfolio.backend.repository.ClientHoldingRepository;
+import com.portfolio.backend.repository.projection.ClientCategoryAggregate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Book-wide analysis for a manager
+ * Sums are pushed down into one grouped SQL query (per client and category); only beta, the
+ * percentages and the book totals are derived here, per client in parallel for large books.
+ */
+@Service
+@Slf4j
+public class ManagerBookService implements ManagerBookServiceInterface {
+
+    // Below this many clients the fork/join split costs more than the aggregation itself
+    private static final int PARALLEL_THRESHOLD = 500;
+
+    @Autowired
+    private ClientHoldingRepository holdingRepository;
+
+    /**
+     * Aggregate the whole book of a manager in a single round trip
+     */
+    public ManagerBookResponse getBook(Long managerId) {
+        long start = System.nanoTime();
+        List<ClientCategoryAggregate> rows = holdingRepository.aggregateBookByManagerId(managerId);
+
+        Map<Long, List<ClientCategoryAggregate>> rowsByClient = rows.stream()
+            .collect(Collectors.groupingBy(ClientCategoryAggregate::getClientId, LinkedHashMap::new, Collectors.toList()));
+        List<ClientBookEntry> clients = (rowsByClient.size() >= PARALLEL_THRESHOLD
+                ? rowsByClient.values().parallelStream()
+                : rowsByClient.values().stream())
+            .map(this::toClientEntry)
+            .sorted(Comparator.comparing(ClientBookEntry::getClientId))
+            .collect(Collectors.toList());
+
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal totalInvested = BigDecimal.ZERO;
+        Map<String, BigDecimal> categoryExposure = emptyExposure();
+        for (ClientBookEntry client : clients) {
+            totalValue = totalValue.add(client.getTotalValue());
+            totalInvested = totalInvested.add(client.getTotalInvested());
+            client.getCategoryExposure().forEach((category, value) -> categoryExposure.merge(category, value, BigDecimal::add));
+        }
+
+        Map<String, BigDecimal> categoryPercentage = new HashMap<>();
+        if (totalValue.compareTo(BigDecimal.ZERO) > 0) {
+            for (Map.Entry<String, BigDecimal> entry : categoryExposure.entrySet()) {
+                categoryPercentage.put(entry.getKey(), entry.getValue().divide(totalValue, 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100)));
+            }
+        }
+
+        log.debug("Book of manager {}: {} clients from {} rows in {} ms",
+            managerId, clients.size(), rows.size(), (System.nanoTime() - start) / 1_000_000);
+        return new ManagerBookResponse(managerId, clients.size(), totalValue, totalInvested,
+            totalValue.subtract(totalInvested), portfolioBeta(categoryExposure, totalValue),
+            categoryExposure, categoryPercentage, clients);
+    }
+
+    private ClientBookEntry toClientEntry(List<ClientCategoryAggregate> rows) {
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal totalInvested = BigDecimal.ZERO;
+        long holdingsCount = 0;
+        Map<String, BigDecimal> categoryExposure = emptyExposure();
+        for (ClientCategoryAggregate row : rows) {
+            if (row.getCategory() == null) {
+                continue; // Client without holdings
+            }
+            totalValue = totalValue.add(row.getMarketValue());
+            totalInvested = totalInvested.add(row.getInvested());
+            holdingsCount += row.getHoldingsCount();
+            categoryExposure.merge(row.getCategory(), row.getMarketValue(), BigDecimal::add);
+        }
+        ClientCategoryAggregate first = rows.get(0);
+        return new ClientBookEntry(first.getClientId(), first.getFullName(), totalValue, totalInvested,
+            totalValue.subtract(totalInvested), portfolioBeta(categoryExposure, totalValue), categoryExposure, holdingsCount);
+    }
+
+    /**
+     * Value-weighted category beta, rounded like PortfolioAnalysisService
+     */
+    private static Double portfolioBeta(Map<String, BigDecimal> categoryExposure, BigDecimal totalValue) {
+        if (totalValue.compareTo(BigDecimal.ZERO) <= 0) {
+            return 1.0;
+        }
+        BigDecimal weightedBetaSum = BigDecimal.ZERO;
+        for (Map.Entry<String, BigDecimal> entry : categoryExposure.entrySet()) {
+            double weight = PortfolioAnalysisService.betaWeight(AssetCategory.valueOf(entry.getKey()));
+            weightedBetaSum = weightedBetaSum.add(entry.getValue().multiply(BigDecimal.valueOf(weight)));
+        }
+        return weightedBetaSum.divide(totalValue, 4, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static Map<String, BigDecimal> emptyExposure() {
+        Map<String, BigDecimal> exposure = new HashMap<>();
+        for (AssetCategory category : AssetCategory.values()) {
+            exposure.put(category.name(), BigDecimal.ZERO);
+        }
+        return exposure;
+    }
+}
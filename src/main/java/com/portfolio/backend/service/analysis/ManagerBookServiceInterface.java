@@ -0,0 +1,7 @@
+package com.portfolio.backend.service.analysis;
+
+import com.portfolio.backend.dto.manager.ManagerBookResponse;
+
+public interface ManagerBookServiceInterface {
+    ManagerBookResponse getBook(Long managerId);
+}
@@ -0,0 +1,129 @@
+package com.portfolio.backend.service.analysis;
+
+import com.portfolio.backend.config.PortfolioAnalysisConfig;
+import com.portfolio.backend.dto.CacheStats;
+import com.portfolio.backend.dto.chatbot.PortfolioAnalysisResult;
+import com.portfolio.backend.event.HoldingsChangedEvent;
+import com.portfolio.backend.repository.ClientRepository;
+import com.portfolio.backend.service.market.PriceServiceInterface;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of per-client analysis results and summaries
+ *
+ * Entries are keyed by (clientId, holdingsVersion, priceEpoch), so a buy/sell or a price change
+ * makes the old entry unreachable instead of requiring an explicit purge; it ages out through LRU.
+ * The holdings version of each client is learned once from the database and then kept current from
+ * HoldingsChangedEvent after commit, and the price epoch is an in-memory counter: a repeated chat
+ * turn with unchanged holdings and prices is answered without touching the database.
+ */
+@Component
+@Slf4j
+public class PortfolioAnalysisCache {
+
+    @Autowired
+    private PortfolioAnalysisServiceInterface portfolioAnalysisService;
+
+    @Autowired
+    private PriceServiceInterface priceService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private PortfolioAnalysisConfig config;
+
+    private final Map<Long, Long> holdingsVersions = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Access-ordered; guarded by its own monitor
+    private final LinkedHashMap<Key, AnalysisSnapshot> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, AnalysisSnapshot> eldest) {
+            if (size() > config.getCacheMaxEntries()) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Analysis and summary for the client's current holdings and prices, computed on a miss only
+     */
+    public AnalysisSnapshot get(Long clientId) {
+        // Epoch before the prices are read: an entry may hold newer prices than its key, never older ones
+        long priceEpoch = priceService.getPriceEpoch();
+        long holdingsVersion = holdingsVersion(clientId);
+        Key key = new Key(clientId, holdingsVersion, priceEpoch);
+
+        synchronized (entries) {
+            AnalysisSnapshot cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+
+        // Computed outside the lock; concurrent misses for one key compute twice and the last put wins
+        PortfolioAnalysisResult analysis = portfolioAnalysisService.analyzePortfolio(clientId, priceService.getCurrentPrices());
+        AnalysisSnapshot snapshot = new AnalysisSnapshot(analysis,
+            portfolioAnalysisService.generatePortfolioSummary(analysis), holdingsVersion, priceEpoch);
+        synchronized (entries) {
+            entries.put(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Track the version committed by a buy/sell; entries under older versions are never hit again
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(HoldingsChangedEvent event) {
+        holdingsVersions.merge(event.getClientId(), event.getHoldingsVersion(), Math::max);
+    }
+
+    public CacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return new CacheStats("portfolioAnalysis", size, config.getCacheMaxEntries(), hitCount, missCount,
+            evictions.sum(), lookups == 0 ? 0.0 : (double) hitCount / lookups);
+    }
+
+    private long holdingsVersion(Long clientId) {
+        Long known = holdingsVersions.get(clientId);
+        if (known != null) {
+            return known;
+        }
+        Long stored = clientRepository.findHoldingsVersion(clientId);
+        long version = stored != null ? stored : 0L;
+        // An event that raced this read may already have stored a newer version
+        return holdingsVersions.merge(clientId, version, Math::max);
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class Key {
+        private Long clientId;
+        private long holdingsVersion;
+        private long priceEpoch;
+    }
+}
@@ -4,13 +4,17 @@ import com.portfolio.backend.dto.chatbot.PortfolioAnalysisResult;
 import com.portfolio.backend.entity.ClientHolding;
 import com.portfolio.backend.entity.enums.AssetCategory;
 import com.portfolio.backend.repository.ClientHoldingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +28,8 @@ public class PortfolioAnalysisService implements PortfolioAnalysisServiceInterfa
     @Autowired
     private ClientHoldingRepository holdingRepository;
     
+    private final Timer analysisTimer;
+    
     // Risk weights for Beta calculation
     private static final Map<AssetCategory, Double> CATEGORY_WEIGHTS = Map.of(
         AssetCategory.COMMODITY, 1.5,
@@ -31,12 +37,39 @@ public class PortfolioAnalysisService implements PortfolioAnalysisServiceInterfa
         AssetCategory.MF, 0.7
     );
     
+    public PortfolioAnalysisService(MeterRegistry meterRegistry) {
+        this.analysisTimer = Timer.builder("portfolio.analysis")
+            .description("Loading a client's holdings and analyzing them at current prices")
+            .publishPercentileHistogram()
+            .maximumExpectedValue(Duration.ofSeconds(10))
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Beta weight of a category, shared with the incremental valuation engine
+     */
+    public static double betaWeight(AssetCategory category) {
+        return CATEGORY_WEIGHTS.getOrDefault(category, 1.0);
+    }
+    
     /**
      * Analyze portfolio for a specific client
      */
     public PortfolioAnalysisResult analyzePortfolio(Long clientId, Map<String, BigDecimal> currentPrices) {
-        List<ClientHolding> holdings = holdingRepository.findByClient_ClientId(clientId);
-        
+        long start = System.nanoTime();
+        try {
+            List<ClientHolding> holdings = holdingRepository.findByClient_ClientId(clientId);
+            return analyzeHoldings(clientId, holdings, currentPrices);
+        } finally {
+            analysisTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Analyze already loaded holdings, on scaled longs when the amounts allow it
+     */
+    public PortfolioAnalysisResult analyzeHoldings(Long clientId, List<ClientHolding> holdings,
+                                                   Map<String, BigDecimal> currentPrices) {
         if (holdings.isEmpty()) {
             return createEmptyResult(clientId);
         }
@@ -44,6 +77,31 @@ public class PortfolioAnalysisService implements PortfolioAnalysisServiceInterfa
         PortfolioAnalysisResult result = new PortfolioAnalysisResult();
         result.setClientId(clientId);
         
+        List<PortfolioAnalysisResult.AssetPerformance> performances =
+            FixedPointPortfolioCalculator.calculate(holdings, currentPrices, result);
+        if (performances == null) {
+            // More than two decimals or beyond long range: exact BigDecimal arithmetic
+            performances = calculateMetrics(holdings, currentPrices, result);
+        }
+        return completeResult(result, performances);
+    }
+    
+    /**
+     * Reference BigDecimal implementation of analyzeHoldings, used to verify and benchmark the fixed-point path
+     */
+    public PortfolioAnalysisResult analyzeHoldingsWithBigDecimal(Long clientId, List<ClientHolding> holdings,
+                                                                 Map<String, BigDecimal> currentPrices) {
+        if (holdings.isEmpty()) {
+            return createEmptyResult(clientId);
+        }
+        PortfolioAnalysisResult result = new PortfolioAnalysisResult();
+        result.setClientId(clientId);
+        return completeResult(result, calculateMetrics(holdings, currentPrices, result));
+    }
+    
+    private List<PortfolioAnalysisResult.AssetPerformance> calculateMetrics(List<ClientHolding> holdings,
+                                                                            Map<String, BigDecimal> currentPrices,
+                                                                            PortfolioAnalysisResult result) {
         // Calculate metrics
         BigDecimal totalInvested = BigDecimal.ZERO;
         BigDecimal totalValue = BigDecimal.ZERO;
@@ -113,6 +171,11 @@ public class PortfolioAnalysisService implements PortfolioAnalysisServiceInterfa
         result.setCategoryExposure(categoryExposure);
         result.setCategoryPercentage(categoryPercentage);
         
+        return performances;
+    }
+    
+    private PortfolioAnalysisResult completeResult(PortfolioAnalysisResult result,
+                                                   List<PortfolioAnalysisResult.AssetPerformance> performances) {
         // Top and underperformers
         List<PortfolioAnalysisResult.AssetPerformance> sortedPerf = performances.stream()
             .sorted((a, b) -> b.getPnlPercentage().compareTo(a.getPnlPercentage()))
@@ -1,11 +1,14 @@
 package com.portfolio.backend.service.analysis;
 
 import com.portfolio.backend.dto.chatbot.PortfolioAnalysisResult;
+import com.portfolio.backend.entity.ClientHolding;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 
 public interface PortfolioAnalysisServiceInterface {
     PortfolioAnalysisResult analyzePortfolio(Long clientId, Map<String, BigDecimal> currentPrices);
+    PortfolioAnalysisResult analyzeHoldings(Long clientId, List<ClientHolding> holdings, Map<String, BigDecimal> currentPrices);
     String generatePortfolioSummary(PortfolioAnalysisResult analysis);
 }
@@ -0,0 +1,259 @@
+package com.portfolio.backend.service.analysis;
+
+import com.portfolio.backend.dto.PortfolioValuation;
+import com.portfolio.backend.dto.chatbot.PortfolioAnalysisResult;
+import com.portfolio.backend.dto.market.PriceTick;
+import com.portfolio.backend.entity.ClientHolding;
+import com.portfolio.backend.entity.enums.AssetCategory;
+import com.portfolio.backend.event.HoldingsChangedEvent;
+import com.portfolio.backend.repository.ClientHoldingRepository;
+import com.portfolio.backend.service.market.PriceServiceInterface;
+import com.portfolio.backend.service.market.PriceTickListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Incremental portfolio valuation driven by price ticks
+ *
+ * Keeps running aggregates per client (value, invested, weighted-beta numerator, per-category value)
+ * and a symbol -> positions reverse index. A tick only touches the positions holding that symbol,
+ * and reads are O(1). Clients are loaded lazily on first read and dropped when their holdings change;
+ * a full recompute only runs in reconcile().
+ */
+@Component
+@Slf4j
+public class PortfolioValuationEngine implements PriceTickListener {
+
+    @Autowired
+    private ClientHoldingRepository holdingRepository;
+
+    @Autowired
+    private PriceServiceInterface priceService;
+
+    @Autowired
+    private PortfolioAnalysisServiceInterface portfolioAnalysisService;
+
+    private final Map<Long, ClientValuation> valuations = new ConcurrentHashMap<>();
+    private final Map<String, Set<Position>> holdersBySymbol = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    // Guards structural changes (install/invalidate) so the reverse index never holds orphaned positions
+    private final Object indexLock = new Object();
+
+    /**
+     * Current valuation for a client; loads the client on first access
+     */
+    public PortfolioValuation getValuation(Long clientId) {
+        ClientValuation valuation = valuations.get(clientId);
+        if (valuation == null) {
+            valuation = load(clientId);
+        }
+        return valuation.snapshot();
+    }
+
+    @Override
+    public void onPriceTick(PriceTick tick) {
+        Set<Position> holders = holdersBySymbol.get(tick.getSymbol());
+        if (holders == null || holders.isEmpty()) {
+            return;
+        }
+        // Use the cached latest price rather than the tick itself, so back-filled rows are ignored
+        BigDecimal latest = priceService.getCurrentPrice(tick.getSymbol());
+        if (latest == null) {
+            return;
+        }
+        for (Position position : holders) {
+            position.owner.reprice(position, latest);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(HoldingsChangedEvent event) {
+        invalidate(event.getClientId());
+    }
+
+    public void invalidate(Long clientId) {
+        synchronized (indexLock) {
+            generation(clientId).incrementAndGet();
+            ClientValuation removed = valuations.remove(clientId);
+            if (removed != null) {
+                removed.positions.forEach(this::unregister);
+            }
+        }
+    }
+
+    /**
+     * Reconciliation check: recompute from holdings and compare with the running aggregates
+     * A drifted client is dropped and rebuilt on its next read.
+     */
+    public boolean reconcile(Long clientId) {
+        ClientValuation valuation = valuations.get(clientId);
+        if (valuation == null) {
+            return true;
+        }
+        PortfolioValuation running = valuation.snapshot();
+        PortfolioAnalysisResult full = portfolioAnalysisService.analyzePortfolio(clientId, priceService.getCurrentPrices());
+        boolean consistent = running.getTotalValue().compareTo(full.getTotalValue()) == 0
+                && running.getTotalInvested().compareTo(full.getTotalInvested()) == 0;
+        if (!consistent) {
+            log.warn("Valuation drift for clientId={}: running value={} invested={}, recomputed value={} invested={}",
+                    clientId, running.getTotalValue(), running.getTotalInvested(), full.getTotalValue(), full.getTotalInvested());
+            invalidate(clientId);
+        }
+        return consistent;
+    }
+
+    @Scheduled(fixedDelayString = "${portfolio.valuation.reconcile-interval-ms:600000}")
+    public void reconcileAll() {
+        int drifted = 0;
+        for (Long clientId : new ArrayList<>(valuations.keySet())) {
+            try {
+                if (!reconcile(clientId)) {
+                    drifted++;
+                }
+            } catch (Exception e) {
+                log.warn("Reconciliation failed for clientId={}: {}", clientId, e.getMessage());
+            }
+        }
+        if (drifted > 0) {
+            log.warn("Valuation reconciliation rebuilt {} client(s)", drifted);
+        }
+    }
+
+    private ClientValuation load(Long clientId) {
+        long generation = generation(clientId).get();
+        ClientValuation fresh = new ClientValuation(clientId);
+        for (ClientHolding holding : holdingRepository.findByClient_ClientId(clientId)) {
+            if (holding.getQuantity() == null || holding.getAvgBuyPrice() == null) {
+                continue;
+            }
+            String symbol = holding.getAsset().getSymbol();
+            BigDecimal price = priceService.getCurrentPrice(symbol);
+            fresh.add(new Position(fresh, symbol, holding.getAsset().getCategory(),
+                    holding.getQuantity(), holding.getAvgBuyPrice(), price != null ? price : holding.getAvgBuyPrice()));
+        }
+
+        synchronized (indexLock) {
+            if (generation(clientId).get() != generation) {
+                return fresh; // Holdings changed while loading: serve this read, but do not keep it
+            }
+            ClientValuation existing = valuations.get(clientId);
+            if (existing != null) {
+                return existing;
+            }
+            valuations.put(clientId, fresh);
+            fresh.positions.forEach(this::register);
+        }
+
+        // Pick up ticks that arrived between reading prices and registering in the reverse index
+        for (Position position : fresh.positions) {
+            BigDecimal latest = priceService.getCurrentPrice(position.symbol);
+            if (latest != null) {
+                fresh.reprice(position, latest);
+            }
+        }
+        return fresh;
+    }
+
+    private void register(Position position) {
+        holdersBySymbol.computeIfAbsent(position.symbol, s -> ConcurrentHashMap.newKeySet()).add(position);
+    }
+
+    private void unregister(Position position) {
+        Set<Position> holders = holdersBySymbol.get(position.symbol);
+        if (holders != null) {
+            holders.remove(position);
+        }
+    }
+
+    private AtomicLong generation(Long clientId) {
+        return generations.computeIfAbsent(clientId, id -> new AtomicLong());
+    }
+
+    /**
+     * One holding inside a client's valuation; price is guarded by the owner's lock
+     */
+    private static final class Position {
+        private final ClientValuation owner;
+        private final String symbol;
+        private final AssetCategory category;
+        private final BigDecimal quantity;
+        private final BigDecimal avgBuyPrice;
+        private final BigDecimal betaWeight;
+        private BigDecimal price;
+
+        Position(ClientValuation owner, String symbol, AssetCategory category,
+                 BigDecimal quantity, BigDecimal avgBuyPrice, BigDecimal price) {
+            this.owner = owner;
+            this.symbol = symbol;
+            this.category = category;
+            this.quantity = quantity;
+            this.avgBuyPrice = avgBuyPrice;
+            this.betaWeight = BigDecimal.valueOf(PortfolioAnalysisService.betaWeight(category));
+            this.price = price;
+        }
+    }
+
+    /**
+     * Running aggregates for one client. BigDecimal deltas are exact, so the running totals
+     * stay equal to a full recompute over the same prices.
+     */
+    private static final class ClientValuation {
+        private final Long clientId;
+        private final List<Position> positions = new ArrayList<>();
+        private final EnumMap<AssetCategory, BigDecimal> categoryValue = new EnumMap<>(AssetCategory.class);
+        private BigDecimal totalValue = BigDecimal.ZERO;
+        private BigDecimal totalInvested = BigDecimal.ZERO;
+        private BigDecimal weightedBetaSum = BigDecimal.ZERO;
+
+        ClientValuation(Long clientId) {
+            this.clientId = clientId;
+        }
+
+        synchronized void add(Position position) {
+            BigDecimal marketValue = position.price.multiply(position.quantity);
+            positions.add(position);
+            totalValue = totalValue.add(marketValue);
+            totalInvested = totalInvested.add(position.avgBuyPrice.multiply(position.quantity));
+            categoryValue.merge(position.category, marketValue, BigDecimal::add);
+            weightedBetaSum = weightedBetaSum.add(marketValue.multiply(position.betaWeight));
+        }
+
+        synchronized void reprice(Position position, BigDecimal newPrice) {
+            if (position.price.compareTo(newPrice) == 0) {
+                return;
+            }
+            BigDecimal delta = newPrice.subtract(position.price).multiply(position.quantity);
+            totalValue = totalValue.add(delta);
+            categoryValue.merge(position.category, delta, BigDecimal::add);
+            weightedBetaSum = weightedBetaSum.add(delta.multiply(position.betaWeight));
+            position.price = newPrice;
+        }
+
+        synchronized PortfolioValuation snapshot() {
+            Map<String, BigDecimal> exposure = new HashMap<>();
+            for (AssetCategory category : AssetCategory.values()) {
+                exposure.put(category.name(), categoryValue.getOrDefault(category, BigDecimal.ZERO));
+            }
+            Double beta = totalValue.compareTo(BigDecimal.ZERO) > 0
+                    ? weightedBetaSum.divide(totalValue, 4, RoundingMode.HALF_UP).doubleValue()
+                    : 1.0;
+            return new PortfolioValuation(clientId, totalValue, totalInvested,
+                    totalValue.subtract(totalInvested), beta, exposure, positions.size());
+        }
+    }
+}
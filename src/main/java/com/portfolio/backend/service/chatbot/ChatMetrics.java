@@ -0,0 +1,81 @@
+package com.portfolio.backend.service.chatbot;
+
+import com.portfolio.backend.dto.chatbot.ChatResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers of the chat pipeline: end to end by mode and outcome, each stage, and the
+ * first streamed token
+ *
+ * All timers are registered up front and picked by ordinal, so recording a request allocates nothing.
+ */
+@Component
+public class ChatMetrics {
+
+    public enum Mode {
+        CHAT, STREAM
+    }
+
+    private static final ChatStage[] STAGES = ChatStage.values();
+    private static final int ERROR = ChatResponse.ResponseType.values().length;
+
+    // [mode][response type, or ERROR]
+    private final Timer[][] requests = new Timer[Mode.values().length][ERROR + 1];
+    private final Timer[] stages = new Timer[ChatStage.values().length];
+    private final Timer firstToken;
+
+    public ChatMetrics(MeterRegistry registry) {
+        for (Mode mode : Mode.values()) {
+            for (int outcome = 0; outcome <= ERROR; outcome++) {
+                requests[mode.ordinal()][outcome] = Timer.builder("chat.requests")
+                    .description("Chat requests from arrival to the post-processed answer")
+                    .tag("mode", tagValue(mode))
+                    .tag("outcome", outcome == ERROR ? "error" : tagValue(ChatResponse.ResponseType.values()[outcome]))
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(Duration.ofMinutes(5))
+                    .register(registry);
+            }
+        }
+        for (ChatStage stage : ChatStage.values()) {
+            stages[stage.ordinal()] = Timer.builder("chat.stage")
+                .description("Latency of one chat pipeline stage")
+                .tag("stage", tagValue(stage))
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(registry);
+        }
+        firstToken = Timer.builder("chat.stream.first.token")
+            .description("Time from a streamed chat request to its first answer text")
+            .publishPercentileHistogram()
+            .maximumExpectedValue(Duration.ofMinutes(1))
+            .register(registry);
+    }
+
+    /**
+     * Total and per-stage latency of a finished request; a null response records an error
+     */
+    public void record(ChatRequestContext ctx, Mode mode, ChatResponse response) {
+        int outcome = response == null || response.getType() == null ? ERROR : response.getType().ordinal();
+        requests[mode.ordinal()][outcome].record(ctx.getElapsedNanos(), TimeUnit.NANOSECONDS);
+        for (ChatStage stage : STAGES) {
+            long nanos = ctx.getStageNanos(stage);
+            if (nanos >= 0) {
+                stages[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    public void recordFirstToken(long millis) {
+        firstToken.record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,139 @@
+package com.portfolio.backend.service.chatbot;
+
+import com.portfolio.backend.dto.chatbot.ChatRequest;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Per-request state of the chat pipeline
+ * Each stage result is memoized: asking for a stage a second time returns the first computation,
+ * so later stages can reuse e.g. the portfolio analysis instead of recomputing it. Latency is
+ * recorded once per stage, measured on the thread that ran it.
+ */
+public class ChatRequestContext {
+
+    private final ChatRequest request;
+    private final long startNanos = System.nanoTime();
+    private final Map<ChatStage, CompletableFuture<?>> results = new ConcurrentHashMap<>();
+    private final Map<ChatStage, Long> stageNanos = new ConcurrentHashMap<>();
+
+    public ChatRequestContext(ChatRequest request) {
+        this.request = request;
+    }
+
+    public ChatRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Start a stage on the executor, or return the result of the run that already started
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> start(ChatStage stage, Supplier<T> work, Executor executor) {
+        CompletableFuture<?> existing = results.get(stage);
+        if (existing != null) {
+            return (CompletableFuture<T>) existing;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        existing = results.putIfAbsent(stage, result);
+        if (existing != null) {
+            return (CompletableFuture<T>) existing;
+        }
+        executor.execute(() -> {
+            // Latency is stored before completing: dependents may run (and record metrics) inside complete()
+            long start = System.nanoTime();
+            T value;
+            try {
+                value = work.get();
+            } catch (Throwable t) {
+                stageNanos.put(stage, System.nanoTime() - start);
+                result.completeExceptionally(t);
+                return;
+            }
+            stageNanos.put(stage, System.nanoTime() - start);
+            result.complete(value);
+        });
+        return result;
+    }
+
+    /**
+     * Start an asynchronous stage (once); its latency runs until the returned stage completes
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> startAsync(ChatStage stage, Supplier<? extends CompletionStage<T>> work) {
+        CompletableFuture<?> existing = results.get(stage);
+        if (existing != null) {
+            return (CompletableFuture<T>) existing;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        existing = results.putIfAbsent(stage, result);
+        if (existing != null) {
+            return (CompletableFuture<T>) existing;
+        }
+        long start = System.nanoTime();
+        try {
+            work.get().whenComplete((value, error) -> {
+                stageNanos.put(stage, System.nanoTime() - start);
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        } catch (Throwable t) {
+            stageNanos.put(stage, System.nanoTime() - start);
+            result.completeExceptionally(t);
+        }
+        return result;
+    }
+
+    /**
+     * Run a stage on the calling thread (once) and return its result
+     */
+    public <T> T run(ChatStage stage, Supplier<T> work) {
+        return start(stage, work, Runnable::run).join();
+    }
+
+    /**
+     * Stage latency in milliseconds, or -1 if the stage did not run
+     */
+    public long getStageMillis(ChatStage stage) {
+        long nanos = getStageNanos(stage);
+        return nanos < 0 ? -1 : nanos / 1_000_000;
+    }
+
+    /**
+     * Stage latency in nanoseconds, or -1 if the stage did not run
+     */
+    public long getStageNanos(ChatStage stage) {
+        Long nanos = stageNanos.get(stage);
+        return nanos == null ? -1 : nanos;
+    }
+
+    public long getElapsedMillis() {
+        return getElapsedNanos() / 1_000_000;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * e.g. "total=812ms ANALYSIS=14ms RAG=3ms LLM=790ms ..." for the stages that ran
+     */
+    public String describeTimings() {
+        StringBuilder timings = new StringBuilder("total=").append(getElapsedMillis()).append("ms");
+        for (ChatStage stage : ChatStage.values()) {
+            long millis = getStageMillis(stage);
+            if (millis >= 0) {
+                timings.append(' ').append(stage).append('=').append(millis).append("ms");
+            }
+        }
+        return timings.toString();
+    }
+}
@@ -0,0 +1,14 @@
+package com.portfolio.backend.service.chatbot;
+
+/**
+ * Stages of the chat pipeline, in execution order
+ * ANALYSIS and RAG are independent of each other and run concurrently.
+ */
+public enum ChatStage {
+    ANALYSIS,
+    RAG,
+    VISUALIZATION,
+    PROMPT,
+    LLM,
+    POST_PROCESS
+}
@@ -1,17 +1,28 @@
 package com.portfolio.backend.service.chatbot;
 
+import com.portfolio.backend.config.ChatbotConfig;
 import com.portfolio.backend.dto.chatbot.*;
-import com.portfolio.backend.service.analysis.PortfolioAnalysisServiceInterface;
+import com.portfolio.backend.service.analysis.AnalysisSnapshot;
+import com.portfolio.backend.service.analysis.PortfolioAnalysisCache;
+import com.portfolio.backend.service.llm.ContextPacker;
+import com.portfolio.backend.service.llm.ContextSegment;
 import com.portfolio.backend.service.llm.LLMServiceInterface;
+import com.portfolio.backend.service.llm.PackedContext;
+import com.portfolio.backend.service.rag.KnowledgeChunk;
 import com.portfolio.backend.service.rag.RAGServiceInterface;
 import com.portfolio.backend.service.visualization.VisualizationExplanationServiceInterface;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Main orchestrator service for chatbot functionality
@@ -28,111 +39,197 @@ public class ChatbotService implements ChatbotServiceInterface {
     private RAGServiceInterface ragService;
 
     @Autowired
-    private PortfolioAnalysisServiceInterface portfolioAnalysisService;
+    private PortfolioAnalysisCache portfolioAnalysisCache;
 
     @Autowired
     private VisualizationExplanationServiceInterface visualizationExplanationService;
+
+    @Autowired
+    @Qualifier("chatPipelineExecutor")
+    private Executor pipelineExecutor;
+
+    @Autowired
+    private ChatbotConfig chatbotConfig;
+
+    @Autowired
+    private ChatMetrics chatMetrics;
     
     /**
      * Process chat request and generate intelligent response
+     * Pipeline: analysis + RAG (concurrently), visualization, prompt (packed to the token budget), LLM, post-process
+     * Each stage is chained onto the ones it needs, so the calling thread returns immediately and no
+     * thread waits for the analysis, the retrieval or Gemini.
      */
-    public ChatResponse processChat(ChatRequest request) {
+    public CompletableFuture<ChatResponse> processChat(ChatRequest request) {
+        ChatRequestContext ctx = new ChatRequestContext(request);
         try {
-            // 1. Build context from multiple sources
-            String context = buildContext(request);
-            
-            // 2. Retrieve relevant knowledge (RAG)
-            String ragContext = ragService.retrieveContext(
-                request.getMessage(),
-                request.getCurrentPage(),
-                request.getVisualizationContext() != null ? request.getVisualizationContext().getChartType() : null
-            );
-            
-            // 3. Handle visualization-specific queries
-            if (request.getVisualizationContext() != null) {
-                String vizExplanation = visualizationExplanationService.explainVisualization(
-                    request.getVisualizationContext(),
-                    context
-                );
-                context = vizExplanation + "\n\n" + context;
-            }
-            
-            // 4. Combine all context
-            String fullContext = ragContext + "\n\n" + context;
-            
-            // 5. Generate LLM response
-            ChatResponse response = llmService.generateResponse(request.getMessage(), fullContext);
-            
-            // 6. Enhance response with portfolio insights if applicable
-            if (request.getClientId() != null) {
-                enhanceWithPortfolioInsights(response, request.getClientId());
-            }
-            
-            // 7. Add suggested questions
-            response.setSuggestedQuestions(generateSuggestedQuestions(request));
-            
-            return response;
+            // 5. Generate LLM response, 6. enhance it with portfolio insights and suggested questions
+            return preparePrompt(ctx)
+                .thenCompose(context -> ctx.startAsync(ChatStage.LLM,
+                        () -> llmService.generateResponse(request.getMessage(), context.getText()).toFuture())
+                    .thenApply(response -> {
+                        postProcess(ctx, response);
+                        chatMetrics.record(ctx, ChatMetrics.Mode.CHAT, response);
+                        log.info("Chat pipeline clientId={} {} {}", request.getClientId(), context.describe(), ctx.describeTimings());
+                        return response;
+                    }))
+                .exceptionally(e -> {
+                    chatMetrics.record(ctx, ChatMetrics.Mode.CHAT, null);
+                    log.error("Error processing chat request ({})", ctx.describeTimings(), e);
+                    return createErrorResponse("I encountered an error processing your request. Please try again.");
+                });
             
         } catch (Exception e) {
-            log.error("Error processing chat request", e);
-            return createErrorResponse("I encountered an error processing your request. Please try again.");
+            chatMetrics.record(ctx, ChatMetrics.Mode.CHAT, null);
+            log.error("Error processing chat request ({})", ctx.describeTimings(), e);
+            return CompletableFuture.completedFuture(
+                createErrorResponse("I encountered an error processing your request. Please try again."));
         }
     }
     
     /**
-     * Build context from portfolio data
+     * Same pipeline as processChat, with the answer streamed: Gemini's text deltas are passed through
+     * as they arrive and the final DONE event carries the post-processed response
+     */
+    public Flux<ChatStreamEvent> streamChat(ChatRequest request) {
+        ChatRequestContext ctx = new ChatRequestContext(request);
+        AtomicLong firstTokenMillis = new AtomicLong(-1);
+        return Mono.fromFuture(() -> preparePrompt(ctx))
+            .flatMapMany(context -> llmService.streamResponse(request.getMessage(), context.getText())
+                .map(event -> {
+                    if (event.getType() == ChatStreamEvent.EventType.DELTA) {
+                        if (firstTokenMillis.compareAndSet(-1, ctx.getElapsedMillis())) {
+                            chatMetrics.recordFirstToken(firstTokenMillis.get());
+                        }
+                    } else if (event.getType() == ChatStreamEvent.EventType.DONE) {
+                        postProcess(ctx, event.getResponse());
+                        chatMetrics.record(ctx, ChatMetrics.Mode.STREAM, event.getResponse());
+                        log.info("Chat stream clientId={} firstToken={}ms {} {}", request.getClientId(),
+                            firstTokenMillis.get(), context.describe(), ctx.describeTimings());
+                    }
+                    return event;
+                }))
+            .onErrorResume(e -> {
+                chatMetrics.record(ctx, ChatMetrics.Mode.STREAM, null);
+                log.error("Error streaming chat request ({})", ctx.describeTimings(), e);
+                return Flux.just(ChatStreamEvent.error(
+                    createErrorResponse("I encountered an error processing your request. Please try again.")));
+            });
+    }
+    
+    /**
+     * Stages 1-4: everything up to the packed prompt context
      */
-    private String buildContext(ChatRequest request) {
-        StringBuilder context = new StringBuilder();
+    private CompletableFuture<PackedContext> preparePrompt(ChatRequestContext ctx) {
+        ChatRequest request = ctx.getRequest();
+        
+        // 1. Independent stages first: portfolio analysis and knowledge retrieval (RAG)
+        CompletableFuture<AnalysisSnapshot> analysis = analysis(ctx);
+        CompletableFuture<List<KnowledgeChunk>> knowledge = ctx.start(ChatStage.RAG, () -> ragService.retrieveChunks(
+            request.getMessage(),
+            request.getCurrentPage(),
+            request.getVisualizationContext() != null ? request.getVisualizationContext().getChartType() : null
+        ), pipelineExecutor);
+        
+        // 2. Handle visualization-specific queries (chart only; portfolio data is its own segment)
+        String vizExplanation = request.getVisualizationContext() != null
+            ? ctx.run(ChatStage.VISUALIZATION, () -> visualizationExplanationService.explainVisualization(
+                request.getVisualizationContext()))
+            : null;
+        
+        // 3. Build context from portfolio data once the analysis is done (a failed one is reported in it),
+        // 4. then pack it with the chart explanation and knowledge into the token budget
+        return analysis
+            .handle((snapshot, error) -> buildContext(ctx))
+            .thenCombine(knowledge, (context, chunks) ->
+                ctx.run(ChatStage.PROMPT, () -> packContext(request, context, vizExplanation, chunks)));
+    }
+    
+    /**
+     * Stage 6: portfolio insights and suggested questions
+     */
+    private void postProcess(ChatRequestContext ctx, ChatResponse response) {
+        ctx.run(ChatStage.POST_PROCESS, () -> {
+            if (ctx.getRequest().getClientId() != null) {
+                enhanceWithPortfolioInsights(response, ctx);
+            }
+            response.setSuggestedQuestions(generateSuggestedQuestions(ctx.getRequest()));
+            return response;
+        });
+    }
+    
+    /**
+     * Portfolio analysis for the request's client, looked up once per request; completes with null without a client
+     */
+    private CompletableFuture<AnalysisSnapshot> analysis(ChatRequestContext ctx) {
+        Long clientId = ctx.getRequest().getClientId();
+        return ctx.start(ChatStage.ANALYSIS, () -> clientId == null
+            ? null
+            : portfolioAnalysisCache.get(clientId), pipelineExecutor);
+    }
+    
+    /**
+     * Build context from portfolio data; called once the analysis has completed, so join() returns at once
+     * The closing delimiter is kept apart so packing can shorten the summary without cutting it off.
+     */
+    private ContextSegment buildContext(ChatRequestContext ctx) {
+        ChatRequest request = ctx.getRequest();
         
         if (request.getClientId() != null) {
             try {
-                Map<String, BigDecimal> currentPrices = getCurrentPrices(request.getClientId());
-                PortfolioAnalysisResult analysis = portfolioAnalysisService.analyzePortfolio(
-                    request.getClientId(), 
-                    currentPrices
-                );
-                String summary = portfolioAnalysisService.generatePortfolioSummary(analysis);
-                context.append("--- BEGIN PORTFOLIO DATA (use this to answer) ---\n");
-                context.append(summary);
-                context.append("--- END PORTFOLIO DATA ---\n\n");
+                String summary = analysis(ctx).join().getSummary();
                 log.debug("Built portfolio context for clientId={}, summary length={}", request.getClientId(), summary.length());
+                return ContextSegment.required("portfolio",
+                    "--- BEGIN PORTFOLIO DATA (use this to answer) ---\n" + summary,
+                    "--- END PORTFOLIO DATA ---");
             } catch (Exception e) {
                 log.warn("Failed to build portfolio context for clientId={}", request.getClientId(), e);
-                context.append("(Portfolio data temporarily unavailable for this client.)\n\n");
+                return ContextSegment.required("portfolio", "(Portfolio data temporarily unavailable for this client.)");
             }
-        } else {
-            context.append("(No client selected in dropdown - suggest user to select an account for portfolio-specific answers.)\n\n");
-        }
-        
-        if (request.getCurrentPage() != null) {
-            context.append("**Current Page:** ").append(request.getCurrentPage()).append("\n");
         }
-        
-        return context.toString();
+        return ContextSegment.required("portfolio",
+            "(No client selected in dropdown - suggest user to select an account for portfolio-specific answers.)");
     }
     
     /**
-     * Get current prices for assets (mock implementation)
-     * In production, this would fetch from market data API
+     * Portfolio data always goes in; the chart explanation, the chart-type hint and knowledge chunks
+     * (in retrieval order) compete for the rest of the budget
      */
-    private Map<String, BigDecimal> getCurrentPrices(Long clientId) {
-        // TODO: Integrate with actual market data service
-        // For now, return empty map - PortfolioAnalysisService will use buy prices as fallback
-        return new HashMap<>();
+    private PackedContext packContext(ChatRequest request, ContextSegment portfolio, String vizExplanation,
+                                      List<KnowledgeChunk> chunks) {
+        List<ContextSegment> segments = new ArrayList<>();
+        segments.add(portfolio);
+        if (vizExplanation != null) {
+            segments.add(ContextSegment.optional("visualization", vizExplanation, 0.9));
+        }
+        String chartType = request.getVisualizationContext() != null ? request.getVisualizationContext().getChartType() : null;
+        if (chartType != null) {
+            segments.add(ContextSegment.optional("chart-hint", ragService.getChartSpecificContext(chartType), 0.85));
+        }
+        for (int rank = 0; rank < chunks.size(); rank++) {
+            KnowledgeChunk chunk = chunks.get(rank);
+            segments.add(ContextSegment.optional("knowledge:" + chunk.getSource(), chunk.getText(), 0.8 / (rank + 1)));
+        }
+        if (request.getCurrentPage() != null) {
+            segments.add(ContextSegment.optional("page", "**Current Page:** " + request.getCurrentPage(), 0.01));
+        }
+        return ContextPacker.pack(segments, chatbotConfig.getContextTokenBudget());
     }
     
     /**
-     * Enhance response with portfolio-specific insights
+     * Enhance response with portfolio-specific insights, reusing the request's analysis
      */
-    private void enhanceWithPortfolioInsights(ChatResponse response, Long clientId) {
+    private void enhanceWithPortfolioInsights(ChatResponse response, ChatRequestContext ctx) {
         // Add portfolio context to insights if not already present
         if (response.getInsights() == null || response.getInsights().isEmpty()) {
-            Map<String, BigDecimal> currentPrices = getCurrentPrices(clientId);
-            PortfolioAnalysisResult analysis = portfolioAnalysisService.analyzePortfolio(clientId, currentPrices);
+            CompletableFuture<AnalysisSnapshot> analysis = analysis(ctx);
+            if (analysis.isCompletedExceptionally()) {
+                return; // Already reported as unavailable in the context
+            }
             
-            if (!analysis.getRiskWarnings().isEmpty()) {
-                response.setInsights(analysis.getRiskWarnings());
+            PortfolioAnalysisResult result = analysis.join().getAnalysis();
+            if (!result.getRiskWarnings().isEmpty()) {
+                response.setInsights(result.getRiskWarnings());
             }
         }
     }
@@ -2,7 +2,12 @@ package com.portfolio.backend.service.chatbot;
 
 import com.portfolio.backend.dto.chatbot.ChatRequest;
 import com.portfolio.backend.dto.chatbot.ChatResponse;
+import com.portfolio.backend.dto.chatbot.ChatStreamEvent;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface ChatbotServiceInterface {
-    ChatResponse processChat(ChatRequest request);
+    CompletableFuture<ChatResponse> processChat(ChatRequest request);
+    Flux<ChatStreamEvent> streamChat(ChatRequest request);
 }
@@ -0,0 +1,220 @@
+package com.portfolio.backend.service.llm;
+
+import com.portfolio.backend.config.GeminiConfig;
+import com.portfolio.backend.dto.chatbot.ApiKeyStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Gemini API keys with a requests-per-minute and a tokens-per-minute bucket each
+ *
+ * A request goes to the ready key with the highest health score: the smaller of its two bucket
+ * fills, halved for every consecutive failure, ties going to the least recently used key. A key
+ * that returned 429 sits out for its Retry-After (or the configured cooldown) and one that returned
+ * 401/403 for the longer forbidden cooldown, so neither is picked again while it would fail.
+ * Staying inside each key's quota instead of discovering it through 429s keeps throughput steady.
+ */
+@Component
+@Slf4j
+public class ApiKeyPool {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final GeminiConfig config;
+    private final LongSupplier clock;
+    private final List<KeyState> keys = new ArrayList<>();
+
+    @Autowired
+    public ApiKeyPool(GeminiConfig config) {
+        this(config, System::currentTimeMillis);
+    }
+
+    ApiKeyPool(GeminiConfig config, LongSupplier clock) {
+        this.config = config;
+        this.clock = clock;
+        long now = clock.getAsLong();
+        List<String> configured = config.getApiKeys();
+        if (configured != null) {
+            for (String key : configured) {
+                keys.add(new KeyState(keys.size(), key,
+                    new TokenBucket(config.getKeyRequestsPerMinute(), MINUTE_MILLIS, now),
+                    new TokenBucket(config.getKeyTokensPerMinute(), MINUTE_MILLIS, now)));
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Masked keys in configuration order; Lease.getIndex() points into this list
+     */
+    public List<String> getKeyIds() {
+        return keys.stream().map(state -> mask(state.key)).toList();
+    }
+
+    /**
+     * Take one request and the estimated tokens from the healthiest ready key, or null if no key has room
+     */
+    public synchronized Lease acquire(int estimatedTokens) {
+        long now = clock.getAsLong();
+        KeyState best = null;
+        double bestScore = 0;
+        for (KeyState state : keys) {
+            if (!isReady(state, estimatedTokens, now)) {
+                continue;
+            }
+            double score = healthScore(state, now);
+            if (best == null || score > bestScore || score == bestScore && state.lastAcquired < best.lastAcquired) {
+                best = state;
+                bestScore = score;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        best.requests.tryTake(1, now);
+        best.tokens.tryTake(estimatedTokens, now);
+        best.lastAcquired = now;
+        return new Lease(best);
+    }
+
+    /**
+     * How long until some key could take a request of this size; 0 if one can now
+     */
+    public synchronized long millisUntilAvailable(int estimatedTokens) {
+        long now = clock.getAsLong();
+        long soonest = Long.MAX_VALUE;
+        for (KeyState state : keys) {
+            long wait = Math.max(Math.max(state.cooldownUntil - now, 0),
+                Math.max(state.requests.millisUntil(1, now), state.tokens.millisUntil(estimatedTokens, now)));
+            soonest = Math.min(soonest, wait);
+        }
+        return soonest == Long.MAX_VALUE ? 0 : soonest;
+    }
+
+    public synchronized void succeeded(Lease lease) {
+        lease.state.consecutiveFailures = 0;
+        lease.state.successes++;
+    }
+
+    /**
+     * 429: out of rotation for retryAfterMillis, or the configured cooldown when Gemini gave no hint
+     */
+    public synchronized void rateLimited(Lease lease, long retryAfterMillis) {
+        long cooldown = retryAfterMillis > 0 ? retryAfterMillis : config.getKeyCooldownSeconds() * 1000L;
+        coolDown(lease.state, cooldown);
+        lease.state.rateLimited++;
+        log.warn("Gemini key {} rate limited, cooling down for {} ms", mask(lease.state.key), cooldown);
+    }
+
+    /**
+     * 401/403: the key is invalid or lacks permission, which retrying soon will not change
+     */
+    public synchronized void forbidden(Lease lease) {
+        coolDown(lease.state, config.getKeyForbiddenCooldownSeconds() * 1000L);
+        log.warn("Gemini key {} rejected, out of rotation for {} s", mask(lease.state.key), config.getKeyForbiddenCooldownSeconds());
+    }
+
+    public synchronized void failed(Lease lease) {
+        lease.state.consecutiveFailures++;
+        lease.state.failures++;
+    }
+
+    public synchronized List<ApiKeyStatus> getStatus() {
+        long now = clock.getAsLong();
+        List<ApiKeyStatus> status = new ArrayList<>(keys.size());
+        for (KeyState state : keys) {
+            status.add(new ApiKeyStatus(mask(state.key), healthScore(state, now),
+                (int) state.requests.available(now), (long) state.tokens.available(now),
+                Math.max(state.cooldownUntil - now, 0), state.consecutiveFailures,
+                state.successes, state.failures, state.rateLimited));
+        }
+        return status;
+    }
+
+    private void coolDown(KeyState state, long millis) {
+        state.cooldownUntil = Math.max(state.cooldownUntil, clock.getAsLong() + millis);
+        state.consecutiveFailures++;
+        state.failures++;
+    }
+
+    private static boolean isReady(KeyState state, int estimatedTokens, long now) {
+        return now >= state.cooldownUntil
+            && state.requests.millisUntil(1, now) == 0
+            && state.tokens.millisUntil(estimatedTokens, now) == 0;
+    }
+
+    private static double healthScore(KeyState state, long now) {
+        if (now < state.cooldownUntil) {
+            return 0;
+        }
+        double capacity = Math.min(state.requests.fill(now), state.tokens.fill(now));
+        return capacity / (1L << Math.min(state.consecutiveFailures, 30));
+    }
+
+    private static String mask(String key) {
+        return key.length() <= 4 ? "****" : "****" + key.substring(key.length() - 4);
+    }
+
+    /**
+     * One request's claim on a key; report its outcome back to the pool
+     */
+    public static final class Lease {
+        private final KeyState state;
+
+        private Lease(KeyState state) {
+            this.state = state;
+        }
+
+        public String getKey() {
+            return state.key;
+        }
+
+        public int getIndex() {
+            return state.index;
+        }
+    }
+
+    /**
+     * Every key is at its quota or cooling down
+     */
+    public static class ExhaustedException extends RuntimeException {
+        private final long retryAfterMillis;
+
+        public ExhaustedException(long retryAfterMillis) {
+            super("All Gemini API keys are at their rate limit; next one free in " + retryAfterMillis + " ms");
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+
+    private static final class KeyState {
+        private final int index;
+        private final String key;
+        private final TokenBucket requests;
+        private final TokenBucket tokens;
+        private long cooldownUntil;
+        private long lastAcquired = Long.MIN_VALUE;
+        private int consecutiveFailures;
+        private long successes;
+        private long failures;
+        private long rateLimited;
+
+        private KeyState(int index, String key, TokenBucket requests, TokenBucket tokens) {
+            this.index = index;
+            this.key = key;
+            this.requests = requests;
+            this.tokens = tokens;
+        }
+    }
+}
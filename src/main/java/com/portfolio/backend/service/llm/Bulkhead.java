@@ -0,0 +1,44 @@
+package com.portfolio.backend.service.llm;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the calls in flight; a call over the cap is refused at once rather than queued, so a slow
+ * upstream cannot pile up requests (and their memory) behind it
+ */
+public class Bulkhead {
+
+    private final int maxConcurrentCalls;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+
+    public boolean tryAcquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public long getRejectedCalls() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,172 @@
+package com.portfolio.backend.service.llm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker: CLOSED until the failure rate over the last windowSize calls reaches
+ * the threshold, then OPEN (every call refused) for openMillis, then HALF_OPEN, where a few trial
+ * calls decide between CLOSED and another OPEN period
+ *
+ * Each permit carries the generation it was granted in and the generation changes with every
+ * transition, so a slow call that started before a transition cannot skew the state after it.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    // Ring of the last outcomes in CLOSED, true for a failure
+    private final boolean[] window;
+    private int windowSize;
+    private int windowNext;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long stateSince;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+    private long notPermitted;
+    private long transitions;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          long openMillis, int halfOpenCalls, LongSupplier clock) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.stateSince = clock.getAsLong();
+    }
+
+    /**
+     * A permit for one call, or -1 if the circuit refuses it; report the outcome with the permit
+     */
+    public synchronized long tryAcquirePermission() {
+        if (state == State.OPEN && clock.getAsLong() - stateSince >= openMillis) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.OPEN || state == State.HALF_OPEN && halfOpenInFlight >= halfOpenCalls) {
+            notPermitted++;
+            return -1;
+        }
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight++;
+        }
+        return generation;
+    }
+
+    public synchronized void onSuccess(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+        } else {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (windowSize >= minimumCalls && getFailureRate() >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * The permitted call was not made or its outcome says nothing about the service (e.g. a 429 for one key)
+     */
+    public synchronized void onIgnored(long permit) {
+        if (permit == generation && state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized double getFailureRate() {
+        return windowSize == 0 ? 0.0 : (double) windowFailures / windowSize;
+    }
+
+    public synchronized int getBufferedCalls() {
+        return windowSize;
+    }
+
+    public synchronized long getNotPermittedCalls() {
+        return notPermitted;
+    }
+
+    public synchronized long getTransitions() {
+        return transitions;
+    }
+
+    public synchronized long getMillisInState() {
+        return clock.getAsLong() - stateSince;
+    }
+
+    private void record(boolean failure) {
+        if (windowSize == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowSize++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void transitionTo(State next) {
+        log.warn("Circuit breaker {}: {} -> {} (failure rate {} over {} calls)",
+            name, state, next, String.format("%.2f", getFailureRate()), windowSize);
+        state = next;
+        generation++;
+        transitions++;
+        stateSince = clock.getAsLong();
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        if (next == State.CLOSED) {
+            windowSize = 0;
+            windowNext = 0;
+            windowFailures = 0;
+        }
+    }
+
+    /**
+     * The call was refused before reaching Gemini: circuit open or too many calls in flight
+     */
+    public static class CallNotPermittedException extends RuntimeException {
+        public CallNotPermittedException(String message) {
+            super(message);
+        }
+    }
+}
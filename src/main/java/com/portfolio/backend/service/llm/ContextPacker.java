@@ -0,0 +1,109 @@
+package com.portfolio.backend.service.llm;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Fits prompt context segments into a token budget
+ *
+ * Segments are taken in relevance order. Paragraphs already sent by a more relevant included segment are
+ * removed (whitespace and case insensitive), so text that reaches the prompt along two paths is
+ * sent once. Each segment is then kept whole if it fits the remaining budget and skipped
+ * otherwise; required segments are cut at a line boundary instead, ahead of their closing line, which
+ * is always kept so a delimited block stays terminated. The result lists segments in
+ * the order they were taken.
+ */
+public final class ContextPacker {
+
+    private static final String SEPARATOR = "\n\n";
+
+    private ContextPacker() {
+    }
+
+    public static PackedContext pack(List<ContextSegment> segments, int tokenBudget) {
+        List<ContextSegment> ranked = new ArrayList<>(segments);
+        ranked.sort(Comparator.comparingDouble(ContextSegment::getRelevance).reversed());
+
+        Set<String> seenParagraphs = new HashSet<>();
+        int duplicates = 0;
+        List<String> included = new ArrayList<>();
+        List<String> dropped = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        int used = 0;
+        for (ContextSegment segment : ranked) {
+            // Keys only count as seen once the segment is taken, so a dropped one does not hide its text
+            Set<String> segmentParagraphs = new HashSet<>();
+            int segmentDuplicates = 0;
+            StringBuilder unique = new StringBuilder();
+            for (String paragraph : segment.getText() == null ? new String[0] : segment.getText().split("\n\\s*\n")) {
+                String trimmed = paragraph.strip();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                String key = normalize(trimmed);
+                if (seenParagraphs.contains(key) || !segmentParagraphs.add(key)) {
+                    segmentDuplicates++;
+                    continue;
+                }
+                if (!unique.isEmpty()) {
+                    unique.append(SEPARATOR);
+                }
+                unique.append(trimmed);
+            }
+            if (unique.isEmpty()) {
+                duplicates += segmentDuplicates;
+                continue; // Nothing new in it
+            }
+
+            int separatorTokens = text.isEmpty() ? 0 : TokenEstimator.estimate(SEPARATOR);
+            String closing = segment.getClosing() == null ? "" : "\n" + segment.getClosing();
+            int closingTokens = TokenEstimator.estimate(closing);
+            String kept = unique.toString();
+            int tokens = TokenEstimator.estimate(kept) + closingTokens;
+            if (used + separatorTokens + tokens > tokenBudget) {
+                if (!segment.isRequired()) {
+                    dropped.add(segment.getName());
+                    continue;
+                }
+                kept = truncate(kept, Math.max(0, tokenBudget - used - separatorTokens - closingTokens));
+            }
+            kept += closing;
+            tokens = TokenEstimator.estimate(kept);
+            if (!text.isEmpty()) {
+                text.append(SEPARATOR);
+            }
+            text.append(kept);
+            used += separatorTokens + tokens;
+            included.add(segment.getName());
+            seenParagraphs.addAll(segmentParagraphs);
+            duplicates += segmentDuplicates;
+        }
+        return new PackedContext(text.toString(), used, tokenBudget, included, dropped, duplicates);
+    }
+
+    /**
+     * Longest prefix of whole lines within the budget, always at least the first line
+     */
+    static String truncate(String text, int tokenBudget) {
+        String[] lines = text.split("\n");
+        StringBuilder kept = new StringBuilder(lines[0]);
+        int used = TokenEstimator.estimate(lines[0]);
+        for (int i = 1; i < lines.length; i++) {
+            int tokens = TokenEstimator.estimate(lines[i]);
+            if (used + tokens > tokenBudget) {
+                break;
+            }
+            kept.append('\n').append(lines[i]);
+            used += tokens;
+        }
+        return kept.toString();
+    }
+
+    private static String normalize(String paragraph) {
+        return paragraph.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,32 @@
+package com.portfolio.backend.service.llm;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One candidate piece of prompt context, e.g. the portfolio summary or a knowledge chunk
+ */
+@Getter
+@RequiredArgsConstructor
+public class ContextSegment {
+    private final String name;        // For logs, e.g. "portfolio" or "knowledge:risk_heuristics"
+    private final String text;
+    private final double relevance;   // Higher is packed first
+    private final boolean required;   // Kept even over budget (truncated) instead of dropped
+    private final String closing;     // Appended after text and never cut, e.g. the end of a delimited block; may be null
+
+    public static ContextSegment required(String name, String text) {
+        return new ContextSegment(name, text, Double.MAX_VALUE, true, null);
+    }
+
+    /**
+     * A required block whose closing line survives truncation of the text before it
+     */
+    public static ContextSegment required(String name, String text, String closing) {
+        return new ContextSegment(name, text, Double.MAX_VALUE, true, closing);
+    }
+
+    public static ContextSegment optional(String name, String text, double relevance) {
+        return new ContextSegment(name, text, relevance, false, null);
+    }
+}
@@ -0,0 +1,77 @@
+package com.portfolio.backend.service.llm;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental parser for a streamGenerateContent body: a JSON array of GenerateContentResponse
+ * objects that arrives in arbitrary byte chunks, possibly split inside a token or a UTF-8 character
+ *
+ * Bytes go to Jackson's non-blocking parser as they arrive. The tokens of each array element are
+ * buffered and the element is handed out as a tree as soon as its closing brace is parsed, so a
+ * chunk of the answer is available without waiting for the rest of the body. One instance per
+ * response; not thread-safe.
+ */
+public class GeminiStreamDecoder {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private TokenBuffer element;
+    private int elementDepth;
+
+    public GeminiStreamDecoder(ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Parse the next bytes; returns the elements they completed, usually zero or one
+     */
+    public List<JsonNode> feed(byte[] bytes, int offset, int length) throws IOException {
+        feeder.feedInput(bytes, offset, offset + length);
+        return drain();
+    }
+
+    /**
+     * Signal the end of the body; fails if it ended inside an element
+     */
+    public List<JsonNode> finish() throws IOException {
+        feeder.endOfInput();
+        List<JsonNode> elements = drain();
+        if (element != null) {
+            throw new IOException("Gemini stream ended inside a response object");
+        }
+        return elements;
+    }
+
+    private List<JsonNode> drain() throws IOException {
+        List<JsonNode> elements = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (element == null) {
+                if (token != JsonToken.START_OBJECT) {
+                    continue; // The enclosing array brackets
+                }
+                element = new TokenBuffer(parser);
+            }
+            element.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                elementDepth++;
+            } else if (token.isStructEnd() && --elementDepth == 0) {
+                elements.add(objectMapper.readTree(element.asParser()));
+                element = null;
+            }
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,100 @@
+package com.portfolio.backend.service.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the Gemini calls
+ *
+ * Every timer and counter is registered up front, one per key and outcome or per reason, so
+ * recording on the call path is an array lookup and an atomic update with no tag allocation.
+ * Gauges read the circuit breaker, bulkhead and single-flight state at scrape time.
+ */
+class LLMMetrics {
+
+    enum Outcome {
+        SUCCESS, RATE_LIMITED, CLIENT_ERROR, SERVER_ERROR, CANCELLED
+    }
+
+    enum FallbackReason {
+        NO_KEYS, NOT_PERMITTED, RETRIES_EXHAUSTED, UNPARSEABLE, STREAM_CUT
+    }
+
+    // [key index][outcome]
+    private final Timer[][] calls;
+    private final Counter[] fallbacks = new Counter[FallbackReason.values().length];
+    private final Counter retries;
+
+    LLMMetrics(MeterRegistry registry, List<String> keyIds, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+               SingleFlight<?, ?> inFlight) {
+        calls = new Timer[keyIds.size()][Outcome.values().length];
+        for (int key = 0; key < keyIds.size(); key++) {
+            for (Outcome outcome : Outcome.values()) {
+                calls[key][outcome.ordinal()] = Timer.builder("gemini.calls")
+                    .description("Latency of each Gemini call by API key (masked) and outcome")
+                    .tag("key", keyIds.get(key))
+                    .tag("outcome", tagValue(outcome))
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(Duration.ofSeconds(60))
+                    .register(registry);
+            }
+        }
+        for (FallbackReason reason : FallbackReason.values()) {
+            fallbacks[reason.ordinal()] = Counter.builder("gemini.fallbacks")
+                .description("Requests answered with the fallback response instead of Gemini's")
+                .tag("reason", tagValue(reason))
+                .register(registry);
+        }
+        retries = Counter.builder("gemini.retries")
+            .description("Calls made again after a failed attempt within the same request")
+            .register(registry);
+
+        Gauge.builder("gemini.calls.active", bulkhead, Bulkhead::getActiveCalls)
+            .description("Gemini calls in flight")
+            .register(registry);
+        Gauge.builder("gemini.calls.max", bulkhead, Bulkhead::getMaxConcurrentCalls)
+            .description("Bulkhead limit on Gemini calls in flight")
+            .register(registry);
+        FunctionCounter.builder("gemini.calls.rejected", bulkhead, Bulkhead::getRejectedCalls)
+            .description("Calls refused before reaching Gemini")
+            .tag("reason", "bulkhead")
+            .register(registry);
+        FunctionCounter.builder("gemini.calls.rejected", circuitBreaker, CircuitBreaker::getNotPermittedCalls)
+            .description("Calls refused before reaching Gemini")
+            .tag("reason", "circuit")
+            .register(registry);
+        Gauge.builder("gemini.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+            .description("0 CLOSED, 1 OPEN, 2 HALF_OPEN")
+            .register(registry);
+        Gauge.builder("gemini.singleflight.in.flight", inFlight, SingleFlight::getInFlight)
+            .description("Distinct questions with a Gemini call running")
+            .register(registry);
+        FunctionCounter.builder("gemini.singleflight.coalesced", inFlight, SingleFlight::getCoalesced)
+            .description("Requests that waited for an identical call instead of making their own")
+            .register(registry);
+    }
+
+    void recordCall(int keyIndex, Outcome outcome, long nanos) {
+        calls[keyIndex][outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordFallback(FallbackReason reason) {
+        fallbacks[reason.ordinal()].increment();
+    }
+
+    void recordRetry() {
+        retries.increment();
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,273 @@
+package com.portfolio.backend.service.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.config.GeminiConfig;
+import com.portfolio.backend.dto.CacheStats;
+import com.portfolio.backend.dto.chatbot.ChatResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of Gemini answers with a TTL and an optional on-disk tier
+ *
+ * Keyed by (model, normalized question, SHA-256 of the packed context). The context carries the
+ * portfolio summary, so the same question about a changed portfolio is a different key, and the
+ * canned suggested questions about an unchanged one are answered without a Gemini call.
+ * With a cache directory configured, each answer is also written there as one JSON file named by
+ * the key digest, so answers survive a restart; disk writes happen on a background thread.
+ */
+@Component
+@Slf4j
+public class LLMResponseCache {
+
+    private final GeminiConfig config;
+    private final LongSupplier clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path directory;
+    private final ExecutorService diskWriter;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Access-ordered; guarded by its own monitor
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > config.getResponseCacheMaxEntries()) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    @Autowired
+    public LLMResponseCache(GeminiConfig config) {
+        this(config, System::currentTimeMillis);
+    }
+
+    LLMResponseCache(GeminiConfig config, LongSupplier clock) {
+        this.config = config;
+        this.clock = clock;
+        String dir = config.getResponseCacheDir();
+        if (dir == null || dir.isBlank()) {
+            this.directory = null;
+            this.diskWriter = null;
+        } else {
+            this.directory = Path.of(dir);
+            this.diskWriter = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "llm-cache-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Key of a question asked with the given packed context against the configured model
+     */
+    public Key keyFor(String question, String context) {
+        return new Key(modelOf(config.getBaseUrl()), normalize(question), sha256(context != null ? context : ""));
+    }
+
+    /**
+     * A fresh copy of the cached answer, or null on a miss; callers may mutate what they get
+     */
+    public ChatResponse get(Key key) {
+        if (!config.isResponseCacheEnabled()) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && isExpired(entry, now)) {
+                entries.remove(key);
+                evictions.increment();
+                entry = null;
+            }
+        }
+        if (entry == null && directory != null) {
+            entry = readFromDisk(key, now);
+            if (entry != null) {
+                synchronized (entries) {
+                    entries.put(key, entry);
+                }
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.toResponse();
+    }
+
+    public void put(Key key, ChatResponse response) {
+        if (!config.isResponseCacheEnabled()) {
+            return;
+        }
+        Entry entry = new Entry(key, clock.getAsLong(), response.getResponse(), response.getConfidence(),
+            response.getType(), response.getExplanation(), response.getPromptTokens());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        if (directory != null) {
+            diskWriter.execute(() -> writeToDisk(entry));
+        }
+    }
+
+    public CacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return new CacheStats("llmResponse", size, config.getResponseCacheMaxEntries(), hitCount, missCount,
+            evictions.sum(), lookups == 0 ? 0.0 : (double) hitCount / lookups);
+    }
+
+    /**
+     * Finish pending disk writes so the next start finds them
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (diskWriter != null) {
+            diskWriter.shutdown();
+            diskWriter.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Lower case, single spaces, no trailing punctuation: "What is beta ?" and "what is beta" share an entry
+     */
+    static String normalize(String question) {
+        String normalized = question == null ? "" : question.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        int end = normalized.length();
+        while (end > 0 && "?!. ".indexOf(normalized.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return normalized.substring(0, end);
+    }
+
+    /**
+     * "gemini-2.5-flash" from ".../models/gemini-2.5-flash:generateContent"; the whole URL if it has no model segment
+     */
+    static String modelOf(String url) {
+        int start = url.lastIndexOf("/models/");
+        if (start < 0) {
+            return url;
+        }
+        int end = url.indexOf(':', start);
+        return url.substring(start + "/models/".length(), end < 0 ? url.length() : end);
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.getCreatedAt() >= config.getResponseCacheTtlSeconds() * 1000L;
+    }
+
+    private Entry readFromDisk(Key key, long now) {
+        Path file = fileFor(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            Entry entry = objectMapper.readValue(file.toFile(), Entry.class);
+            if (!key.equals(entry.getKey())) {
+                return null; // Digest collision: keep the other key's file
+            }
+            if (isExpired(entry, now)) {
+                Files.deleteIfExists(file);
+                evictions.increment();
+                return null;
+            }
+            return entry;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable LLM cache file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(Entry entry) {
+        Path file = fileFor(entry.getKey());
+        try {
+            Files.createDirectories(directory);
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), entry);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write LLM cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Path fileFor(Key key) {
+        return directory.resolve(sha256(key.getModel() + '\n' + key.getQuestion() + '\n' + key.getContextHash()) + ".json");
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JDK provides SHA-256
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key {
+        private String model;
+        private String question;
+        private String contextHash;
+    }
+
+    /**
+     * The immutable part of a ChatResponse; insights and suggested questions are added per request
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Entry {
+        private Key key;
+        private long createdAt;
+        private String response;
+        private ChatResponse.ConfidenceLevel confidence;
+        private ChatResponse.ResponseType type;
+        private String explanation;
+        private Integer promptTokens;
+
+        ChatResponse toResponse() {
+            ChatResponse copy = new ChatResponse();
+            copy.setResponse(response);
+            copy.setConfidence(confidence);
+            copy.setType(type);
+            copy.setExplanation(explanation);
+            copy.setPromptTokens(promptTokens);
+            return copy;
+        }
+    }
+}
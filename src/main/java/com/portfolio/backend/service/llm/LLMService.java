@@ -4,20 +4,32 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.portfolio.backend.config.GeminiConfig;
 import com.portfolio.backend.dto.chatbot.ChatResponse;
+import com.portfolio.backend.dto.chatbot.ChatStreamEvent;
+import com.portfolio.backend.dto.chatbot.ResilienceStatus;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * LLM Service with Gemini API integration and fallback strategy
@@ -27,13 +39,27 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 public class LLMService implements LLMServiceInterface {
     
+    private static final Pattern RETRY_DELAY = Pattern.compile("\"retryDelay\"\\s*:\\s*\"(\\d+(?:\\.\\d+)?)s\"");
+    
     private final GeminiConfig config;
+    private final LLMResponseCache responseCache;
+    private final SingleFlight<LLMResponseCache.Key, ChatResponse> inFlight = new SingleFlight<>();
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
-    private final AtomicInteger currentApiKeyIndex = new AtomicInteger(0);
+    private final ApiKeyPool keyPool;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final LLMMetrics metrics;
     
-    public LLMService(GeminiConfig config) {
+    public LLMService(GeminiConfig config, LLMResponseCache responseCache, ApiKeyPool keyPool, MeterRegistry meterRegistry) {
         this.config = config;
+        this.responseCache = responseCache;
+        this.keyPool = keyPool;
+        this.circuitBreaker = new CircuitBreaker("gemini", config.getCircuitWindowSize(), config.getCircuitMinimumCalls(),
+                config.getCircuitFailureRateThreshold(), config.getCircuitOpenSeconds() * 1000L,
+                config.getCircuitHalfOpenCalls(), System::currentTimeMillis);
+        this.bulkhead = new Bulkhead(config.getMaxConcurrentCalls());
+        this.metrics = new LLMMetrics(meterRegistry, keyPool.getKeyIds(), circuitBreaker, bulkhead, inFlight);
         this.objectMapper = new ObjectMapper();
         this.webClient = WebClient.builder()
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -47,40 +73,328 @@ public class LLMService implements LLMServiceInterface {
     
     /**
      * Generate response using Gemini API with fallback strategy
+     * Nothing blocks: the HTTP call completes on the WebClient event loop and waits between
+     * attempts are scheduled with Mono.delay, so no thread is held while Gemini is slow.
+     * A question already answered for the same context and model comes from the response cache, and
+     * one asked again while the first call is still running waits for that call instead of making its own.
+     */
+    public Mono<ChatResponse> generateResponse(String prompt, String context) {
+        return Mono.defer(() -> {
+            LLMResponseCache.Key key = responseCache.keyFor(prompt, context);
+            ChatResponse cached = responseCache.get(key);
+            if (cached != null) {
+                log.debug("LLM response cache hit for: {}", key.getQuestion());
+                return Mono.just(cached);
+            }
+            String fullPrompt = buildPrompt(prompt, context);
+            return generateShared(prompt, fullPrompt, key, () -> callWithRetries(prompt, fullPrompt));
+        });
+    }
+    
+    /**
+     * One Gemini call per key at a time; every caller gets its own copy of the answer to add insights to
+     */
+    private Mono<ChatResponse> generateShared(String prompt, String fullPrompt, LLMResponseCache.Key key,
+                                              Supplier<Mono<ChatResponse>> calls) {
+        return inFlight.execute(key, () -> generateUncached(fullPrompt, key, calls.get()))
+                .map(response -> new ChatResponse(response.getResponse(), response.getConfidence(), response.getType(),
+                        response.getInsights(), response.getExplanation(), response.getSuggestedQuestions(),
+                        response.getPromptTokens()));
+    }
+    
+    private Mono<ChatResponse> generateUncached(String fullPrompt, LLMResponseCache.Key key, Mono<ChatResponse> calls) {
+        return calls
+                .map(response -> reportPromptTokens(response, fullPrompt))
+                .doOnNext(response -> cacheIfAnswered(key, response));
+    }
+    
+    /**
+     * Only answers from Gemini are ANALYTICAL; fallback responses are not worth keeping
      */
-    public ChatResponse generateResponse(String prompt, String context) {
+    private void cacheIfAnswered(LLMResponseCache.Key key, ChatResponse response) {
+        if (response.getType() == ChatResponse.ResponseType.ANALYTICAL) {
+            responseCache.put(key, response);
+        }
+    }
+    
+    /**
+     * Stream the answer from streamGenerateContent: a DELTA event per text chunk as Gemini produces it,
+     * then DONE with the complete response. If the stream fails before the first chunk, the answer
+     * comes from generateContent as one delta, the stream counting as the first attempt of the same
+     * retry budget and deadline; after that, the stream ends with ERROR.
+     */
+    public Flux<ChatStreamEvent> streamResponse(String prompt, String context) {
+        if (keyPool.isEmpty()) {
+            return asStream(generateResponse(prompt, context));
+        }
         String fullPrompt = buildPrompt(prompt, context);
-        
-        // Try each API key with retries
-        for (int attempt = 0; attempt < config.getMaxRetries(); attempt++) {
-            String apiKey = getNextApiKey();
-            
+        return Flux.defer(() -> {
+            LLMResponseCache.Key key = responseCache.keyFor(prompt, context);
+            ChatResponse cached = responseCache.get(key);
+            if (cached != null) {
+                return asStream(Mono.just(cached));
+            }
+            long deadline = System.currentTimeMillis() + config.getRetryBudgetSeconds() * 1000L;
+            int estimatedTokens = TokenEstimator.estimate(fullPrompt);
+            OutboundCall call;
             try {
-                return callGeminiAPI(fullPrompt, apiKey);
-            } catch (Exception e) {
-                log.warn("Gemini API call failed (attempt {}): {}", attempt + 1, e.getMessage());
-                
-                if (isRetryableError(e) && attempt < config.getMaxRetries() - 1) {
-                    try {
-                        Thread.sleep(1000 * (attempt + 1)); // Exponential backoff
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                    }
-                    continue;
-                }
-                
-                // If all retries exhausted, try next API key or return fallback
-                if (attempt == config.getMaxRetries() - 1) {
-                    return createFallbackResponse(prompt);
-                }
+                call = startCall(estimatedTokens);
+            } catch (CircuitBreaker.CallNotPermittedException | ApiKeyPool.ExhaustedException e) {
+                // Fails fast, or waits for a key and makes the first attempt without streaming
+                return asStream(generateShared(prompt, fullPrompt, key,
+                        () -> afterFailure(prompt, fullPrompt, estimatedTokens, e, 0, deadline)));
             }
+            GeminiStreamDecoder decoder = newStreamDecoder();
+            StringBuilder text = new StringBuilder();
+            AtomicReference<Integer> reportedTokens = new AtomicReference<>();
+            String url = config.getStreamUrl() + "?key=" + call.lease.getKey();
+            
+            return webClient.post()
+                    .uri(url)
+                    .bodyValue(buildRequestBody(fullPrompt))
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class)
+                    .timeout(Duration.ofSeconds(config.getTimeoutSeconds())) // Between chunks
+                    .concatMapIterable(buffer -> {
+                        try {
+                            byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            return decoder.feed(bytes, 0, bytes.length);
+                        } catch (IOException e) {
+                            throw Exceptions.propagate(e);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> {
+                        try {
+                            return Flux.fromIterable(decoder.finish());
+                        } catch (IOException e) {
+                            return Flux.error(e);
+                        }
+                    }))
+                    .<ChatStreamEvent>handle((element, sink) -> {
+                        if (element.has("error")) {
+                            sink.error(new IllegalStateException("Gemini stream error: " + element.path("error").path("message").asText()));
+                            return;
+                        }
+                        JsonNode promptTokenCount = element.path("usageMetadata").path("promptTokenCount");
+                        if (promptTokenCount.isInt()) {
+                            reportedTokens.set(promptTokenCount.intValue());
+                        }
+                        String delta = partsText(element);
+                        if (!delta.isEmpty()) {
+                            text.append(delta);
+                            sink.next(ChatStreamEvent.delta(delta));
+                        }
+                    })
+                    .doOnError(e -> finishCall(call, e))
+                    .doOnCancel(() -> abandonCall(call))
+                    .concatWith(Mono.fromSupplier(() -> {
+                        finishCall(call, null);
+                        ChatResponse response = reportPromptTokens(toChatResponse(text.toString(), reportedTokens.get()), fullPrompt);
+                        if (!text.isEmpty()) {
+                            cacheIfAnswered(key, response);
+                        }
+                        return ChatStreamEvent.done(response);
+                    }))
+                    .onErrorResume(e -> {
+                        if (text.isEmpty()) {
+                            return asStream(generateShared(prompt, fullPrompt, key,
+                                    () -> afterFailure(prompt, fullPrompt, estimatedTokens, e, 0, deadline)));
+                        }
+                        log.warn("Gemini stream failed after {} chars: {}", text.length(), e.getMessage());
+                        metrics.recordFallback(LLMMetrics.FallbackReason.STREAM_CUT);
+                        ChatResponse response = createFallbackResponse(prompt);
+                        response.setResponse(text + "\n\n**Note:** The answer was cut off. Please try again.");
+                        return Flux.just(ChatStreamEvent.error(reportPromptTokens(response, fullPrompt)));
+                    });
+        });
+    }
+    
+    private Flux<ChatStreamEvent> asStream(Mono<ChatResponse> response) {
+        return response.flatMapMany(r -> Flux.just(ChatStreamEvent.delta(r.getResponse()), ChatStreamEvent.done(r)));
+    }
+    
+    private GeminiStreamDecoder newStreamDecoder() {
+        try {
+            return new GeminiStreamDecoder(objectMapper);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Fill in the estimate when Gemini did not report a prompt token count, and log both
+     */
+    private ChatResponse reportPromptTokens(ChatResponse response, String fullPrompt) {
+        int estimatedTokens = TokenEstimator.estimate(fullPrompt);
+        Integer reportedTokens = response.getPromptTokens();
+        if (reportedTokens == null) {
+            response.setPromptTokens(estimatedTokens);
+        }
+        log.info("Gemini prompt: {} chars, {} tokens estimated, {} reported",
+            fullPrompt.length(), estimatedTokens, reportedTokens != null ? reportedTokens : "none");
+        return response;
+    }
+    
+    /**
+     * One retry budget per request: at most maxRetries calls in all, none started after retryBudgetSeconds.
+     * Retryable failures back off before the next key, and when every key is at its quota or cooling
+     * down the attempt waits until one has room; that wait is bounded by the deadline alone and uses
+     * up no attempt. With the circuit open or the bulkhead full the request gets the fallback answer at once.
+     */
+    private Mono<ChatResponse> callWithRetries(String prompt, String fullPrompt) {
+        if (keyPool.isEmpty()) {
+            log.error("No Gemini API keys available. Check application.properties configuration.");
+            metrics.recordFallback(LLMMetrics.FallbackReason.NO_KEYS);
+            return Mono.just(createFallbackResponse(prompt));
+        }
+        long deadline = System.currentTimeMillis() + config.getRetryBudgetSeconds() * 1000L;
+        return attempt(prompt, fullPrompt, TokenEstimator.estimate(fullPrompt), 0, deadline);
+    }
+    
+    private Mono<ChatResponse> attempt(String prompt, String fullPrompt, int estimatedTokens, int attempt, long deadline) {
+        return Mono.defer(() -> {
+                    OutboundCall call = startCall(estimatedTokens);
+                    return callGeminiAPI(fullPrompt, call.lease)
+                            .doOnSuccess(response -> finishCall(call, null))
+                            .doOnError(e -> finishCall(call, e))
+                            .doOnCancel(() -> abandonCall(call));
+                })
+                .onErrorResume(e -> afterFailure(prompt, fullPrompt, estimatedTokens, e, attempt, deadline));
+    }
+    
+    /**
+     * What follows a failed attempt (streamed or not): the next attempt after its backoff, or the fallback
+     */
+    private Mono<ChatResponse> afterFailure(String prompt, String fullPrompt, int estimatedTokens, Throwable e,
+                                            int attempt, long deadline) {
+        if (e instanceof ApiKeyPool.ExhaustedException exhausted) {
+            return awaitKey(prompt, fullPrompt, estimatedTokens, attempt, deadline, exhausted);
+        }
+        log.warn("Gemini API call failed (attempt {} of {}): {}", attempt + 1, config.getMaxRetries(), e.getMessage());
+        if (e instanceof CircuitBreaker.CallNotPermittedException) {
+            metrics.recordFallback(LLMMetrics.FallbackReason.NOT_PERMITTED);
+            return Mono.just(createFallbackResponse(prompt));
         }
         
-        return createFallbackResponse(prompt);
+        // If the retry budget is spent, return fallback
+        long delay = retryDelayMillis(e, attempt);
+        if (attempt >= config.getMaxRetries() - 1 || System.currentTimeMillis() + delay >= deadline) {
+            metrics.recordFallback(LLMMetrics.FallbackReason.RETRIES_EXHAUSTED);
+            return Mono.just(createFallbackResponse(prompt));
+        }
+        metrics.recordRetry();
+        Mono<ChatResponse> next = attempt(prompt, fullPrompt, estimatedTokens, attempt + 1, deadline);
+        return delay > 0 ? Mono.delay(Duration.ofMillis(delay)).then(next) : next;
+    }
+    
+    /**
+     * No call was made, so the attempt is not used up: it starts again once a key has room, unless
+     * that is past the deadline
+     */
+    private Mono<ChatResponse> awaitKey(String prompt, String fullPrompt, int estimatedTokens, int attempt, long deadline,
+                                        ApiKeyPool.ExhaustedException exhausted) {
+        long wait = Math.max(1, exhausted.getRetryAfterMillis());
+        if (System.currentTimeMillis() + wait >= deadline) {
+            log.warn("No Gemini key free within the retry budget: {}", exhausted.getMessage());
+            metrics.recordFallback(LLMMetrics.FallbackReason.RETRIES_EXHAUSTED);
+            return Mono.just(createFallbackResponse(prompt));
+        }
+        log.debug("Waiting {} ms for a Gemini key (attempt {} of {})", wait, attempt + 1, config.getMaxRetries());
+        return Mono.delay(Duration.ofMillis(wait)).then(attempt(prompt, fullPrompt, estimatedTokens, attempt, deadline));
+    }
+    
+    private long retryDelayMillis(Throwable error, int attempt) {
+        return isRetryableFailure(error) ? config.getRetryBackoffMillis() * (attempt + 1) : 0;
     }
     
-    private ChatResponse callGeminiAPI(String prompt, String apiKey) {
+    /**
+     * Circuit permit, bulkhead slot and key for one outbound call, taken in that order and handed
+     * back if a later one is not available
+     */
+    private OutboundCall startCall(int estimatedTokens) {
+        long permit = circuitBreaker.tryAcquirePermission();
+        if (permit < 0) {
+            throw new CircuitBreaker.CallNotPermittedException("Gemini circuit breaker is open");
+        }
+        if (!bulkhead.tryAcquire()) {
+            circuitBreaker.onIgnored(permit);
+            throw new CircuitBreaker.CallNotPermittedException("Too many concurrent Gemini calls");
+        }
+        ApiKeyPool.Lease lease = keyPool.acquire(estimatedTokens);
+        if (lease == null) {
+            bulkhead.release();
+            circuitBreaker.onIgnored(permit);
+            throw new ApiKeyPool.ExhaustedException(keyPool.millisUntilAvailable(estimatedTokens));
+        }
+        return new OutboundCall(permit, lease);
+    }
+    
+    /**
+     * Record the outcome with the key pool and the circuit breaker; 4xx answers are about the key or
+     * the request, not Gemini's health, so they do not count against the circuit
+     */
+    private void finishCall(OutboundCall call, Throwable error) {
+        if (!call.finished.compareAndSet(false, true)) {
+            return;
+        }
+        bulkhead.release();
+        long nanos = System.nanoTime() - call.startNanos;
+        if (error == null) {
+            metrics.recordCall(call.lease.getIndex(), LLMMetrics.Outcome.SUCCESS, nanos);
+            keyPool.succeeded(call.lease);
+            circuitBreaker.onSuccess(call.permit);
+            return;
+        }
+        reportFailure(call.lease, error);
+        WebClientResponseException response = responseError(error);
+        int status = response != null ? response.getStatusCode().value() : 0;
+        metrics.recordCall(call.lease.getIndex(), status == 429 ? LLMMetrics.Outcome.RATE_LIMITED
+                : status >= 400 && status < 500 && status != 408 ? LLMMetrics.Outcome.CLIENT_ERROR
+                : LLMMetrics.Outcome.SERVER_ERROR, nanos);
+        if (response == null || status >= 500 || status == 408) {
+            circuitBreaker.onFailure(call.permit);
+        } else {
+            circuitBreaker.onIgnored(call.permit);
+        }
+    }
+    
+    private void abandonCall(OutboundCall call) {
+        if (call.finished.compareAndSet(false, true)) {
+            metrics.recordCall(call.lease.getIndex(), LLMMetrics.Outcome.CANCELLED, System.nanoTime() - call.startNanos);
+            bulkhead.release();
+            circuitBreaker.onIgnored(call.permit);
+        }
+    }
+    
+    public ResilienceStatus getResilienceStatus() {
+        return new ResilienceStatus(circuitBreaker.getState().name(), circuitBreaker.getMillisInState(),
+                circuitBreaker.getFailureRate(), circuitBreaker.getBufferedCalls(), circuitBreaker.getNotPermittedCalls(),
+                circuitBreaker.getTransitions(), bulkhead.getActiveCalls(), bulkhead.getMaxConcurrentCalls(),
+                bulkhead.getRejectedCalls());
+    }
+    
+    private Mono<ChatResponse> callGeminiAPI(String prompt, ApiKeyPool.Lease lease) {
+        Map<String, Object> requestBody = buildRequestBody(prompt);
+        String url = config.getBaseUrl() + "?key=" + lease.getKey();
         
+        log.debug("Calling Gemini API: {}", url);
+        log.debug("Request body: {}", requestBody);
+        
+        return webClient.post()
+                .uri(url)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofSeconds(config.getTimeoutSeconds()))
+                .doOnNext(response -> log.debug("Gemini API response: {}", response))
+                .map(this::parseGeminiResponse)
+                .onErrorMap(e -> translateError(e, url, requestBody));
+    }
+    
+    private Map<String, Object> buildRequestBody(String prompt) {
         Map<String, Object> requestBody = new HashMap<>();
         
        
@@ -100,36 +414,17 @@ public class LLMService implements LLMServiceInterface {
             Map.of("category", "HARM_CATEGORY_DANGEROUS_CONTENT", "threshold", "BLOCK_MEDIUM_AND_ABOVE")
         );
         requestBody.put("safetySettings", safetySettings);
-        
-        String url = config.getBaseUrl() + "?key=" + apiKey;
-        
-        log.debug("Calling Gemini API: {}", url);
-        log.debug("Request body: {}", requestBody);
-        
-        try {
-            String response = webClient.post()
-                    .uri(url)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(config.getTimeoutSeconds()))
-                    .retryWhen(Retry.backoff(2, Duration.ofSeconds(1))
-                            .filter(this::isRetryableError)
-                            .doBeforeRetry(retrySignal -> 
-                                log.info("Retrying Gemini API call..."))
-                    )
-                    .block();
-            
-            log.debug("Gemini API response: {}", response);
-            return parseGeminiResponse(response);
-            
-        } catch (WebClientResponseException.TooManyRequests e) {
-            log.warn("Rate limit hit (429), will retry with next API key. Response: {}", e.getResponseBodyAsString());
-            throw new RuntimeException("Rate limit exceeded", e);
-            
-        } catch (WebClientResponseException e) {
-            String errorBody = e.getResponseBodyAsString();
-            int statusCode = e.getStatusCode().value();
+        return requestBody;
+    }
+    
+    private RuntimeException translateError(Throwable e, String url, Map<String, Object> requestBody) {
+        if (e instanceof WebClientResponseException.TooManyRequests tooManyRequests) {
+            log.warn("Rate limit hit (429), will retry with next API key. Response: {}", tooManyRequests.getResponseBodyAsString());
+            return new RuntimeException("Rate limit exceeded", e);
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            String errorBody = responseException.getResponseBodyAsString();
+            int statusCode = responseException.getStatusCode().value();
             log.error("Gemini API error ({}): {}", statusCode, errorBody);
             log.error("Request URL: {}", url);
             log.error("Request body: {}", requestBody);
@@ -143,20 +438,22 @@ public class LLMService implements LLMServiceInterface {
                 log.error("Forbidden - API key may not have required permissions");
             }
             
-            throw new RuntimeException("API call failed: " + statusCode + " - " + errorBody, e);
-            
-        } catch (Exception e) {
-            log.error("Unexpected error calling Gemini API", e);
-            throw new RuntimeException("Unexpected API error", e);
+            return new RuntimeException("API call failed: " + statusCode + " - " + errorBody, e);
         }
+        log.error("Unexpected error calling Gemini API", e);
+        return new RuntimeException("Unexpected API error", e);
     }
     
-    private ChatResponse parseGeminiResponse(String responseJson) {
+    /**
+     * ChatResponse from a generateContent body; package-private for LLMServiceBenchmark
+     */
+    ChatResponse parseGeminiResponse(String responseJson) {
         try {
             JsonNode root = objectMapper.readTree(responseJson);
             JsonNode candidates = root.path("candidates");
             
             if (candidates.isEmpty() || !candidates.has(0)) {
+                metrics.recordFallback(LLMMetrics.FallbackReason.UNPARSEABLE);
                 return createFallbackResponse("Unable to parse response");
             }
             
@@ -164,27 +461,45 @@ public class LLMService implements LLMServiceInterface {
             JsonNode parts = content.path("parts");
             
             if (parts.isEmpty() || !parts.has(0)) {
+                metrics.recordFallback(LLMMetrics.FallbackReason.UNPARSEABLE);
                 return createFallbackResponse("No content in response");
             }
             
-            String text = parts.get(0).path("text").asText("");
+            JsonNode promptTokenCount = root.path("usageMetadata").path("promptTokenCount");
+            return toChatResponse(parts.get(0).path("text").asText(""),
+                    promptTokenCount.isInt() ? promptTokenCount.intValue() : null);
             
-            // Check confidence (simplified - in production, use actual confidence scores)
-            ChatResponse.ConfidenceLevel confidence = estimateConfidence(text);
-            
-            ChatResponse response = new ChatResponse();
-            response.setResponse(formatResponse(text));
-            response.setConfidence(confidence);
-            response.setType(ChatResponse.ResponseType.ANALYTICAL);
-            response.setExplanation("Generated by Gemini AI");
-            return response;
-                    
         } catch (Exception e) {
             log.error("Error parsing Gemini response", e);
+            metrics.recordFallback(LLMMetrics.FallbackReason.UNPARSEABLE);
             return createFallbackResponse("Response parsing failed");
         }
     }
     
+    private ChatResponse toChatResponse(String text, Integer promptTokens) {
+        // Check confidence (simplified - in production, use actual confidence scores)
+        ChatResponse.ConfidenceLevel confidence = estimateConfidence(text);
+        
+        ChatResponse response = new ChatResponse();
+        response.setPromptTokens(promptTokens);
+        response.setResponse(formatResponse(text));
+        response.setConfidence(confidence);
+        response.setType(ChatResponse.ResponseType.ANALYTICAL);
+        response.setExplanation("Generated by Gemini AI");
+        return response;
+    }
+    
+    /**
+     * Text of all parts of the first candidate of one (streamed) response
+     */
+    private String partsText(JsonNode element) {
+        StringBuilder text = new StringBuilder();
+        for (JsonNode part : element.path("candidates").path(0).path("content").path("parts")) {
+            text.append(part.path("text").asText(""));
+        }
+        return text.toString();
+    }
+    
     private ChatResponse.ConfidenceLevel estimateConfidence(String text) {
         
         if (text.length() > 200 && text.contains("•") || text.contains("-")) {
@@ -204,7 +519,10 @@ public class LLMService implements LLMServiceInterface {
         return text;
     }
     
-    private String buildPrompt(String userMessage, String context) {
+    /**
+     * Full prompt sent to Gemini for a question and its context; package-private for LLMServiceBenchmark
+     */
+    String buildPrompt(String userMessage, String context) {
         StringBuilder prompt = new StringBuilder();
         
         prompt.append("You are a portfolio analyst assistant. Give CRISP, SHORT answers. ");
@@ -224,6 +542,18 @@ public class LLMService implements LLMServiceInterface {
         return prompt.toString();
     }
     
+    /**
+     * Whether a failure from callGeminiAPI (wrapped by translateError) was retryable at the source
+     */
+    private boolean isRetryableFailure(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (isRetryableError(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     private boolean isRetryableError(Throwable error) {
         if (error instanceof WebClientResponseException) {
             WebClientResponseException e = (WebClientResponseException) error;
@@ -234,17 +564,42 @@ public class LLMService implements LLMServiceInterface {
         return error instanceof java.util.concurrent.TimeoutException;
     }
     
-    private String getNextApiKey() {
-        List<String> keys = config.getApiKeys();
-        if (keys == null || keys.isEmpty()) {
-            log.error("No Gemini API keys available. Check application.properties configuration.");
-            throw new IllegalStateException("No Gemini API keys configured");
+    /**
+     * Tell the pool how the key fared: 429 cools it down, 401/403 takes it out of rotation for longer
+     */
+    private void reportFailure(ApiKeyPool.Lease lease, Throwable error) {
+        WebClientResponseException e = responseError(error);
+        if (e instanceof WebClientResponseException.TooManyRequests tooManyRequests) {
+            keyPool.rateLimited(lease, retryAfterMillis(tooManyRequests));
+        } else if (e instanceof WebClientResponseException.Unauthorized || e instanceof WebClientResponseException.Forbidden) {
+            keyPool.forbidden(lease);
+        } else {
+            keyPool.failed(lease);
         }
-        
-        int index = currentApiKeyIndex.getAndIncrement() % keys.size();
-        String selectedKey = keys.get(index);
-        log.debug("Using API key {} of {}", index + 1, keys.size());
-        return selectedKey;
+    }
+    
+    /**
+     * The Gemini error response behind a failure (translateError wraps it), or null if there was none
+     */
+    private WebClientResponseException responseError(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof WebClientResponseException response) {
+                return response;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Retry-After header in seconds, else the RetryInfo delay Gemini puts in the error body; -1 if neither
+     */
+    private long retryAfterMillis(WebClientResponseException e) {
+        String header = e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (header != null && header.trim().matches("\\d+")) {
+            return Long.parseLong(header.trim()) * 1000L;
+        }
+        Matcher matcher = RETRY_DELAY.matcher(e.getResponseBodyAsString());
+        return matcher.find() ? (long) (Double.parseDouble(matcher.group(1)) * 1000) : -1;
     }
     
     private ChatResponse createFallbackResponse(String originalPrompt) {
@@ -259,4 +614,16 @@ public class LLMService implements LLMServiceInterface {
         response.setExplanation("Fallback response due to API unavailability");
         return response;
     }
+    
+    private static final class OutboundCall {
+        private final long permit;
+        private final ApiKeyPool.Lease lease;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final long startNanos = System.nanoTime();
+        
+        private OutboundCall(long permit, ApiKeyPool.Lease lease) {
+            this.permit = permit;
+            this.lease = lease;
+        }
+    }
 }
@@ -1,7 +1,13 @@
 package com.portfolio.backend.service.llm;
 
 import com.portfolio.backend.dto.chatbot.ChatResponse;
+import com.portfolio.backend.dto.chatbot.ChatStreamEvent;
+import com.portfolio.backend.dto.chatbot.ResilienceStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface LLMServiceInterface {
-    ChatResponse generateResponse(String prompt, String context);
+    Mono<ChatResponse> generateResponse(String prompt, String context);
+    Flux<ChatStreamEvent> streamResponse(String prompt, String context);
+    ResilienceStatus getResilienceStatus();
 }
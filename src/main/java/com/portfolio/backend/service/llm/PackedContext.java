@@ -0,0 +1,25 @@
+package com.portfolio.backend.service.llm;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Context text that fits the token budget, with what was kept and dropped to get there
+ */
+@Getter
+@RequiredArgsConstructor
+public class PackedContext {
+    private final String text;
+    private final int tokens;
+    private final int budget;
+    private final List<String> included;
+    private final List<String> dropped;
+    private final int duplicateParagraphs;
+
+    public String describe() {
+        return "context=" + tokens + "/" + budget + " tokens, segments=" + included.size()
+            + ", dropped=" + dropped + ", duplicateParagraphs=" + duplicateParagraphs;
+    }
+}
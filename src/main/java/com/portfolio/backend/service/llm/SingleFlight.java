@@ -0,0 +1,69 @@
+package com.portfolio.backend.service.llm;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key into one: callers that arrive while a call is in flight
+ * attach to it and receive its result or its error
+ *
+ * The shared call is not cancelled by its callers. One caller timing out or disconnecting leaves the
+ * call running for the others, and a call nobody waits for any more still completes (and fills the
+ * response cache). The key is released when the call terminates, so a failure is never served to a
+ * caller that arrives afterwards.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * The in-flight call for key, or a new one from call; nothing starts before subscription
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            Mono<V> existing = inFlight.get(key);
+            if (existing != null) {
+                coalesced.increment();
+                return existing;
+            }
+            Sinks.One<V> result = Sinks.one();
+            Mono<V> flight = result.asMono();
+            existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                coalesced.increment();
+                return existing;
+            }
+            // Subscribed here rather than by the callers, so no caller can cancel it. The key is released
+            // before the result is emitted: a caller woken by it may ask again at once
+            Mono.defer(call)
+                .subscribe(value -> {
+                    inFlight.remove(key, flight);
+                    result.tryEmitValue(value);
+                }, error -> {
+                    inFlight.remove(key, flight);
+                    result.tryEmitError(error);
+                }, () -> {
+                    inFlight.remove(key, flight);
+                    result.tryEmitEmpty();
+                });
+            return flight;
+        });
+    }
+
+    /**
+     * Calls that attached to another in-flight call instead of starting their own
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
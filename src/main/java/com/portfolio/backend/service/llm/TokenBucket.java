@@ -0,0 +1,52 @@
+package com.portfolio.backend.service.llm;
+
+/**
+ * Token bucket refilled continuously at capacity per period; not thread-safe, ApiKeyPool guards it
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final long periodMillis;
+    private double tokens;
+    private long updatedAt;
+
+    TokenBucket(double capacity, long periodMillis, long now) {
+        this.capacity = capacity;
+        this.periodMillis = periodMillis;
+        this.tokens = capacity;
+        this.updatedAt = now;
+    }
+
+    double available(long now) {
+        refill(now);
+        return tokens;
+    }
+
+    /**
+     * Share of the capacity that is available, 0..1
+     */
+    double fill(long now) {
+        return available(now) / capacity;
+    }
+
+    boolean tryTake(double amount, long now) {
+        double needed = Math.min(amount, capacity); // A request larger than the bucket waits for a full one
+        if (available(now) < needed) {
+            return false;
+        }
+        tokens -= needed;
+        return true;
+    }
+
+    long millisUntil(double amount, long now) {
+        double missing = Math.min(amount, capacity) - available(now);
+        return missing <= 0 ? 0 : (long) Math.ceil(missing * periodMillis / capacity);
+    }
+
+    private void refill(long now) {
+        if (now > updatedAt) {
+            tokens = Math.min(capacity, tokens + (now - updatedAt) * capacity / periodMillis);
+            updatedAt = now;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.portfolio.backend.service.llm;
+
+/**
+ * Cheap prompt size estimate for budgeting, without a tokenizer
+ *
+ * Counts one token per short word (longer words split every six letters, as subword vocabularies
+ * do), one per digit and one per punctuation or symbol character. It errs slightly high on plain
+ * English; the promptTokenCount Gemini reports back is the authoritative number.
+ */
+public final class TokenEstimator {
+
+    private static final int LETTERS_PER_TOKEN = 6;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int tokens = 0;
+        int letters = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetter(c)) {
+                letters++;
+                continue;
+            }
+            tokens += wordTokens(letters);
+            letters = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++; // Digit, punctuation or symbol
+            }
+        }
+        return tokens + wordTokens(letters);
+    }
+
+    private static int wordTokens(int letters) {
+        return (letters + LETTERS_PER_TOKEN - 1) / LETTERS_PER_TOKEN;
+    }
+}
@@ -0,0 +1,195 @@
+package com.portfolio.backend.service.market;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.entity.Asset;
+import com.portfolio.backend.event.AssetsChangedEvent;
+import com.portfolio.backend.repository.AssetRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of the assets table, so asset lookups and GET /api/assets never reach the database
+ *
+ * The table is a few dozen rows that change only when seeded or edited by hand. Readers get an
+ * immutable Snapshot through one volatile read: the assets by id and by symbol, and the JSON body of
+ * GET /api/assets serialized once with its strong ETag. The snapshot is rebuilt after an
+ * AssetsChangedEvent commits, and every market.asset-catalog-refresh-ms for rows changed outside the
+ * application; a rebuild that yields the same JSON keeps the old snapshot and its ETag.
+ *
+ * The Asset instances are detached copies shared by every reader; treat them as read-only.
+ */
+@Component
+@Slf4j
+public class AssetCatalog {
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // Numbers each refresh's read; the swap lock keeps an older read from replacing a newer one
+    private final AtomicLong reads = new AtomicLong();
+    private final Object swapLock = new Object();
+    private long installedRead;
+
+    @PostConstruct
+    public void load() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Could not load the asset catalog, it stays empty until the next refresh: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssetsChanged(AssetsChangedEvent event) {
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${market.asset-catalog-refresh-ms:300000}",
+               fixedDelayString = "${market.asset-catalog-refresh-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Asset catalog refresh failed, keeping the previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-read the assets table and swap in a new snapshot if anything changed
+     *
+     * The read and the serialization run outside any lock, so concurrent refreshes never queue
+     * behind the database; only the compare and swap is guarded.
+     * @return true when the snapshot was replaced
+     */
+    public boolean refresh() {
+        long read = reads.incrementAndGet();
+        List<Asset> assets = assetRepository.findAll(Sort.by("assetId")).stream()
+                .map(AssetCatalog::copyOf)
+                .toList();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(assets);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not serialize the asset catalog", e);
+        }
+        String etag = etagOf(json);
+        synchronized (swapLock) {
+            if (read < installedRead) {
+                return false; // A refresh that read later got here first
+            }
+            installedRead = read;
+            if (etag.equals(snapshot.getEtag())) {
+                return false;
+            }
+            snapshot = new Snapshot(assets, json, etag);
+        }
+        log.info("Asset catalog holds {} asset(s), ETag {}", assets.size(), etag);
+        return true;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public List<Asset> getAssets() {
+        return snapshot.getAssets();
+    }
+
+    public Optional<Asset> findById(Long assetId) {
+        return assetId == null ? Optional.empty() : Optional.ofNullable(snapshot.byId.get(assetId));
+    }
+
+    public Optional<Asset> findBySymbol(String symbol) {
+        return symbol == null ? Optional.empty() : Optional.ofNullable(snapshot.bySymbol.get(symbol));
+    }
+
+    /**
+     * Detached from whatever persistence context loaded it, so sharing it cannot leak into a flush
+     */
+    private static Asset copyOf(Asset asset) {
+        return new Asset(asset.getAssetId(), asset.getSymbol(), asset.getAssetName(), asset.getCategory(),
+                asset.getDescription());
+    }
+
+    /**
+     * Quoted hex of the first 128 bits of SHA-256: byte-identical bodies, and only those, share a tag
+     */
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One consistent view of the catalog; never modified after construction
+     */
+    public static final class Snapshot {
+
+        private static final byte[] EMPTY_JSON = "[]".getBytes(StandardCharsets.UTF_8);
+        static final Snapshot EMPTY = new Snapshot(List.of(), EMPTY_JSON, etagOf(EMPTY_JSON));
+
+        private final List<Asset> assets;
+        private final Map<Long, Asset> byId;
+        private final Map<String, Asset> bySymbol;
+        private final byte[] json;
+        private final String etag;
+
+        private Snapshot(List<Asset> assets, byte[] json, String etag) {
+            Map<Long, Asset> ids = new HashMap<>();
+            Map<String, Asset> symbols = new HashMap<>();
+            for (Asset asset : assets) {
+                ids.put(asset.getAssetId(), asset);
+                symbols.put(asset.getSymbol(), asset);
+            }
+            this.assets = List.copyOf(assets);
+            this.byId = Map.copyOf(ids);
+            this.bySymbol = Map.copyOf(symbols);
+            this.json = json;
+            this.etag = etag;
+        }
+
+        /**
+         * Ordered by assetId
+         */
+        public List<Asset> getAssets() {
+            return assets;
+        }
+
+        /**
+         * The serialized assets; shared, so write it out but never modify it
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * Strong entity tag of getJson(), already quoted
+         */
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
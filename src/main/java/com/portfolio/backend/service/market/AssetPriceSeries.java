@@ -0,0 +1,81 @@
+package com.portfolio.backend.service.market;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Price history for one asset, kept in two ring buffers:
+ * raw intraday ticks and one closing point per UTC day
+ * Written by the price refresh thread, read concurrently by chart requests
+ */
+final class AssetPriceSeries {
+
+    private static final long DAY_MS = 86_400_000L;
+
+    private final PriceSeriesBuffer intraday;
+    private final PriceSeriesBuffer daily;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long lastDataId = Long.MIN_VALUE;
+
+    AssetPriceSeries(int intradayCapacity, int dailyCapacity) {
+        this.intraday = new PriceSeriesBuffer(intradayCapacity);
+        this.daily = new PriceSeriesBuffer(dailyCapacity);
+    }
+
+    /**
+     * @return false if the tick is older than what is already buffered (back-fill or replay)
+     */
+    boolean append(long dataId, long timestamp, long price) {
+        lock.writeLock().lock();
+        try {
+            long last = intraday.lastTimestamp();
+            if (timestamp < last || (timestamp == last && dataId <= lastDataId)) {
+                return false;
+            }
+            intraday.append(timestamp, price);
+            if (daily.size() > 0 && Math.floorDiv(daily.lastTimestamp(), DAY_MS) == Math.floorDiv(timestamp, DAY_MS)) {
+                daily.replaceLast(timestamp, price);
+            } else {
+                daily.append(timestamp, price);
+            }
+            lastDataId = dataId;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copy the points covering the range, ending at the newest buffered point
+     */
+    Window read(SeriesRange range) {
+        lock.readLock().lock();
+        try {
+            PriceSeriesBuffer source = range.isDaily() ? daily : intraday;
+            if (source.size() == 0) {
+                return Window.EMPTY;
+            }
+            long to = source.lastTimestamp();
+            long from = to - range.getWindowMillis();
+            long[] timestamps = new long[source.size()];
+            long[] prices = new long[source.size()];
+            int count = source.copyRange(from, to, timestamps, prices);
+            return new Window(timestamps, prices, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static final class Window {
+        static final Window EMPTY = new Window(new long[0], new long[0], 0);
+
+        final long[] timestamps;
+        final long[] prices;
+        final int count;
+
+        Window(long[] timestamps, long[] prices, int count) {
+            this.timestamps = timestamps;
+            this.prices = prices;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.portfolio.backend.service.market;
+
+import com.portfolio.backend.config.MarketDataConfig;
+import com.portfolio.backend.dto.market.PriceSeriesResponse;
+import com.portfolio.backend.dto.market.PriceTick;
+import com.portfolio.backend.entity.Asset;
+import com.portfolio.backend.repository.MarketDataRepository;
+import com.portfolio.backend.service.market.store.TickArchive;
+import com.portfolio.backend.service.market.store.TickSlice;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Serves chart series from per-asset in-memory ring buffers
+ * History is loaded once at startup (from the tick store when enabled, otherwise streamed from market_data);
+ * new ticks arrive from PriceService
+ */
+@Service
+@Slf4j
+@DependsOn("priceService") // Load history after the price cache has fixed its high-water mark
+public class MarketSeriesService implements MarketSeriesServiceInterface, PriceTickListener {
+
+    @Autowired
+    private MarketDataRepository marketDataRepository;
+
+    @Autowired
+    private MarketDataConfig config;
+
+    @Autowired
+    private AssetCatalog assetCatalog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private TickArchive tickArchive;
+
+    private final Map<String, AssetPriceSeries> seriesBySymbol = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void loadHistory() {
+        try {
+            long loaded = tickArchive != null ? loadFromTickStore() : loadFromDatabase();
+            log.info("Loaded {} price point(s) for {} asset(s) into chart series", loaded, seriesBySymbol.size());
+        } catch (Exception e) {
+            log.warn("Could not load price history, charts will fill from live ticks: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPriceTick(PriceTick tick) {
+        append(tick);
+    }
+
+    /**
+     * Downsample the buffered series to the requested range
+     * Each bucket keeps its last point, i.e. the closing price of the minute/day/week
+     */
+    public PriceSeriesResponse getPriceSeries(String symbol, String range) {
+        SeriesRange seriesRange = SeriesRange.fromCode(range);
+        List<String> labels = new ArrayList<>();
+        List<Double> prices = new ArrayList<>();
+
+        AssetPriceSeries series = symbol == null ? null : seriesBySymbol.get(symbol.trim().toUpperCase());
+        if (series != null) {
+            AssetPriceSeries.Window window = series.read(seriesRange);
+            for (int i = 0; i < window.count; i++) {
+                long ts = window.timestamps[i];
+                boolean lastInBucket = i == window.count - 1
+                        || seriesRange.bucketOf(window.timestamps[i + 1]) != seriesRange.bucketOf(ts);
+                if (lastInBucket) {
+                    labels.add(seriesRange.getLabelFormat()
+                            .format(LocalDateTime.ofInstant(Instant.ofEpochMilli(ts), ZoneOffset.UTC)));
+                    prices.add(window.prices[i] / 100.0);
+                }
+            }
+        }
+
+        return new PriceSeriesResponse(symbol, seriesRange.getCode(), labels, prices);
+    }
+
+    private long loadFromDatabase() {
+        LocalDateTime since = LocalDateTime.now(ZoneOffset.UTC).minusDays(config.getSeriesHistoryDays());
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        Long loaded = template.execute(status -> {
+            try (Stream<PriceTick> ticks = marketDataRepository.streamTicksSince(since)) {
+                return ticks.filter(this::append).count();
+            }
+        });
+        return loaded == null ? 0L : loaded;
+    }
+
+    private long loadFromTickStore() {
+        long from = System.currentTimeMillis() - Duration.ofDays(config.getSeriesHistoryDays()).toMillis();
+        long loaded = 0L;
+        // Archived rows carry no data_id; a rising negative sequence keeps them ordered ahead of live ids
+        long sequence = Long.MIN_VALUE;
+        for (Asset asset : assetCatalog.getAssets()) {
+            AssetPriceSeries series = seriesFor(asset.getSymbol());
+            for (TickSlice slice : tickArchive.read(asset.getAssetId(), from, Long.MAX_VALUE)) {
+                for (int i = 0; i < slice.size(); i++) {
+                    if (series.append(++sequence, slice.timestamp(i), slice.price(i))) {
+                        loaded++;
+                    }
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private AssetPriceSeries seriesFor(String symbol) {
+        return seriesBySymbol.computeIfAbsent(symbol,
+                s -> new AssetPriceSeries(config.getSeriesIntradayCapacity(), config.getSeriesDailyCapacity()));
+    }
+
+    private boolean append(PriceTick tick) {
+        if (tick.getSymbol() == null || tick.getPrice() == null || tick.getRecordedAt() == null) {
+            return false;
+        }
+        AssetPriceSeries series = seriesFor(tick.getSymbol());
+        long timestamp = tick.getRecordedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        long paise = tick.getPrice().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        return series.append(tick.getDataId(), timestamp, paise);
+    }
+}
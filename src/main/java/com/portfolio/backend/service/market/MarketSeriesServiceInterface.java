@@ -0,0 +1,7 @@
+package com.portfolio.backend.service.market;
+
+import com.portfolio.backend.dto.market.PriceSeriesResponse;
+
+public interface MarketSeriesServiceInterface {
+    PriceSeriesResponse getPriceSeries(String symbol, String range);
+}
@@ -0,0 +1,95 @@
+package com.portfolio.backend.service.market;
+
+/**
+ * Fixed-capacity ring buffer of (epoch millis, price in paise) points
+ * Points must be appended in timestamp order; the oldest point is overwritten when full
+ * Not thread-safe: callers guard access (see AssetPriceSeries)
+ */
+final class PriceSeriesBuffer {
+
+    private final long[] timestamps;
+    private final long[] prices;
+    private int head; // Physical index of the oldest point
+    private int size;
+
+    PriceSeriesBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.timestamps = new long[capacity];
+        this.prices = new long[capacity];
+    }
+
+    void append(long timestamp, long price) {
+        int capacity = timestamps.length;
+        int index;
+        if (size == capacity) {
+            index = head;
+            head = (head + 1) % capacity;
+        } else {
+            index = (head + size) % capacity;
+            size++;
+        }
+        timestamps[index] = timestamp;
+        prices[index] = price;
+    }
+
+    /**
+     * Overwrite the newest point, e.g. to move a daily close forward within the same day
+     */
+    void replaceLast(long timestamp, long price) {
+        if (size == 0) {
+            append(timestamp, price);
+            return;
+        }
+        int index = physical(size - 1);
+        timestamps[index] = timestamp;
+        prices[index] = price;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long lastTimestamp() {
+        return size == 0 ? Long.MIN_VALUE : timestamps[physical(size - 1)];
+    }
+
+    /**
+     * Copy the points with from <= timestamp <= to, oldest first
+     * @return number of points written to the output arrays
+     */
+    int copyRange(long from, long to, long[] outTimestamps, long[] outPrices) {
+        int first = firstAtOrAfter(from);
+        int count = 0;
+        for (int i = first; i < size && count < outTimestamps.length; i++) {
+            int index = physical(i);
+            long ts = timestamps[index];
+            if (ts > to) {
+                break;
+            }
+            outTimestamps[count] = ts;
+            outPrices[count] = prices[index];
+            count++;
+        }
+        return count;
+    }
+
+    private int firstAtOrAfter(long from) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[physical(mid)] < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int physical(int logical) {
+        return (head + logical) % timestamps.length;
+    }
+}
@@ -0,0 +1,161 @@
+package com.portfolio.backend.service.market;
+
+import com.portfolio.backend.config.MarketDataConfig;
+import com.portfolio.backend.dto.market.PriceTick;
+import com.portfolio.backend.repository.MarketDataRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of the latest price per symbol, backed by the market_data table
+ * Loaded once at startup and kept fresh by reading only rows above a high-water mark, less a small
+ * overlap window for ids that commit out of order; rows in the window are applied and published once.
+ */
+@Service
+@Slf4j
+public class PriceService implements PriceServiceInterface {
+
+    @Autowired
+    private MarketDataRepository marketDataRepository;
+
+    @Autowired
+    private MarketDataConfig config;
+
+    // Resolved on first publish: listeners depend on this service, so they cannot be injected eagerly
+    @Autowired
+    private ObjectProvider<PriceTickListener> tickListenerProvider;
+
+    private volatile List<PriceTickListener> tickListeners;
+
+    private final Map<String, PriceTick> latestTicks = new ConcurrentHashMap<>();
+    private final Map<String, BigDecimal> latestPrices = new ConcurrentHashMap<>();
+    private final Map<String, BigDecimal> latestPricesView = Collections.unmodifiableMap(latestPrices);
+
+    // Incremented whenever a symbol's price actually changes; results derived from prices key on it
+    private final AtomicLong priceEpoch = new AtomicLong();
+
+    // Highest market_data.data_id already applied. Only the startup load and the scheduler write it.
+    private volatile long highWaterMark = 0L;
+
+    // Ids within the overlap window below the mark that were already seen
+    private final NavigableSet<Long> seenInWindow = new ConcurrentSkipListSet<>();
+
+    /**
+     * Prime the cache with one "latest row per asset" query
+     */
+    @PostConstruct
+    public void loadLatestPrices() {
+        try {
+            // Read the mark first: rows inserted while the snapshot loads are picked up by the next refresh
+            long mark = marketDataRepository.findMaxDataId();
+            List<PriceTick> latest = marketDataRepository.findLatestPerAsset();
+            latest.forEach(this::apply);
+            seenInWindow.addAll(marketDataRepository.findDataIdsBetween(windowFloor(mark), mark));
+            highWaterMark = mark;
+            log.info("Loaded latest prices for {} asset(s), high-water mark={}", latestPrices.size(), mark);
+        } catch (Exception e) {
+            log.warn("Could not load latest prices, analysis will fall back to buy prices: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply rows newer than the high-water mark, and rows in the overlap window not seen before, in primary key order
+     */
+    @Scheduled(fixedDelayString = "${market.price-refresh-interval-ms:5000}")
+    public void refresh() {
+        try {
+            int batchSize = config.getRefreshBatchSize();
+            long cursor = windowFloor(highWaterMark);
+            List<PriceTick> batch;
+            do {
+                batch = marketDataRepository.findTicksAfter(cursor, PageRequest.of(0, batchSize));
+                for (PriceTick tick : batch) {
+                    cursor = tick.getDataId();
+                    if (cursor <= highWaterMark && !seenInWindow.add(cursor)) {
+                        continue;
+                    }
+                    apply(tick);
+                    if (cursor > highWaterMark) {
+                        seenInWindow.add(cursor);
+                        highWaterMark = cursor;
+                    }
+                    publish(tick);
+                }
+            } while (batch.size() == batchSize);
+            seenInWindow.headSet(windowFloor(highWaterMark), true).clear();
+        } catch (Exception e) {
+            log.warn("Price refresh failed at high-water mark {}: {}", highWaterMark, e.getMessage());
+        }
+    }
+
+    /**
+     * Read-only view of symbol -> latest price; lookups are plain hash reads
+     */
+    public Map<String, BigDecimal> getCurrentPrices() {
+        return latestPricesView;
+    }
+
+    public BigDecimal getCurrentPrice(String symbol) {
+        return latestPrices.get(symbol);
+    }
+
+    public long getPriceEpoch() {
+        return priceEpoch.get();
+    }
+
+    private long windowFloor(long mark) {
+        return Math.max(0L, mark - config.getRefreshOverlapRows());
+    }
+
+    private void apply(PriceTick tick) {
+        if (tick.getSymbol() == null || tick.getPrice() == null) {
+            return;
+        }
+        PriceTick current = latestTicks.get(tick.getSymbol());
+        if (current != null && isOlder(tick, current)) {
+            return; // Back-filled row, keep the newer price
+        }
+        latestTicks.put(tick.getSymbol(), tick);
+        BigDecimal previous = latestPrices.put(tick.getSymbol(), tick.getPrice());
+        if (previous == null || previous.compareTo(tick.getPrice()) != 0) {
+            priceEpoch.incrementAndGet(); // After the put, so a reader of the new epoch sees the new price
+        }
+    }
+
+    private void publish(PriceTick tick) {
+        List<PriceTickListener> listeners = tickListeners;
+        if (listeners == null) {
+            listeners = tickListenerProvider.orderedStream().toList();
+            tickListeners = listeners;
+        }
+        for (PriceTickListener listener : listeners) {
+            try {
+                listener.onPriceTick(tick);
+            } catch (Exception e) {
+                log.warn("Price tick listener {} failed for {}: {}", listener.getClass().getSimpleName(), tick.getSymbol(), e.getMessage());
+            }
+        }
+    }
+
+    private boolean isOlder(PriceTick candidate, PriceTick current) {
+        if (candidate.getRecordedAt() != null && current.getRecordedAt() != null
+                && !candidate.getRecordedAt().equals(current.getRecordedAt())) {
+            return candidate.getRecordedAt().isBefore(current.getRecordedAt());
+        }
+        return candidate.getDataId() < current.getDataId();
+    }
+}
@@ -0,0 +1,11 @@
+package com.portfolio.backend.service.market;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public interface PriceServiceInterface {
+    Map<String, BigDecimal> getCurrentPrices();
+    BigDecimal getCurrentPrice(String symbol);
+    void refresh();
+    long getPriceEpoch();
+}
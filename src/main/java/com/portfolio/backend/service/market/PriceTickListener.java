@@ -0,0 +1,11 @@
+package com.portfolio.backend.service.market;
+
+import com.portfolio.backend.dto.market.PriceTick;
+
+/**
+ * Callback for market_data rows picked up by the incremental price refresh
+ * Implementations run on the refresh thread, so they must not block
+ */
+public interface PriceTickListener {
+    void onPriceTick(PriceTick tick);
+}
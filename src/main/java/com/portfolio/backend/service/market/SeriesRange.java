@@ -0,0 +1,69 @@
+package com.portfolio.backend.service.market;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Chart ranges served by /api/market/prices and how each one is downsampled
+ */
+public enum SeriesRange {
+    INTRADAY("1d", Duration.ofDays(1), false, Duration.ofMinutes(5), "HH:mm"),
+    WEEK("1w", Duration.ofDays(7), false, Duration.ofHours(1), "MM-dd HH:mm"),
+    MONTH("1m", Duration.ofDays(30), true, Duration.ofDays(1), "yyyy-MM-dd"),
+    YEAR("1y", Duration.ofDays(365), true, Duration.ofDays(1), "yyyy-MM-dd"),
+    WEEKS_52("52w", Duration.ofDays(364), true, Duration.ofDays(7), "yyyy-MM-dd");
+
+    // 1970-01-01 was a Thursday; shifting by four days makes weekly buckets start on Monday
+    private static final long WEEK_ALIGNMENT_MS = Duration.ofDays(4).toMillis();
+
+    private final String code;
+    private final long windowMillis;
+    private final boolean daily;
+    private final long bucketMillis;
+    private final DateTimeFormatter labelFormat;
+
+    SeriesRange(String code, Duration window, boolean daily, Duration bucket, String labelPattern) {
+        this.code = code;
+        this.windowMillis = window.toMillis();
+        this.daily = daily;
+        this.bucketMillis = bucket.toMillis();
+        this.labelFormat = DateTimeFormatter.ofPattern(labelPattern);
+    }
+
+    public static SeriesRange fromCode(String code) {
+        String normalized = code == null ? "" : code.trim().toLowerCase();
+        if ("intraday".equals(normalized)) {
+            return INTRADAY;
+        }
+        for (SeriesRange range : values()) {
+            if (range.code.equals(normalized)) {
+                return range;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported range: " + code);
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Whether the range is served from daily closes rather than raw intraday ticks
+     */
+    boolean isDaily() {
+        return daily;
+    }
+
+    long bucketOf(long timestamp) {
+        long offset = bucketMillis == Duration.ofDays(7).toMillis() ? WEEK_ALIGNMENT_MS : 0L;
+        return Math.floorDiv(timestamp - offset, bucketMillis);
+    }
+
+    DateTimeFormatter getLabelFormat() {
+        return labelFormat;
+    }
+}
@@ -0,0 +1,184 @@
+package com.portfolio.backend.service.market.store;
+
+import com.portfolio.backend.config.MarketDataConfig;
+import com.portfolio.backend.dto.market.PriceTick;
+import com.portfolio.backend.entity.Asset;
+import com.portfolio.backend.repository.MarketDataRepository;
+import com.portfolio.backend.service.market.AssetCatalog;
+import com.portfolio.backend.service.market.PriceTickListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Archives market_data ticks into the memory-mapped TickStore
+ * On startup the store catches up from MySQL per asset (range scan on idx_asset_time);
+ * afterwards ticks arrive from the PriceService refresh. With prune-database enabled,
+ * MySQL keeps only the latest snapshot row per asset (and rows the store could not take) and
+ * history lives in the store.
+ */
+@Component
+@ConditionalOnProperty(prefix = "market.tick-store", name = "enabled", havingValue = "true")
+@DependsOn("priceService") // Catch up only after the price cache has fixed its high-water mark
+@Slf4j
+public class TickArchive implements PriceTickListener {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private MarketDataRepository marketDataRepository;
+
+    @Autowired
+    private AssetCatalog assetCatalog;
+
+    @Autowired
+    private MarketDataConfig config;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TickStore store;
+    private final Map<Long, Long> lastArchivedDataId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> firstRejectedDataId = new ConcurrentHashMap<>();
+    private final AtomicLong rejectedOutOfOrder = new AtomicLong();
+
+    @PostConstruct
+    public void open() throws IOException {
+        MarketDataConfig.TickStoreProperties properties = config.getTickStore();
+        store = new TickStore(Paths.get(properties.getPath()), properties.getSegmentCapacity());
+        catchUp();
+    }
+
+    @PreDestroy
+    public void close() {
+        store.flush();
+    }
+
+    @Override
+    public void onPriceTick(PriceTick tick) {
+        archive(tick);
+    }
+
+    /**
+     * Zero-copy range read for charting and risk calculations (timestamps in epoch millis)
+     */
+    public List<TickSlice> read(Long assetId, long from, long to) {
+        return store.read(assetId, from, to);
+    }
+
+    public long getRejectedOutOfOrder() {
+        return rejectedOutOfOrder.get();
+    }
+
+    /**
+     * Delete archived rows from market_data, keeping the newest row of every asset as the snapshot
+     * Only rows up to the asset's high-water mark go: the last dataId archived by this process, held
+     * below any back-filled row the store rejected as out of order, which exists nowhere else.
+     */
+    @Scheduled(fixedDelayString = "${market.tick-store.prune-interval-ms:3600000}")
+    public void pruneDatabase() {
+        if (!config.getTickStore().isPruneDatabase()) {
+            return;
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        for (Long assetId : store.assetIds()) {
+            long last = store.lastTimestamp(assetId);
+            Long mark = lastArchivedDataId.get(assetId);
+            if (last == Long.MIN_VALUE || mark == null) {
+                continue;
+            }
+            Long rejected = firstRejectedDataId.get(assetId);
+            long upToId = rejected == null ? mark : Math.min(mark, rejected - 1);
+            LocalDateTime before = LocalDateTime.ofInstant(Instant.ofEpochMilli(last), ZoneOffset.UTC);
+            try {
+                Integer deleted = template.execute(status -> marketDataRepository.deleteArchived(assetId, before, upToId));
+                if (deleted != null && deleted > 0) {
+                    log.info("Pruned {} archived market_data row(s) for asset {}", deleted, assetId);
+                }
+            } catch (Exception e) {
+                log.warn("Pruning market_data failed for asset {}: {}", assetId, e.getMessage());
+            }
+        }
+    }
+
+    private void catchUp() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        for (Asset asset : assetCatalog.getAssets()) {
+            Long assetId = asset.getAssetId();
+            long last = store.lastTimestamp(assetId);
+            LocalDateTime from = last == Long.MIN_VALUE
+                    ? EPOCH
+                    : LocalDateTime.ofInstant(Instant.ofEpochMilli(last), ZoneOffset.UTC);
+            // The store has no dataIds; its ticks at the last timestamp are the first rows at that
+            // timestamp in (recordedAt, dataId) order, the order they were archived in
+            long[] toSkip = {last == Long.MIN_VALUE ? 0 : countAt(assetId, last)};
+            Long archived = template.execute(status -> {
+                try (Stream<PriceTick> ticks = marketDataRepository.streamAssetTicksFrom(assetId, from)) {
+                    return ticks.filter(tick -> {
+                        if (toSkip[0] > 0 && epochMillis(tick) == last) {
+                            toSkip[0]--;
+                            return false;
+                        }
+                        return archive(tick);
+                    }).count();
+                }
+            });
+            if (archived != null && archived > 0) {
+                log.info("Archived {} tick(s) for {} into the tick store", archived, asset.getSymbol());
+            }
+        }
+        store.flush();
+    }
+
+    private long countAt(Long assetId, long timestamp) {
+        long count = 0;
+        for (TickSlice slice : store.read(assetId, timestamp, timestamp)) {
+            count += slice.size();
+        }
+        return count;
+    }
+
+    private static long epochMillis(PriceTick tick) {
+        return tick.getRecordedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private boolean archive(PriceTick tick) {
+        if (tick.getAssetId() == null || tick.getPrice() == null || tick.getRecordedAt() == null) {
+            return false;
+        }
+        Long seen = lastArchivedDataId.get(tick.getAssetId());
+        if (seen != null && tick.getDataId() <= seen) {
+            return false; // Already archived during catch-up
+        }
+        long timestamp = epochMillis(tick);
+        long paise = tick.getPrice().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        long volume = tick.getVolume() == null ? 0L : tick.getVolume();
+        if (!store.append(tick.getAssetId(), timestamp, paise, volume)) {
+            rejectedOutOfOrder.incrementAndGet();
+            firstRejectedDataId.merge(tick.getAssetId(), tick.getDataId(), Math::min);
+            return false;
+        }
+        lastArchivedDataId.merge(tick.getAssetId(), tick.getDataId(), Math::max);
+        return true;
+    }
+}
@@ -0,0 +1,248 @@
+package com.portfolio.backend.service.market.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-capacity, memory-mapped segment file of ticks for a single asset
+ *
+ * Layout (little endian):
+ *   header  [64 bytes]      magic, version, capacity, committed count, sealed flag
+ *   ts      [capacity * 8]  epoch millis
+ *   price   [capacity * 8]  price in paise
+ *   volume  [capacity * 8]
+ *   crc     [capacity * 4]  CRC32C of (ts, price, volume), zero means "no row"
+ *
+ * Rows are written column by column and committed by bumping the header count.
+ * The header count is only a hint for unsealed segments: recovery re-validates rows by checksum.
+ */
+final class TickSegment {
+
+    static final int HEADER_BYTES = 64;
+    static final int ROW_BYTES = 8 + 8 + 8 + 4;
+
+    private static final int MAGIC = 0x5449434B; // "TICK"
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int COUNT_OFFSET = 12;
+    private static final int SEALED_OFFSET = 16;
+
+    private final Path file;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+    private final LongBuffer timestamps;
+    private final LongBuffer prices;
+    private final LongBuffer volumes;
+    private final IntBuffer checksums;
+    private final ByteBuffer scratch = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+
+    // Number of committed rows, published to readers after the column writes
+    private volatile int count;
+    private volatile boolean sealed;
+
+    private TickSegment(Path file, int capacity, MappedByteBuffer buffer) {
+        this.file = file;
+        this.capacity = capacity;
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int tsOffset = HEADER_BYTES;
+        int priceOffset = tsOffset + capacity * 8;
+        int volumeOffset = priceOffset + capacity * 8;
+        int crcOffset = volumeOffset + capacity * 8;
+        this.timestamps = buffer.slice(tsOffset, capacity * 8).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        this.prices = buffer.slice(priceOffset, capacity * 8).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        this.volumes = buffer.slice(volumeOffset, capacity * 8).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        this.checksums = buffer.slice(crcOffset, capacity * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    static TickSegment create(Path file, int capacity) throws IOException {
+        TickSegment segment = new TickSegment(file, capacity, map(file, capacity));
+        segment.buffer.putInt(MAGIC_OFFSET, MAGIC);
+        segment.buffer.putInt(VERSION_OFFSET, VERSION);
+        segment.buffer.putInt(CAPACITY_OFFSET, capacity);
+        segment.buffer.putInt(COUNT_OFFSET, 0);
+        segment.buffer.putInt(SEALED_OFFSET, 0);
+        segment.buffer.force();
+        return segment;
+    }
+
+    /**
+     * Open an existing segment. Sealed segments are trusted; an unsealed (last) segment
+     * is truncated to its longest prefix of rows with valid checksums and ordered timestamps.
+     */
+    static TickSegment open(Path file, int defaultCapacity) throws IOException {
+        int capacity = readCapacity(file, defaultCapacity);
+        TickSegment segment = new TickSegment(file, capacity, map(file, capacity));
+        boolean validHeader = segment.buffer.getInt(MAGIC_OFFSET) == MAGIC
+                && segment.buffer.getInt(VERSION_OFFSET) == VERSION;
+        boolean sealedOnDisk = validHeader && segment.buffer.getInt(SEALED_OFFSET) == 1;
+
+        if (sealedOnDisk) {
+            segment.count = Math.min(Math.max(segment.buffer.getInt(COUNT_OFFSET), 0), capacity);
+            segment.sealed = true;
+            return segment;
+        }
+        segment.recover();
+        return segment;
+    }
+
+    private static int readCapacity(Path file, int defaultCapacity) throws IOException {
+        long size = Files.size(file);
+        long derived = (size - HEADER_BYTES) / ROW_BYTES;
+        if (derived > 0 && derived <= Integer.MAX_VALUE && HEADER_BYTES + derived * ROW_BYTES == size) {
+            return (int) derived;
+        }
+        return defaultCapacity;
+    }
+
+    private static MappedByteBuffer map(Path file, int capacity) throws IOException {
+        long size = HEADER_BYTES + (long) capacity * ROW_BYTES;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private void recover() {
+        int valid = 0;
+        long previous = Long.MIN_VALUE;
+        while (valid < capacity) {
+            long ts = timestamps.get(valid);
+            int stored = checksums.get(valid);
+            if (stored == 0 || stored != checksum(ts, prices.get(valid), volumes.get(valid)) || ts < previous) {
+                break;
+            }
+            previous = ts;
+            valid++;
+        }
+        // Clear checksums past the valid prefix so a later crash cannot resurrect stale rows
+        for (int i = valid; i < capacity; i++) {
+            if (checksums.get(i) != 0) {
+                checksums.put(i, 0);
+            }
+        }
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(COUNT_OFFSET, valid);
+        buffer.putInt(SEALED_OFFSET, 0);
+        buffer.force();
+        count = valid;
+    }
+
+    /**
+     * Append one row. Single writer only.
+     */
+    void append(long timestamp, long price, long volume) {
+        int index = count;
+        if (sealed || index >= capacity) {
+            throw new IllegalStateException("Segment is full: " + file);
+        }
+        timestamps.put(index, timestamp);
+        prices.put(index, price);
+        volumes.put(index, volume);
+        checksums.put(index, checksum(timestamp, price, volume));
+        buffer.putInt(COUNT_OFFSET, index + 1);
+        count = index + 1;
+    }
+
+    /**
+     * Flush and mark the segment immutable; called on rollover
+     */
+    void seal() {
+        buffer.force();
+        buffer.putInt(SEALED_OFFSET, 1);
+        buffer.force();
+        sealed = true;
+    }
+
+    void flush() {
+        buffer.force();
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    int size() {
+        return count;
+    }
+
+    long firstTimestamp() {
+        return count == 0 ? Long.MAX_VALUE : timestamps.get(0);
+    }
+
+    long lastTimestamp() {
+        int n = count;
+        return n == 0 ? Long.MIN_VALUE : timestamps.get(n - 1);
+    }
+
+    /**
+     * Zero-copy view of the rows with from <= timestamp <= to, or null if none match
+     */
+    TickSlice slice(long from, long to) {
+        int n = count;
+        int start = lowerBound(from, n);
+        int end = upperBound(to, n);
+        if (start >= end) {
+            return null;
+        }
+        int length = end - start;
+        return new TickSlice(
+                timestamps.slice(start, length).asReadOnlyBuffer(),
+                prices.slice(start, length).asReadOnlyBuffer(),
+                volumes.slice(start, length).asReadOnlyBuffer());
+    }
+
+    // First index with timestamp >= from
+    private int lowerBound(long from, int n) {
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps.get(mid) < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First index with timestamp > to
+    private int upperBound(long to, int n) {
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps.get(mid) <= to) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int checksum(long timestamp, long price, long volume) {
+        scratch.clear();
+        scratch.putLong(timestamp).putLong(price).putLong(volume).flip();
+        crc.reset();
+        crc.update(scratch);
+        int value = (int) crc.getValue();
+        return value == 0 ? 1 : value; // Zero is reserved for empty rows
+    }
+}
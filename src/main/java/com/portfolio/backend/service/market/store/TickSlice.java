@@ -0,0 +1,39 @@
+package com.portfolio.backend.service.market.store;
+
+import java.nio.LongBuffer;
+
+/**
+ * Read-only, zero-copy window over consecutive rows of one segment
+ * The buffers point straight into the memory-mapped file
+ */
+public final class TickSlice {
+
+    private final LongBuffer timestamps;
+    private final LongBuffer prices;
+    private final LongBuffer volumes;
+
+    TickSlice(LongBuffer timestamps, LongBuffer prices, LongBuffer volumes) {
+        this.timestamps = timestamps;
+        this.prices = prices;
+        this.volumes = volumes;
+    }
+
+    public int size() {
+        return timestamps.limit();
+    }
+
+    public long timestamp(int index) {
+        return timestamps.get(index);
+    }
+
+    /**
+     * Price in paise (1/100 of the quoted unit), matching market_data.price DECIMAL(15,2)
+     */
+    public long price(int index) {
+        return prices.get(index);
+    }
+
+    public long volume(int index) {
+        return volumes.get(index);
+    }
+}
@@ -0,0 +1,164 @@
+package com.portfolio.backend.service.market.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Embedded append-only tick history, one directory per asset and one file per segment
+ * Segments roll over when full; only the newest segment of an asset is ever written.
+ *
+ * Threading: one writer (the price refresh thread) and any number of concurrent readers.
+ */
+@Slf4j
+public class TickStore {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path root;
+    private final int segmentCapacity;
+    private final Map<Long, List<TickSegment>> segmentsByAsset = new ConcurrentHashMap<>();
+
+    public TickStore(Path root, int segmentCapacity) throws IOException {
+        if (segmentCapacity <= 0) {
+            throw new IllegalArgumentException("Segment capacity must be positive: " + segmentCapacity);
+        }
+        this.root = root;
+        this.segmentCapacity = segmentCapacity;
+        Files.createDirectories(root);
+        openExisting();
+    }
+
+    /**
+     * Append a tick. Ticks older than the newest stored tick are rejected, since reads rely on time order.
+     * @return false if the tick was rejected as out of order
+     */
+    public boolean append(long assetId, long timestamp, long price, long volume) {
+        List<TickSegment> segments = segmentsByAsset.computeIfAbsent(assetId, id -> new CopyOnWriteArrayList<>());
+        TickSegment tail = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (tail != null && timestamp < tail.lastTimestamp()) {
+            return false;
+        }
+        if (tail == null || tail.isFull()) {
+            if (tail != null) {
+                tail.seal();
+            }
+            tail = newSegment(assetId, segments.size());
+            segments.add(tail);
+        }
+        tail.append(timestamp, price, volume);
+        return true;
+    }
+
+    /**
+     * Zero-copy views over every stored tick with from <= timestamp <= to, oldest first
+     */
+    public List<TickSlice> read(long assetId, long from, long to) {
+        List<TickSegment> segments = segmentsByAsset.get(assetId);
+        if (segments == null || from > to) {
+            return Collections.emptyList();
+        }
+        List<TickSlice> slices = new ArrayList<>();
+        for (TickSegment segment : segments) {
+            if (segment.size() == 0 || segment.lastTimestamp() < from) {
+                continue;
+            }
+            if (segment.firstTimestamp() > to) {
+                break;
+            }
+            TickSlice slice = segment.slice(from, to);
+            if (slice != null) {
+                slices.add(slice);
+            }
+        }
+        return slices;
+    }
+
+    public long lastTimestamp(long assetId) {
+        List<TickSegment> segments = segmentsByAsset.get(assetId);
+        if (segments == null || segments.isEmpty()) {
+            return Long.MIN_VALUE;
+        }
+        return segments.get(segments.size() - 1).lastTimestamp();
+    }
+
+    public long size(long assetId) {
+        List<TickSegment> segments = segmentsByAsset.get(assetId);
+        if (segments == null) {
+            return 0L;
+        }
+        long total = 0L;
+        for (TickSegment segment : segments) {
+            total += segment.size();
+        }
+        return total;
+    }
+
+    public List<Long> assetIds() {
+        return new ArrayList<>(segmentsByAsset.keySet());
+    }
+
+    /**
+     * Force the open segments to disk; sealed segments were flushed when they rolled over
+     */
+    public void flush() {
+        segmentsByAsset.values().forEach(segments -> {
+            if (!segments.isEmpty()) {
+                segments.get(segments.size() - 1).flush();
+            }
+        });
+    }
+
+    private TickSegment newSegment(long assetId, int sequence) {
+        try {
+            Path dir = root.resolve(Long.toString(assetId));
+            Files.createDirectories(dir);
+            return TickSegment.create(dir.resolve(segmentName(sequence)), segmentCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create tick segment for asset " + assetId, e);
+        }
+    }
+
+    private void openExisting() throws IOException {
+        try (Stream<Path> assetDirs = Files.list(root)) {
+            for (Path dir : assetDirs.filter(Files::isDirectory).toList()) {
+                Long assetId = parseAssetId(dir);
+                if (assetId == null) {
+                    continue;
+                }
+                List<Path> files;
+                try (Stream<Path> listing = Files.list(dir)) {
+                    files = listing.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+                }
+                List<TickSegment> segments = new CopyOnWriteArrayList<>();
+                for (Path file : files) {
+                    segments.add(TickSegment.open(file, segmentCapacity));
+                }
+                segmentsByAsset.put(assetId, segments);
+                log.info("Opened {} tick segment(s) for asset {} ({} ticks)", segments.size(), assetId, size(assetId));
+            }
+        }
+    }
+
+    private static Long parseAssetId(Path dir) {
+        try {
+            return Long.parseLong(dir.getFileName().toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String segmentName(int sequence) {
+        return String.format("%010d%s", sequence, SEGMENT_SUFFIX);
+    }
+}
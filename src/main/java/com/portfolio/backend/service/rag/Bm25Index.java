@@ -0,0 +1,164 @@
+package com.portfolio.backend.service.rag;
+
+import java.util.*;
+
+/**
+ * Immutable BM25 inverted index over knowledge chunks
+ *
+ * Postings are stored in compressed-row form: the postings of term t are
+ * docs[offsets[t] .. offsets[t + 1]) with matching term frequencies in freqs, so a query only
+ * touches the arrays of its own terms and scoring allocates one float per chunk.
+ */
+public class Bm25Index {
+
+    // Words too common in the knowledge files and in questions to carry any signal
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "can", "do", "does", "for", "from", "how",
+        "i", "in", "is", "it", "me", "my", "of", "on", "or", "should", "that", "the", "this", "to",
+        "what", "when", "which", "why", "with", "you", "your");
+
+    private final List<KnowledgeChunk> chunks;
+    private final Map<String, Integer> termIds;
+    private final int[] offsets;
+    private final int[] docs;
+    private final int[] freqs;
+    private final int[] docLengths;
+    private final float[] idf;
+    private final float averageDocLength;
+    private final float k1;
+    private final float b;
+
+    public Bm25Index(List<KnowledgeChunk> chunks, float k1, float b) {
+        this(chunks, chunks.stream().map(chunk -> tokenize(chunk.getText())).toList(), k1, b);
+    }
+
+    /**
+     * Index chunks that are already tokenized; tokens.get(d) must be tokenize(chunks.get(d).getText())
+     */
+    public Bm25Index(List<KnowledgeChunk> chunks, List<List<String>> tokens, float k1, float b) {
+        this.chunks = List.copyOf(chunks);
+        this.k1 = k1;
+        this.b = b;
+
+        // Pass 1: term frequencies per chunk and document frequencies per term
+        termIds = new HashMap<>();
+        List<Map<Integer, Integer>> chunkTerms = new ArrayList<>(chunks.size());
+        List<Integer> documentFrequency = new ArrayList<>();
+        docLengths = new int[chunks.size()];
+        long totalLength = 0;
+        for (int d = 0; d < chunks.size(); d++) {
+            Map<Integer, Integer> tf = new HashMap<>();
+            for (String token : tokens.get(d)) {
+                Integer termId = termIds.get(token);
+                if (termId == null) {
+                    termId = termIds.size();
+                    termIds.put(token, termId);
+                    documentFrequency.add(0);
+                }
+                if (tf.merge(termId, 1, Integer::sum) == 1) {
+                    documentFrequency.set(termId, documentFrequency.get(termId) + 1);
+                }
+                docLengths[d]++;
+            }
+            chunkTerms.add(tf);
+            totalLength += docLengths[d];
+        }
+        averageDocLength = chunks.isEmpty() ? 0f : (float) totalLength / chunks.size();
+
+        // Pass 2: lay postings out term by term, chunks in ascending order within a term
+        int terms = termIds.size();
+        offsets = new int[terms + 1];
+        for (int t = 0; t < terms; t++) {
+            offsets[t + 1] = offsets[t] + documentFrequency.get(t);
+        }
+        docs = new int[offsets[terms]];
+        freqs = new int[offsets[terms]];
+        int[] cursor = Arrays.copyOf(offsets, terms);
+        for (int d = 0; d < chunkTerms.size(); d++) {
+            for (Map.Entry<Integer, Integer> entry : chunkTerms.get(d).entrySet()) {
+                int slot = cursor[entry.getKey()]++;
+                docs[slot] = d;
+                freqs[slot] = entry.getValue();
+            }
+        }
+
+        idf = new float[terms];
+        int n = chunks.size();
+        for (int t = 0; t < terms; t++) {
+            int df = documentFrequency.get(t);
+            idf[t] = (float) Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        }
+    }
+
+    /**
+     * Up to k chunks with a positive score, best first; ties keep index order
+     */
+    public List<KnowledgeChunk> search(String query, int k) {
+        if (query == null || k <= 0 || chunks.isEmpty()) {
+            return List.of();
+        }
+        float[] scores = new float[chunks.size()];
+        Set<Integer> queryTerms = new LinkedHashSet<>();
+        for (String token : tokenize(query)) {
+            Integer termId = termIds.get(token);
+            if (termId != null) {
+                queryTerms.add(termId); // A repeated query word does not count twice
+            }
+        }
+        for (int t : queryTerms) {
+            for (int p = offsets[t]; p < offsets[t + 1]; p++) {
+                int d = docs[p];
+                float tf = freqs[p];
+                float norm = k1 * (1 - b + b * docLengths[d] / averageDocLength);
+                scores[d] += idf[t] * tf * (k1 + 1) / (tf + norm);
+            }
+        }
+
+        // Partial selection: k is small, so keep a min-heap of the best k
+        PriorityQueue<Integer> best = new PriorityQueue<>(k + 1, (x, y) -> scores[x] != scores[y]
+            ? Float.compare(scores[x], scores[y])
+            : Integer.compare(y, x));
+        for (int d = 0; d < scores.length; d++) {
+            if (scores[d] > 0) {
+                best.offer(d);
+                if (best.size() > k) {
+                    best.poll();
+                }
+            }
+        }
+        KnowledgeChunk[] top = new KnowledgeChunk[best.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = chunks.get(best.poll());
+        }
+        return Arrays.asList(top);
+    }
+
+    public List<KnowledgeChunk> getChunks() {
+        return chunks;
+    }
+
+    public int getTermCount() {
+        return termIds.size();
+    }
+
+    /**
+     * Lower-cased alphanumeric runs without stop words; "P&L" and "VaR" become "p", "l" and "var"
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
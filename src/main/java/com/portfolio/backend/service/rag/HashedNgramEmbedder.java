@@ -0,0 +1,199 @@
+package com.portfolio.backend.service.rag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CPU-only text embedding: character n-grams of each word hashed into a fixed number of buckets,
+ * weighted by (1 + ln tf) * idf and L2-normalized
+ *
+ * Words are padded with boundary markers, so "volatile" and "volatility" share "<vo", "vol",
+ * "olat", "latil" ... and land close to each other even though they are different tokens. The
+ * idf table is computed over the knowledge chunks at build time and stored with the vectors, so
+ * a query embeds with exactly the weights the corpus was embedded with.
+ */
+public class HashedNgramEmbedder {
+
+    private final int dimensions;
+    private final int minGram;
+    private final int maxGram;
+
+    public HashedNgramEmbedder(int dimensions, int minGram, int maxGram) {
+        this.dimensions = dimensions;
+        this.minGram = minGram;
+        this.maxGram = maxGram;
+    }
+
+    /**
+     * Sparse vector of a text: sorted distinct bucket indices and their unit-length weights
+     */
+    public SparseVector embed(String text, float[] idf) {
+        return embed(count(text), idf);
+    }
+
+    /**
+     * Sparse vector of already counted n-grams, weighted with idf
+     */
+    public SparseVector embed(GramCounts grams, float[] idf) {
+        int[] indices = grams.getIndices();
+        int[] counts = grams.getCounts();
+        float[] values = new float[indices.length];
+        double norm = 0;
+        for (int i = 0; i < indices.length; i++) {
+            float weight = (float) ((1 + Math.log(counts[i])) * idf[indices[i]]);
+            values[i] = weight;
+            norm += (double) weight * weight;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < values.length; i++) {
+                values[i] *= scale;
+            }
+        }
+        return new SparseVector(indices, values); // Neither side is ever modified, so the indices are shared
+    }
+
+    /**
+     * N-gram bucket counts of a text; the idf-independent part of embedding, so it can be kept per chunk
+     */
+    public GramCounts count(String text) {
+        int[] counts = new int[dimensions];
+        int distinct = countGrams(text, counts);
+        int[] indices = new int[distinct];
+        int[] nonZero = new int[distinct];
+        for (int d = 0, i = 0; d < dimensions; d++) {
+            if (counts[d] > 0) {
+                indices[i] = d;
+                nonZero[i++] = counts[d];
+            }
+        }
+        return new GramCounts(indices, nonZero);
+    }
+
+    /**
+     * Smoothed idf per bucket, ln((n + 1) / (df + 1)) + 1, over the given documents
+     */
+    public float[] computeIdf(List<String> documents) {
+        List<GramCounts> counted = new ArrayList<>(documents.size());
+        for (String document : documents) {
+            counted.add(count(document));
+        }
+        return computeIdfOfCounts(counted);
+    }
+
+    /**
+     * computeIdf over documents that are already counted
+     */
+    public float[] computeIdfOfCounts(List<GramCounts> documents) {
+        int[] documentFrequency = new int[dimensions];
+        for (GramCounts document : documents) {
+            for (int index : document.getIndices()) {
+                documentFrequency[index]++;
+            }
+        }
+        float[] idf = new float[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            idf[d] = (float) (Math.log((documents.size() + 1.0) / (documentFrequency[d] + 1.0)) + 1);
+        }
+        return idf;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public int getMinGram() {
+        return minGram;
+    }
+
+    public int getMaxGram() {
+        return maxGram;
+    }
+
+    /**
+     * Add the n-gram counts of every word of text to counts; returns the number of non-zero buckets
+     */
+    private int countGrams(String text, int[] counts) {
+        int distinct = 0;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                distinct += countWord("<" + lower.substring(start, i) + ">", counts);
+                start = -1;
+            }
+        }
+        return distinct;
+    }
+
+    private int countWord(String padded, int[] counts) {
+        int distinct = 0;
+        for (int n = minGram; n <= maxGram; n++) {
+            for (int from = 0; from + n <= padded.length(); from++) {
+                int bucket = bucket(padded, from, from + n);
+                if (counts[bucket]++ == 0) {
+                    distinct++;
+                }
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * FNV-1a over the UTF-16 chars of the gram; part of the artifact format, do not change
+     */
+    private int bucket(String text, int from, int to) {
+        int hash = 0x811C9DC5;
+        for (int i = from; i < to; i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x01000193;
+        }
+        return Math.floorMod(hash, dimensions);
+    }
+
+    /**
+     * Distinct n-gram buckets of one text, ascending, with how often each occurred
+     */
+    public static final class GramCounts {
+        private final int[] indices;
+        private final int[] counts;
+
+        GramCounts(int[] indices, int[] counts) {
+            this.indices = indices;
+            this.counts = counts;
+        }
+
+        public int[] getIndices() {
+            return indices;
+        }
+
+        public int[] getCounts() {
+            return counts;
+        }
+    }
+
+    /**
+     * Indices ascending, values parallel to them
+     */
+    public static final class SparseVector {
+        private final int[] indices;
+        private final float[] values;
+
+        SparseVector(int[] indices, float[] values) {
+            this.indices = indices;
+            this.values = values;
+        }
+
+        public int[] getIndices() {
+            return indices;
+        }
+
+        public float[] getValues() {
+            return values;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.portfolio.backend.service.rag;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One knowledge file as far as it can be indexed on its own: its paragraph chunks, their BM25 tokens
+ * and, once vectors are needed, their n-gram counts
+ *
+ * None of this depends on the other files, so a reload keeps the entries of unchanged files and only
+ * re-analyses the edited ones; corpus-wide statistics (BM25 and vector idf) are then recomputed from
+ * the kept parts. Immutable.
+ */
+@Getter
+class IndexedFile {
+    private final String source;                              // KnowledgeChunk source name
+    private final String content;
+    private final List<String> texts;                         // chunkFile() of content
+    private final List<List<String>> tokens;                  // Bm25Index.tokenize() of each text
+    private final List<HashedNgramEmbedder.GramCounts> grams; // Parallel to texts; null until first needed
+
+    private IndexedFile(String source, String content, List<String> texts, List<List<String>> tokens,
+                        List<HashedNgramEmbedder.GramCounts> grams) {
+        this.source = source;
+        this.content = content;
+        this.texts = texts;
+        this.tokens = tokens;
+        this.grams = grams;
+    }
+
+    static IndexedFile of(String source, String content, int minChunkChars) {
+        List<String> texts = List.copyOf(KnowledgeChunker.chunkFile(content, minChunkChars));
+        List<List<String>> tokens = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            tokens.add(List.copyOf(Bm25Index.tokenize(text)));
+        }
+        return new IndexedFile(source, content, texts, List.copyOf(tokens), null);
+    }
+
+    /**
+     * This entry with n-gram counts; itself if it already has them
+     */
+    IndexedFile withGrams(HashedNgramEmbedder embedder) {
+        if (grams != null) {
+            return this;
+        }
+        List<HashedNgramEmbedder.GramCounts> counted = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            counted.add(embedder.count(text));
+        }
+        return new IndexedFile(source, content, texts, tokens, List.copyOf(counted));
+    }
+}
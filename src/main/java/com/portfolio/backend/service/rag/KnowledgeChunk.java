@@ -0,0 +1,15 @@
+package com.portfolio.backend.service.rag;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A paragraph-level piece of a knowledge file, the unit of retrieval
+ */
+@Getter
+@RequiredArgsConstructor
+public class KnowledgeChunk {
+    private final int id;          // Position in the index, stable for the lifetime of the index
+    private final String source;   // Knowledge file name without extension, e.g. "risk_heuristics"
+    private final String text;
+}
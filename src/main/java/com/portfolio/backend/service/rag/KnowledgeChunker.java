@@ -0,0 +1,91 @@
+package com.portfolio.backend.service.rag;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/**
+ * Paragraph chunking of knowledge files, shared by the runtime index and the build-time vector builder
+ * Both sides must produce the same chunks in the same order; fingerprint() lets them check.
+ */
+public final class KnowledgeChunker {
+
+    private KnowledgeChunker() {
+    }
+
+    /**
+     * Split files into blank-line separated paragraphs; short ones (headings) are carried into the
+     * next paragraph, and paragraphs that repeat verbatim across files are kept once
+     *
+     * @param knowledgeBase source name -> file content, in the order chunks should be numbered
+     */
+    public static List<KnowledgeChunk> chunk(Map<String, String> knowledgeBase, int minChunkChars) {
+        List<KnowledgeChunk> chunks = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Map.Entry<String, String> file : knowledgeBase.entrySet()) {
+            for (String text : chunkFile(file.getValue(), minChunkChars)) {
+                if (seen.add(text)) {
+                    chunks.add(new KnowledgeChunk(chunks.size(), file.getKey(), text));
+                }
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * The paragraph texts of one file, each once; chunk() drops those an earlier file already had
+     * Depends on nothing but the content, so a reload can keep the result for files that did not change.
+     */
+    public static List<String> chunkFile(String content, int minChunkChars) {
+        List<String> texts = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        StringBuilder pending = new StringBuilder();
+        for (String paragraph : content.replace("\r\n", "\n").split("\n\\s*\n")) {
+            String text = paragraph.strip();
+            if (text.isEmpty()) {
+                continue;
+            }
+            if (!pending.isEmpty()) {
+                text = pending + "\n" + text;
+                pending.setLength(0);
+            }
+            if (text.length() < minChunkChars) {
+                pending.append(text);
+                continue;
+            }
+            if (seen.add(text)) {
+                texts.add(text);
+            }
+        }
+        if (!pending.isEmpty() && seen.add(pending.toString())) {
+            texts.add(pending.toString());
+        }
+        return texts;
+    }
+
+    /**
+     * CRC32C over sources and texts in order; equal fingerprints mean identical chunk lists
+     */
+    public static long fingerprint(List<KnowledgeChunk> chunks) {
+        CRC32C crc = new CRC32C();
+        for (KnowledgeChunk chunk : chunks) {
+            crc.update(chunk.getSource().getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+            crc.update(chunk.getText().getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * "risk_heuristics.txt" -> "risk_heuristics"
+     */
+    public static String sourceName(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+}
@@ -0,0 +1,29 @@
+package com.portfolio.backend.service.rag;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Everything retrieval reads, built completely before it is published and never modified after
+ * Chunk ids index into the lexical index's chunk list, and the vectors (if any) were checked against
+ * the same chunks, so a reader that holds one snapshot always sees a consistent pair.
+ */
+@Getter
+@RequiredArgsConstructor
+public class KnowledgeSnapshot {
+    private final long version;
+    private final SortedMap<String, String> files;  // File name -> content, as read; unmodifiable
+    private final Bm25Index lexical;
+    private final VectorIndex vectors;               // null when retrieval is BM25 only
+    @Getter(AccessLevel.PACKAGE)
+    private final Map<String, IndexedFile> indexed;  // File name -> its analysis, reused by the next reload
+
+    public List<KnowledgeChunk> getChunks() {
+        return lexical.getChunks();
+    }
+}
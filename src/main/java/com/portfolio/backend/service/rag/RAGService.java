@@ -1,68 +1,354 @@
 package com.portfolio.backend.service.rag;
 
+import com.portfolio.backend.config.RagConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * RAG (Retrieval-Augmented Generation) Service
- * Retrieves relevant knowledge from knowledge base files
+ * Retrieves relevant knowledge from knowledge base files: every file is split into paragraph
+ * chunks and indexed with BM25. When the build-time vector index matches those chunks,
+ * lexical and semantic (char n-gram) rankings are fused so paraphrases are found as well.
+ *
+ * With rag.knowledge-dir set, the directory is watched and edits are re-indexed on the watcher
+ * thread. Retrieval reads one immutable KnowledgeSnapshot per call and a reload replaces it with a
+ * single volatile write, so requests never wait for a reload or see a partly built index.
  */
 @Service
 @Slf4j
 public class RAGService implements RAGServiceInterface {
     
-    private static final String KNOWLEDGE_BASE_PATH = "knowledge/";
-    private Map<String, String> knowledgeBase = new HashMap<>();
+    @Autowired
+    private RagConfig config;
     
-    public RAGService() {
-        loadKnowledgeBase();
+    // Reciprocal rank fusion constant; 60 is the usual choice and keeps either ranking from dominating
+    private static final int RRF_K = 60;
+    
+    private volatile KnowledgeSnapshot snapshot =
+        new KnowledgeSnapshot(0, Collections.emptySortedMap(), new Bm25Index(List.of(), 1.2f, 0.75f), null, Map.of());
+    
+    // Runtime embedding of edited knowledge uses the build-time parameters
+    private final HashedNgramEmbedder embedder = new HashedNgramEmbedder(VectorIndexBuilder.DEFAULT_DIMENSIONS,
+        VectorIndexBuilder.DEFAULT_MIN_GRAM, VectorIndexBuilder.DEFAULT_MAX_GRAM);
+    
+    // Build-time vectors, opened on first use; only touched by the loading thread (publish is synchronized)
+    private VectorIndex bundledVectors;
+    private boolean bundledVectorsOpened;
+    
+    private volatile WatchService watchService;
+    
+    @PostConstruct
+    public void loadKnowledgeBase() {
+        Path dir = knowledgeDir();
+        try {
+            publish(dir != null ? readDirectory(dir) : readClasspath());
+        } catch (IOException e) {
+            log.error("Error loading knowledge base from {}", dir != null ? dir : config.getKnowledgeLocation(), e);
+            publish(new TreeMap<>());
+        }
+        if (dir != null) {
+            startWatcher(dir);
+        }
+    }
+    
+    @PreDestroy
+    public void stopWatcher() {
+        WatchService watcher = watchService;
+        watchService = null;
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                log.debug("Closing knowledge watcher: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Current knowledge snapshot; callers that need several things from it should read it once
+     */
+    public KnowledgeSnapshot getSnapshot() {
+        return snapshot;
     }
     
- 
     public String retrieveContext(String query, String currentPage, String chartType) {
         List<String> relevantSnippets = new ArrayList<>();
-        String lowerQuery = query.toLowerCase();
-        
-        
-        if (containsKeyword(lowerQuery, "risk", "var", "volatility", "beta")) {
-            relevantSnippets.add(knowledgeBase.getOrDefault("risk_heuristics", ""));
+        for (KnowledgeChunk chunk : retrieveChunks(query, currentPage, chartType)) {
+            relevantSnippets.add(chunk.getText());
+        }
+        if (chartType != null) {
+            relevantSnippets.add(getChartSpecificContext(chartType));
         }
         
-        if (containsKeyword(lowerQuery, "portfolio", "allocation", "diversification", "concentration")) {
-            relevantSnippets.add(knowledgeBase.getOrDefault("portfolio_rules", ""));
+        return relevantSnippets.stream()
+                .filter(s -> s != null && !s.isEmpty())
+                .collect(Collectors.joining("\n\n"));
+    }
+    
+    /**
+     * Top-k knowledge chunks for the question, with the page and chart type as extra query terms
+     */
+    public List<KnowledgeChunk> retrieveChunks(String query, String currentPage, String chartType) {
+        StringBuilder fullQuery = new StringBuilder(query == null ? "" : query);
+        if (currentPage != null) {
+            fullQuery.append(' ').append(currentPage);
+        }
+        if (chartType != null) {
+            fullQuery.append(' ').append(chartType).append(" chart");
+        }
+        KnowledgeSnapshot current = snapshot;
+        int topK = config.getTopK();
+        List<KnowledgeChunk> lexical = current.getLexical().search(fullQuery.toString(), topK * 2);
+        if (current.getVectors() == null) {
+            return lexical.size() > topK ? lexical.subList(0, topK) : lexical;
         }
+        int[] semantic = current.getVectors().search(fullQuery.toString(), topK * 2, config.getVectorMinSimilarity());
         
-        if (containsKeyword(lowerQuery, "chart", "graph", "visualization", "trend") || chartType != null) {
-            relevantSnippets.add(knowledgeBase.getOrDefault("visualization_semantics", ""));
-            if (chartType != null) {
-                relevantSnippets.add(getChartSpecificContext(chartType));
+        // Reciprocal rank fusion: a chunk ranked high by either retriever surfaces, one ranked by both wins
+        Map<Integer, Double> fused = new HashMap<>();
+        for (int rank = 0; rank < lexical.size(); rank++) {
+            fused.merge(lexical.get(rank).getId(), 1.0 / (RRF_K + rank + 1), Double::sum);
+        }
+        for (int rank = 0; rank < semantic.length; rank++) {
+            fused.merge(semantic[rank], 1.0 / (RRF_K + rank + 1), Double::sum);
+        }
+        List<KnowledgeChunk> chunks = current.getChunks();
+        return fused.entrySet().stream()
+            .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(topK)
+            .map(entry -> chunks.get(entry.getKey()))
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Re-read the named files of the knowledge directory (deleted ones are dropped), or all of them
+     * when changedFiles is null, and publish a new snapshot if anything changed. On a read error the
+     * current snapshot stays in place.
+     */
+    synchronized void reload(Collection<String> changedFiles) {
+        Path dir = knowledgeDir();
+        if (dir == null) {
+            return;
+        }
+        KnowledgeSnapshot current = snapshot;
+        SortedMap<String, String> files;
+        try {
+            if (changedFiles == null) {
+                files = readDirectory(dir);
+            } else {
+                files = new TreeMap<>(current.getFiles());
+                for (String name : changedFiles) {
+                    Path file = dir.resolve(name);
+                    if (Files.isRegularFile(file)) {
+                        files.put(name, Files.readString(file, StandardCharsets.UTF_8));
+                    } else {
+                        files.remove(name);
+                    }
+                }
             }
+        } catch (IOException e) {
+            log.warn("Knowledge reload failed, keeping version {}: {}", current.getVersion(), e.getMessage());
+            return;
         }
-        
-        if (containsKeyword(lowerQuery, "asset", "stock", "commodity", "mutual fund", "performance")) {
-            relevantSnippets.add(knowledgeBase.getOrDefault("financial_definitions", ""));
+        if (files.equals(current.getFiles())) {
+            log.debug("Knowledge files unchanged, keeping version {}", current.getVersion());
+            return;
         }
+        publish(files);
+    }
+    
+    /**
+     * Index the files, then swap the new snapshot in
+     * Files whose content is unchanged keep their chunks, tokens and n-gram counts from the current
+     * snapshot; only new and edited files are re-chunked. The BM25 postings, idf tables and vectors
+     * are then laid out again over the whole corpus, since their statistics are corpus-wide.
+     */
+    private synchronized void publish(SortedMap<String, String> files) {
+        Map<String, IndexedFile> previous = snapshot.getIndexed();
+        Map<String, IndexedFile> indexed = new TreeMap<>();
+        int reanalysed = 0;
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            IndexedFile entry = previous.get(file.getKey());
+            if (entry == null || !entry.getContent().equals(file.getValue())) {
+                // Chunk source names follow file name order, the same order VectorIndexBuilder uses
+                entry = IndexedFile.of(KnowledgeChunker.sourceName(file.getKey()), file.getValue(), config.getMinChunkChars());
+                reanalysed++;
+            }
+            indexed.put(file.getKey(), entry);
+        }
+        boolean defaults = indexed.values().stream().allMatch(entry -> entry.getContent().isBlank());
+        List<IndexedFile> corpus = defaults ? defaultCorpus() : new ArrayList<>(indexed.values());
         
-       
-        relevantSnippets.add(knowledgeBase.getOrDefault("portfolio_rules", ""));
-        
-        return relevantSnippets.stream()
-                .filter(s -> s != null && !s.isEmpty())
-                .collect(Collectors.joining("\n\n"));
+        // Number the chunks across files, keeping a paragraph repeated in a later file once (as KnowledgeChunker.chunk)
+        List<KnowledgeChunk> chunks = new ArrayList<>();
+        List<List<String>> tokens = new ArrayList<>();
+        List<int[]> origins = new ArrayList<>(); // {corpus entry, text} of each chunk
+        Set<String> seen = new HashSet<>();
+        for (int f = 0; f < corpus.size(); f++) {
+            IndexedFile entry = corpus.get(f);
+            for (int t = 0; t < entry.getTexts().size(); t++) {
+                String text = entry.getTexts().get(t);
+                if (seen.add(text)) {
+                    chunks.add(new KnowledgeChunk(chunks.size(), entry.getSource(), text));
+                    tokens.add(entry.getTokens().get(t));
+                    origins.add(new int[] {f, t});
+                }
+            }
+        }
+        Bm25Index lexical = new Bm25Index(chunks, tokens, config.getBm25K1(), config.getBm25B());
+        VectorIndex vectors = null;
+        if (config.isVectorEnabled()) {
+            vectors = bundledVectorsFor(chunks);
+            if (vectors == null && knowledgeDir() != null) {
+                // Edited knowledge: embed on the loading thread, counting n-grams only for files not counted before
+                indexed.replaceAll((name, entry) -> entry.withGrams(embedder));
+                corpus = defaults ? new ArrayList<>(corpus.stream().map(entry -> entry.withGrams(embedder)).toList())
+                    : new ArrayList<>(indexed.values());
+                List<HashedNgramEmbedder.GramCounts> grams = new ArrayList<>(chunks.size());
+                for (int[] origin : origins) {
+                    grams.add(corpus.get(origin[0]).getGrams().get(origin[1]));
+                }
+                vectors = VectorIndex.build(embedder, grams, KnowledgeChunker.fingerprint(chunks));
+            }
+        }
+        KnowledgeSnapshot next = new KnowledgeSnapshot(snapshot.getVersion() + 1,
+            Collections.unmodifiableSortedMap(files), lexical, vectors, Collections.unmodifiableMap(indexed));
+        snapshot = next;
+        log.info("Knowledge base version {} indexed: {} file(s) ({} re-chunked), {} chunk(s), {} term(s), vectors {}",
+            next.getVersion(), corpus.size(), reanalysed, chunks.size(), lexical.getTermCount(), vectors != null ? "on" : "off");
+    }
+    
+    /**
+     * The build-time vectors if they were built from exactly these chunks. Edited knowledge in the
+     * external directory is embedded by publish instead; otherwise retrieval is BM25 only.
+     */
+    private VectorIndex bundledVectorsFor(List<KnowledgeChunk> chunks) {
+        if (!bundledVectorsOpened) {
+            bundledVectors = openVectorIndex();
+            bundledVectorsOpened = true;
+        }
+        if (bundledVectors != null && bundledVectors.getFingerprint() == KnowledgeChunker.fingerprint(chunks)) {
+            return bundledVectors;
+        }
+        if (bundledVectors != null && knowledgeDir() == null) {
+            log.warn("Vector index {} was built from different knowledge chunks, retrieval is BM25 only; rebuild to refresh it",
+                config.getVectorIndexLocation());
+        }
+        return null;
     }
     
-    private boolean containsKeyword(String text, String... keywords) {
-        return Arrays.stream(keywords).anyMatch(text::contains);
+    private List<IndexedFile> defaultCorpus() {
+        int minChunkChars = config.getMinChunkChars();
+        return new ArrayList<>(List.of(
+            IndexedFile.of("financial_definitions", getDefaultFinancialDefinitions(), minChunkChars),
+            IndexedFile.of("risk_heuristics", getDefaultRiskHeuristics(), minChunkChars),
+            IndexedFile.of("portfolio_rules", getDefaultPortfolioRules(), minChunkChars),
+            IndexedFile.of("visualization_semantics", getDefaultVisualizationSemantics(), minChunkChars)));
     }
     
-    private String getChartSpecificContext(String chartType) {
+    private Path knowledgeDir() {
+        String dir = config.getKnowledgeDir();
+        return dir == null || dir.isBlank() ? null : Path.of(dir);
+    }
+    
+    private SortedMap<String, String> readClasspath() throws IOException {
+        SortedMap<String, String> files = new TreeMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(config.getKnowledgeLocation())) {
+            files.put(resource.getFilename(), loadFile(resource));
+        }
+        return files;
+    }
+    
+    private SortedMap<String, String> readDirectory(Path dir) throws IOException {
+        SortedMap<String, String> files = new TreeMap<>();
+        try (Stream<Path> entries = Files.list(dir)) {
+            for (Path file : entries.filter(f -> isKnowledgeFile(f.getFileName().toString())).toList()) {
+                files.put(file.getFileName().toString(), Files.readString(file, StandardCharsets.UTF_8));
+            }
+        }
+        return files;
+    }
+    
+    private static boolean isKnowledgeFile(String name) {
+        return name.endsWith(".txt");
+    }
+    
+    private void startWatcher(Path dir) {
+        WatchService watcher;
+        try {
+            watcher = dir.getFileSystem().newWatchService();
+            dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            log.warn("Cannot watch knowledge directory {}, edits need a restart: {}", dir, e.getMessage());
+            return;
+        }
+        watchService = watcher;
+        Thread thread = new Thread(() -> watch(watcher, dir), "knowledge-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching knowledge directory {}", dir);
+    }
+    
+    private void watch(WatchService watcher, Path dir) {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                Set<String> changed = new TreeSet<>();
+                boolean overflow = false;
+                // Editors save in several steps (truncate, write, rename); wait until the directory is quiet
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            overflow = true;
+                        } else if (isKnowledgeFile(event.context().toString())) {
+                            changed.add(event.context().toString());
+                        }
+                    }
+                    if (!key.reset()) {
+                        log.warn("Knowledge directory {} is no longer accessible, stopped watching", dir);
+                        return;
+                    }
+                    key = watcher.poll(config.getReloadDebounceMs(), TimeUnit.MILLISECONDS);
+                } while (key != null);
+                
+                if (overflow || !changed.isEmpty()) {
+                    try {
+                        reload(overflow ? null : changed);
+                    } catch (RuntimeException e) {
+                        log.error("Knowledge reload failed, keeping version {}", snapshot.getVersion(), e);
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            log.debug("Knowledge watcher stopped");
+        }
+    }
+    
+    /**
+     * One-line reading guide for a chart type; empty for unknown types
+     */
+    public String getChartSpecificContext(String chartType) {
         Map<String, String> chartContexts = Map.of(
             "line", "Line charts show trends over time. Look for patterns like upward trends (bullish), downward trends (bearish), or volatility spikes.",
             "doughnut", "Doughnut charts show allocation percentages. Large segments indicate concentration risk. Balanced portfolios show more evenly distributed segments.",
@@ -72,33 +358,34 @@ public class RAGService implements RAGServiceInterface {
         return chartContexts.getOrDefault(chartType.toLowerCase(), "");
     }
     
-    private void loadKnowledgeBase() {
-        try {
-          
-            knowledgeBase.put("financial_definitions", loadFile("financial_definitions.txt"));
-            knowledgeBase.put("risk_heuristics", loadFile("risk_heuristics.txt"));
-            knowledgeBase.put("portfolio_rules", loadFile("portfolio_rules.txt"));
-            knowledgeBase.put("visualization_semantics", loadFile("visualization_semantics.txt"));
-            
-            log.info("Knowledge base loaded successfully");
-        } catch (Exception e) {
-            log.error("Error loading knowledge base", e);
-       
-            knowledgeBase.put("financial_definitions", getDefaultFinancialDefinitions());
-            knowledgeBase.put("risk_heuristics", getDefaultRiskHeuristics());
-            knowledgeBase.put("portfolio_rules", getDefaultPortfolioRules());
-            knowledgeBase.put("visualization_semantics", getDefaultVisualizationSemantics());
-        }
-    }
-    
-    private String loadFile(String filename) {
+    /**
+     * Map the precomputed vectors; a jar entry cannot be mapped and is read onto the heap instead
+     */
+    private VectorIndex openVectorIndex() {
+        Resource resource = new PathMatchingResourcePatternResolver().getResource(config.getVectorIndexLocation());
+        if (!resource.exists()) {
+            log.warn("No vector index at {}, retrieval is BM25 only (built by VectorIndexBuilder in process-classes)",
+                config.getVectorIndexLocation());
+            return null;
+        }
         try {
-            ClassPathResource resource = new ClassPathResource(KNOWLEDGE_BASE_PATH + filename);
-            if (resource.exists()) {
-                return new String(resource.getInputStream().readAllBytes());
+            if (resource.isFile()) {
+                return VectorIndex.open(resource.getFile().toPath());
             }
+            try (InputStream in = resource.getInputStream()) {
+                return VectorIndex.read(in.readAllBytes(), config.getVectorIndexLocation());
+            }
+        } catch (IOException e) {
+            log.warn("Could not open vector index {}: {}", config.getVectorIndexLocation(), e.getMessage());
+            return null;
+        }
+    }
+    
+    private String loadFile(Resource resource) {
+        try {
+            return new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
         } catch (IOException e) {
-            log.warn("Could not load knowledge file: {}", filename);
+            log.warn("Could not load knowledge file: {}", resource.getFilename());
         }
         return "";
     }
@@ -1,5 +1,9 @@
 package com.portfolio.backend.service.rag;
 
+import java.util.List;
+
 public interface RAGServiceInterface {
     String retrieveContext(String query, String currentPage, String chartType);
+    List<KnowledgeChunk> retrieveChunks(String query, String currentPage, String chartType);
+    String getChartSpecificContext(String chartType);
 }
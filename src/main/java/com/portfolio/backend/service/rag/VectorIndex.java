@@ -0,0 +1,190 @@
+package com.portfolio.backend.service.rag;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Flat index of chunk embeddings: memory-mapped when produced at build time by VectorIndexBuilder,
+ * on the heap when built at runtime from edited knowledge
+ *
+ * File layout (little-endian):
+ *   header  40 bytes: magic "RVEC", version, dimensions, min gram, max gram, chunk count,
+ *           chunk fingerprint (long), reserved (long)
+ *   idf     float[dimensions]
+ *   vectors float[count * dimensions], row per chunk, unit length
+ *
+ * A query is sparse (a few hundred non-zero buckets), so scoring reads only those columns of
+ * every row: cost is count x non-zeros, with no decoding at startup beyond the header.
+ */
+public class VectorIndex {
+
+    static final int MAGIC = 0x43455652; // "RVEC"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 40;
+
+    private final HashedNgramEmbedder embedder;
+    private final float[] idf;
+    private final FloatBuffer vectors;
+    private final int count;
+    private final long fingerprint;
+
+    private VectorIndex(HashedNgramEmbedder embedder, float[] idf, FloatBuffer vectors, int count, long fingerprint) {
+        this.embedder = embedder;
+        this.idf = idf;
+        this.vectors = vectors;
+        this.count = count;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Map an index file read-only; the mapping stays valid after the channel is closed
+     */
+    public static VectorIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a vector index: " + file);
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file.toString());
+        }
+    }
+
+    /**
+     * An index held on the heap, e.g. read from a jar entry that cannot be mapped
+     */
+    public static VectorIndex read(byte[] bytes, String name) throws IOException {
+        return read(ByteBuffer.wrap(bytes), name);
+    }
+
+    /**
+     * Embed already counted chunks into an index on the heap: nothing to write, map or clean up
+     * Rows follow the order of grams; the fingerprint identifies the chunks they came from.
+     */
+    public static VectorIndex build(HashedNgramEmbedder embedder, List<HashedNgramEmbedder.GramCounts> grams,
+                                    long fingerprint) {
+        try {
+            return read(encode(embedder, grams, fingerprint), "in-memory index");
+        } catch (IOException e) {
+            throw new IllegalStateException("Encoded vector index does not read back", e); // Only on a bug here
+        }
+    }
+
+    /**
+     * Embed the chunks and write the index file
+     */
+    public static void write(Path file, HashedNgramEmbedder embedder, List<KnowledgeChunk> chunks) throws IOException {
+        List<HashedNgramEmbedder.GramCounts> grams = new ArrayList<>(chunks.size());
+        for (KnowledgeChunk chunk : chunks) {
+            grams.add(embedder.count(chunk.getText()));
+        }
+        ByteBuffer buffer = encode(embedder, grams, KnowledgeChunker.fingerprint(chunks));
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, buffer.array());
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ByteBuffer encode(HashedNgramEmbedder embedder, List<HashedNgramEmbedder.GramCounts> grams,
+                                     long fingerprint) {
+        int dimensions = embedder.getDimensions();
+        float[] idf = embedder.computeIdfOfCounts(grams);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 * dimensions + 4 * grams.size() * dimensions)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(dimensions)
+            .putInt(embedder.getMinGram()).putInt(embedder.getMaxGram()).putInt(grams.size())
+            .putLong(fingerprint).putLong(0L);
+        for (float weight : idf) {
+            buffer.putFloat(weight);
+        }
+        float[] row = new float[dimensions];
+        for (HashedNgramEmbedder.GramCounts counts : grams) {
+            Arrays.fill(row, 0f);
+            HashedNgramEmbedder.SparseVector vector = embedder.embed(counts, idf);
+            for (int i = 0; i < vector.getIndices().length; i++) {
+                row[vector.getIndices()[i]] = vector.getValues()[i];
+            }
+            for (float value : row) {
+                buffer.putFloat(value);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static VectorIndex read(ByteBuffer buffer, String name) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a version " + VERSION + " vector index: " + name);
+        }
+        int dimensions = buffer.getInt(8);
+        int count = buffer.getInt(20);
+        long expected = HEADER_BYTES + 4L * dimensions + 4L * count * dimensions;
+        if (buffer.limit() != expected) {
+            throw new IOException("Vector index " + name + " has " + buffer.limit() + " bytes, expected " + expected);
+        }
+        HashedNgramEmbedder embedder = new HashedNgramEmbedder(dimensions, buffer.getInt(12), buffer.getInt(16));
+        float[] idf = new float[dimensions];
+        buffer.slice(HEADER_BYTES, 4 * dimensions).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(idf);
+        FloatBuffer vectors = buffer.slice(HEADER_BYTES + 4 * dimensions, 4 * count * dimensions)
+            .order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        return new VectorIndex(embedder, idf, vectors, count, buffer.getLong(24));
+    }
+
+    /**
+     * Up to k chunk ids with cosine similarity of at least minSimilarity, best first
+     */
+    public int[] search(String query, int k, float minSimilarity) {
+        HashedNgramEmbedder.SparseVector q = embedder.embed(query, idf);
+        int[] indices = q.getIndices();
+        float[] values = q.getValues();
+        if (indices.length == 0 || k <= 0) {
+            return new int[0];
+        }
+        float[] scores = new float[count];
+        int dimensions = embedder.getDimensions();
+        for (int c = 0; c < count; c++) {
+            int row = c * dimensions;
+            float dot = 0f;
+            for (int i = 0; i < indices.length; i++) {
+                dot += values[i] * vectors.get(row + indices[i]);
+            }
+            scores[c] = dot;
+        }
+
+        PriorityQueue<Integer> best = new PriorityQueue<>(k + 1, (x, y) -> scores[x] != scores[y]
+            ? Float.compare(scores[x], scores[y])
+            : Integer.compare(y, x));
+        for (int c = 0; c < count; c++) {
+            if (scores[c] >= minSimilarity) {
+                best.offer(c);
+                if (best.size() > k) {
+                    best.poll();
+                }
+            }
+        }
+        int[] top = new int[best.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = best.poll();
+        }
+        return top;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+}
@@ -0,0 +1,55 @@
+package com.portfolio.backend.service.rag;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Build-time entry point that embeds the knowledge chunks into the vector index artifact
+ * Run by exec-maven-plugin in process-classes, so the application never embeds the corpus itself:
+ *
+ *   VectorIndexBuilder <knowledge dir> <output file> [minChunkChars] [dimensions] [minGram] [maxGram]
+ */
+public final class VectorIndexBuilder {
+
+    public static final int DEFAULT_DIMENSIONS = 1024;
+    public static final int DEFAULT_MIN_GRAM = 3;
+    public static final int DEFAULT_MAX_GRAM = 5;
+    public static final int DEFAULT_MIN_CHUNK_CHARS = 80;
+
+    private VectorIndexBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException(
+                "Usage: VectorIndexBuilder <knowledge dir> <output file> [minChunkChars] [dimensions] [minGram] [maxGram]");
+        }
+        Path knowledgeDir = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        int minChunkChars = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MIN_CHUNK_CHARS;
+        HashedNgramEmbedder embedder = new HashedNgramEmbedder(
+            args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_DIMENSIONS,
+            args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_MIN_GRAM,
+            args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_MAX_GRAM);
+
+        // Same file order and source names as RAGService, so the chunk fingerprints match
+        Map<String, String> knowledgeBase = new LinkedHashMap<>();
+        try (Stream<Path> files = Files.list(knowledgeDir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".txt")).sorted(
+                    (a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString())).toList()) {
+                knowledgeBase.put(KnowledgeChunker.sourceName(file.getFileName().toString()),
+                    Files.readString(file, StandardCharsets.UTF_8));
+            }
+        }
+        List<KnowledgeChunk> chunks = KnowledgeChunker.chunk(knowledgeBase, minChunkChars);
+        VectorIndex.write(output, embedder, chunks);
+        System.out.printf("Vector index: %d file(s), %d chunk(s), %d dimensions -> %s (%d bytes)%n",
+            knowledgeBase.size(), chunks.size(), embedder.getDimensions(), output, Files.size(output));
+    }
+}
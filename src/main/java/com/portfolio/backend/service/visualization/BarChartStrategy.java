@@ -10,7 +10,7 @@ import org.springframework.stereotype.Component;
 public class BarChartStrategy implements VisualizationExplanationStrategy {
     
     @Override
-    public String explain(VisualizationMetadata metadata, String portfolioContext) {
+    public String explain(VisualizationMetadata metadata) {
         StringBuilder explanation = new StringBuilder();
         
         explanation.append("## Bar Chart Analysis\n\n");
@@ -10,7 +10,7 @@ import org.springframework.stereotype.Component;
 public class DoughnutChartStrategy implements VisualizationExplanationStrategy {
     
     @Override
-    public String explain(VisualizationMetadata metadata, String portfolioContext) {
+    public String explain(VisualizationMetadata metadata) {
         StringBuilder explanation = new StringBuilder();
         
         explanation.append("## Allocation Chart Analysis\n\n");
@@ -33,10 +33,6 @@ public class DoughnutChartStrategy implements VisualizationExplanationStrategy {
         explanation.append("**Recommendation:**\n");
         explanation.append("Monitor allocation weekly. Consider rebalancing if any category exceeds 50% of total portfolio value.\n");
         
-        if (portfolioContext != null && !portfolioContext.isEmpty()) {
-            explanation.append("\n**Portfolio Context:**\n").append(portfolioContext);
-        }
-        
         return explanation.toString();
     }
     
@@ -10,7 +10,7 @@ import org.springframework.stereotype.Component;
 public class LineChartStrategy implements VisualizationExplanationStrategy {
     
     @Override
-    public String explain(VisualizationMetadata metadata, String portfolioContext) {
+    public String explain(VisualizationMetadata metadata) {
         StringBuilder explanation = new StringBuilder();
         
         explanation.append("## Line Chart Analysis\n\n");
@@ -31,10 +31,6 @@ public class LineChartStrategy implements VisualizationExplanationStrategy {
         explanation.append("• **Volatility spikes**: Sharp increases/decreases suggest high-risk periods\n");
         explanation.append("• **Steady growth**: Consistent upward movement indicates stable performance\n\n");
         
-        if (portfolioContext != null && !portfolioContext.isEmpty()) {
-            explanation.append("**Portfolio Context:**\n").append(portfolioContext).append("\n");
-        }
-        
         return explanation.toString();
     }
     
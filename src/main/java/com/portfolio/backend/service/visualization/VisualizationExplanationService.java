@@ -23,7 +23,7 @@ public class VisualizationExplanationService implements VisualizationExplanation
     /**
      * Generate explanation for a visualization
      */
-    public String explainVisualization(VisualizationMetadata metadata, String portfolioContext) {
+    public String explainVisualization(VisualizationMetadata metadata) {
         if (metadata == null || metadata.getChartType() == null) {
             return "## Visualization Context\n\nNo visualization context provided. Please hover over or select a chart to get specific insights.";
         }
@@ -36,7 +36,7 @@ public class VisualizationExplanationService implements VisualizationExplanation
                 .findFirst()
                 .orElse(new DefaultChartStrategy()); // Fallback strategy
         
-        return strategy.explain(metadata, portfolioContext);
+        return strategy.explain(metadata);
     }
     
     /**
@@ -44,7 +44,7 @@ public class VisualizationExplanationService implements VisualizationExplanation
      */
     private static class DefaultChartStrategy implements VisualizationExplanationStrategy {
         @Override
-        public String explain(VisualizationMetadata metadata, String portfolioContext) {
+        public String explain(VisualizationMetadata metadata) {
             return "## Chart Analysis\n\nThis " + metadata.getChartType() + 
                    " chart displays portfolio data. Hover over specific data points for detailed insights.";
         }
@@ -3,6 +3,6 @@ package com.portfolio.backend.service.visualization;
 import com.portfolio.backend.dto.chatbot.VisualizationMetadata;
 
 public interface VisualizationExplanationStrategy {
-    String explain(VisualizationMetadata metadata, String portfolioContext);
+    String explain(VisualizationMetadata metadata);
     boolean supports(String chartType);
 }
@@ -0,0 +1,105 @@
+package com.portfolio.backend.benchmark;
+
+import com.portfolio.backend.dto.chatbot.PortfolioAnalysisResult;
+import com.portfolio.backend.entity.Asset;
+import com.portfolio.backend.entity.ClientHolding;
+import com.portfolio.backend.entity.enums.AssetCategory;
+import com.portfolio.backend.repository.ClientHoldingRepository;
+import com.portfolio.backend.service.analysis.PortfolioAnalysisService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PortfolioAnalysisService over already loaded holdings: scaled-long path vs. the BigDecimal reference
+ * Both produce equal results (see PortfolioAnalysisServiceTest); compare gc.alloc.rate.norm from
+ * -prof gc for the allocation difference.
+ *
+ * analyzePortfolio goes through the service entry point with a repository stub that returns the
+ * holdings as they are, and summary is the markdown the chatbot puts into the prompt.
+ *
+ * Run with: ./mvnw -Pbenchmark verify -DskipTests -Djmh.include=PortfolioAnalysisBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PortfolioAnalysisBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int positions;
+
+    private PortfolioAnalysisService service;
+    private List<ClientHolding> holdings;
+    private Map<String, BigDecimal> prices;
+    private PortfolioAnalysisResult analysis;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        service = new PortfolioAnalysisService(new SimpleMeterRegistry());
+        holdings = new ArrayList<>(positions);
+        prices = new HashMap<>();
+        Random random = new Random(42);
+        AssetCategory[] categories = AssetCategory.values();
+        for (int i = 0; i < positions; i++) {
+            Asset asset = new Asset();
+            asset.setSymbol("SYM" + i);
+            asset.setAssetName("Asset " + i);
+            asset.setCategory(categories[i % categories.length]);
+            ClientHolding holding = new ClientHolding();
+            holding.setAsset(asset);
+            holding.setQuantity(BigDecimal.valueOf(1 + random.nextInt(5_000), random.nextInt(3)));
+            holding.setAvgBuyPrice(BigDecimal.valueOf(1_000 + random.nextInt(500_000), 2));
+            holdings.add(holding);
+            prices.put(asset.getSymbol(), BigDecimal.valueOf(1_000 + random.nextInt(500_000), 2));
+        }
+        Field repository = PortfolioAnalysisService.class.getDeclaredField("holdingRepository");
+        repository.setAccessible(true);
+        repository.set(service, holdingRepository(holdings));
+        analysis = service.analyzeHoldings(1L, holdings, prices);
+    }
+
+    @Benchmark
+    public PortfolioAnalysisResult fixedPoint() {
+        return service.analyzeHoldings(1L, holdings, prices);
+    }
+
+    @Benchmark
+    public PortfolioAnalysisResult bigDecimal() {
+        return service.analyzeHoldingsWithBigDecimal(1L, holdings, prices);
+    }
+
+    @Benchmark
+    public PortfolioAnalysisResult analyzePortfolio() {
+        return service.analyzePortfolio(1L, prices);
+    }
+
+    @Benchmark
+    public String summary() {
+        return service.generatePortfolioSummary(analysis);
+    }
+
+    /**
+     * Answers findByClient_ClientId with the given holdings; nothing else is called by the service
+     */
+    private static ClientHoldingRepository holdingRepository(List<ClientHolding> holdings) {
+        return (ClientHoldingRepository) Proxy.newProxyInstance(ClientHoldingRepository.class.getClassLoader(),
+            new Class<?>[] {ClientHoldingRepository.class}, (proxy, method, args) -> {
+                if (method.getName().equals("findByClient_ClientId")) {
+                    return holdings;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,54 @@
+package com.portfolio.backend.benchmark;
+
+import com.portfolio.backend.config.RagConfig;
+import com.portfolio.backend.service.rag.RAGService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RAGService.retrieveContext over the bundled knowledge base, as ChatbotService calls it per message
+ * With chartType set the chart-specific context is appended as well; the questions rotate so the
+ * result is not a single cached ranking.
+ *
+ * Run with: ./mvnw -Pbenchmark verify -DskipTests -Djmh.include=RAGServiceBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RAGServiceBenchmark {
+
+    private static final String[] QUESTIONS = {
+        "Is my portfolio beta too risky?",
+        "How volatile am I compared to the market?",
+        "What does the doughnut chart of my allocation show?",
+        "Am I too concentrated in one asset class?",
+        "How is unrealized P&L calculated for mutual funds?",
+        "Should commodities be part of a diversified portfolio?"
+    };
+
+    @Param({"", "doughnut"})
+    public String chartType;
+
+    private RAGService service;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        service = new RAGService();
+        Field config = RAGService.class.getDeclaredField("config");
+        config.setAccessible(true);
+        config.set(service, new RagConfig());
+        service.loadKnowledgeBase();
+    }
+
+    @Benchmark
+    public String retrieveContext() {
+        String question = QUESTIONS[next++ % QUESTIONS.length];
+        return service.retrieveContext(question, "dashboard", chartType.isEmpty() ? null : chartType);
+    }
+}
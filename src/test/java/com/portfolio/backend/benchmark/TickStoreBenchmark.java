@@ -0,0 +1,127 @@
+package com.portfolio.backend.benchmark;
+
+import com.portfolio.backend.service.market.store.TickSlice;
+import com.portfolio.backend.service.market.store.TickStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Range read of one asset's ticks: JDBC query on idx_asset_time vs. the memory-mapped TickStore
+ * The JDBC side runs against in-process H2 with the production schema, so it excludes network
+ * round trips and understates what the same query costs against MySQL.
+ *
+ * Run with: ./mvnw -Pbenchmark verify -DskipTests -Djmh.include=TickStoreBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TickStoreBenchmark {
+
+    private static final long ASSET_ID = 1L;
+    private static final int ASSETS = 5;
+    private static final int TICKS_PER_ASSET = 200_000;
+    private static final long START = 1_700_000_000_000L;
+    private static final long STEP_MS = 60_000L;
+
+    @Param({"1000", "50000"})
+    public int rangeTicks;
+
+    private Connection connection;
+    private PreparedStatement rangeQuery;
+    private TickStore store;
+    private Path storeDir;
+    private long from;
+    private long to;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:ticks;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE market_data (" +
+                    "data_id BIGINT AUTO_INCREMENT PRIMARY KEY, asset_id BIGINT NOT NULL, " +
+                    "price DECIMAL(15,2) NOT NULL, volume BIGINT, recorded_at TIMESTAMP)");
+            ddl.execute("CREATE INDEX idx_asset_time ON market_data (asset_id, recorded_at)");
+        }
+
+        storeDir = Files.createTempDirectory("tick-bench");
+        store = new TickStore(storeDir, 65_536);
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO market_data (asset_id, price, volume, recorded_at) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < TICKS_PER_ASSET; i++) {
+                long ts = START + i * STEP_MS;
+                for (long asset = 1; asset <= ASSETS; asset++) {
+                    long paise = 100_000L + (i * 7L + asset * 13L) % 5_000L;
+                    insert.setLong(1, asset);
+                    insert.setBigDecimal(2, BigDecimal.valueOf(paise, 2));
+                    insert.setLong(3, 1_000L + i);
+                    insert.setTimestamp(4, new Timestamp(ts));
+                    insert.addBatch();
+                    store.append(asset, ts, paise, 1_000L + i);
+                }
+                if (i % 1_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        store.flush();
+
+        rangeQuery = connection.prepareStatement(
+                "SELECT recorded_at, price, volume FROM market_data " +
+                "WHERE asset_id = ? AND recorded_at BETWEEN ? AND ? ORDER BY recorded_at");
+        from = START + (TICKS_PER_ASSET / 2) * STEP_MS;
+        to = from + (rangeTicks - 1) * STEP_MS;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        rangeQuery.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public long jdbcRangeQuery(Blackhole blackhole) throws Exception {
+        rangeQuery.setLong(1, ASSET_ID);
+        rangeQuery.setTimestamp(2, new Timestamp(from));
+        rangeQuery.setTimestamp(3, new Timestamp(to));
+        long sum = 0L;
+        try (ResultSet rs = rangeQuery.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getTimestamp(1));
+                sum += rs.getBigDecimal(2).unscaledValue().longValue();
+                blackhole.consume(rs.getLong(3));
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long tickStoreRangeRead(Blackhole blackhole) {
+        long sum = 0L;
+        for (TickSlice slice : store.read(ASSET_ID, from, to)) {
+            for (int i = 0; i < slice.size(); i++) {
+                blackhole.consume(slice.timestamp(i));
+                sum += slice.price(i);
+                blackhole.consume(slice.volume(i));
+            }
+        }
+        return sum;
+    }
+}
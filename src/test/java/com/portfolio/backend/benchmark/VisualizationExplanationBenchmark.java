@@ -0,0 +1,65 @@
+package com.portfolio.backend.benchmark;
+
+import com.portfolio.backend.dto.chatbot.VisualizationMetadata;
+import com.portfolio.backend.service.visualization.BarChartStrategy;
+import com.portfolio.backend.service.visualization.DoughnutChartStrategy;
+import com.portfolio.backend.service.visualization.LineChartStrategy;
+import com.portfolio.backend.service.visualization.VisualizationExplanationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VisualizationExplanationService.explainVisualization for each chart type the dashboard sends,
+ * with hover data and calculated metrics filled in as the frontend does
+ *
+ * Run with: ./mvnw -Pbenchmark verify -DskipTests -Djmh.include=VisualizationExplanationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VisualizationExplanationBenchmark {
+
+    @Param({"doughnut", "bar", "line", "scatter"})
+    public String chartType;
+
+    private VisualizationExplanationService service;
+    private VisualizationMetadata metadata;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new VisualizationExplanationService(
+            List.of(new BarChartStrategy(), new DoughnutChartStrategy(), new LineChartStrategy()));
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("NSE", 52.4);
+        metrics.put("MF", 31.1);
+        metrics.put("COMMODITY", 16.5);
+        Map<String, Object> hover = new LinkedHashMap<>();
+        hover.put("label", "NSE");
+        hover.put("value", 1_254_300.75);
+        hover.put("percentage", 52.4);
+
+        metadata = new VisualizationMetadata();
+        metadata.setChartType(chartType);
+        metadata.setChartId(chartType + "-chart");
+        metadata.setXAxis("Asset Class");
+        metadata.setYAxis("Portfolio Value");
+        metadata.setAssetSymbol("RELIANCE");
+        metadata.setPortfolioId(1L);
+        metadata.setTimeRange("1Y");
+        metadata.setCalculatedMetrics(metrics);
+        metadata.setHoverData(hover);
+    }
+
+    @Benchmark
+    public String explainVisualization() {
+        return service.explainVisualization(metadata);
+    }
+}
@@ -0,0 +1,85 @@
+package com.portfolio.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.entity.Asset;
+import com.portfolio.backend.entity.enums.AssetCategory;
+import com.portfolio.backend.repository.AssetRepository;
+import com.portfolio.backend.service.market.AssetCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class AssetControllerTest {
+
+    private AssetRepository assetRepository;
+    private AssetCatalog assetCatalog;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assetRepository = mock(AssetRepository.class);
+        when(assetRepository.findAll(any(Sort.class))).thenReturn(List.of(
+                new Asset(1L, "RELIANCE", "Reliance Industries", AssetCategory.NSE, "Oil, Gas, and Telecom giant")));
+        assetCatalog = new AssetCatalog();
+
+        var f1 = AssetCatalog.class.getDeclaredField("assetRepository");
+        f1.setAccessible(true);
+        f1.set(assetCatalog, assetRepository);
+
+        var f2 = AssetCatalog.class.getDeclaredField("objectMapper");
+        f2.setAccessible(true);
+        f2.set(assetCatalog, new ObjectMapper());
+        assetCatalog.refresh();
+
+        AssetController controller = new AssetController();
+        var f3 = AssetController.class.getDeclaredField("assetCatalog");
+        f3.setAccessible(true);
+        f3.set(controller, assetCatalog);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void getAllAssets_servesCatalogJsonWithStrongEtag() throws Exception {
+        String etag = assetCatalog.getSnapshot().getEtag();
+
+        mockMvc.perform(get("/api/assets"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", etag))
+            .andExpect(header().string("Cache-Control", "no-cache"))
+            .andExpect(jsonPath("$[0].symbol").value("RELIANCE"))
+            .andExpect(jsonPath("$[0].category").value("NSE"));
+
+        assertFalse(etag.startsWith("W/"));
+        verify(assetRepository, times(1)).findAll(any(Sort.class)); // Only the refresh in setUp
+    }
+
+    @Test
+    void getAllAssets_answers304WhenEtagMatches() throws Exception {
+        mockMvc.perform(get("/api/assets").header("If-None-Match", assetCatalog.getSnapshot().getEtag()))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getAllAssets_sendsNewBodyAfterAssetsChange() throws Exception {
+        String stale = assetCatalog.getSnapshot().getEtag();
+        when(assetRepository.findAll(any(Sort.class))).thenReturn(List.of(
+                new Asset(1L, "RELIANCE", "Reliance Industries Ltd", AssetCategory.NSE, "Oil, Gas, and Telecom giant")));
+        assetCatalog.refresh();
+
+        mockMvc.perform(get("/api/assets").header("If-None-Match", stale))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", assetCatalog.getSnapshot().getEtag()))
+            .andExpect(jsonPath("$[0].assetName").value("Reliance Industries Ltd"));
+    }
+}
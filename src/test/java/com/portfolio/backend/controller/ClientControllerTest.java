@@ -0,0 +1,135 @@
+package com.portfolio.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.entity.Client;
+import com.portfolio.backend.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Keyset pages and the streamed listing against H2
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class ClientControllerTest {
+
+    // Other test classes add clients of manager 1 to the shared database; these managers are this class's own
+    private static final long MANAGER = 7_001L;
+    private static final long OTHER_MANAGER = 7_002L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> managerClientIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clientRepository.deleteAll(clientRepository.findByManagerId(MANAGER));
+        clientRepository.deleteAll(clientRepository.findByManagerId(OTHER_MANAGER));
+        for (int i = 0; i < 5; i++) {
+            managerClientIds.add(client(MANAGER, "Keyset Client " + i).getClientId());
+            client(OTHER_MANAGER, "Other Client " + i);
+        }
+    }
+
+    @Test
+    void getClientPage_walksOneManagersClientsByCursor() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        Long after = 0L;
+        int pages = 0;
+        while (after != null) {
+            JsonNode page = read(mockMvc.perform(get("/api/clients/page")
+                    .param("managerId", Long.toString(MANAGER))
+                    .param("after", Long.toString(after))
+                    .param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn());
+            page.get("clients").forEach(client -> {
+                assertEquals(MANAGER, client.get("managerId").asLong());
+                seen.add(client.get("clientId").asLong());
+            });
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asLong();
+            pages++;
+        }
+
+        assertEquals(managerClientIds, seen);
+        assertEquals(3, pages, "two full pages and a short last one");
+    }
+
+    @Test
+    void getClientPage_withoutManagerListsEveryoneInIdOrder() throws Exception {
+        JsonNode page = read(mockMvc.perform(get("/api/clients/page").param("size", "1000"))
+            .andExpect(status().isOk())
+            .andReturn());
+
+        List<Long> ids = new ArrayList<>();
+        page.get("clients").forEach(client -> ids.add(client.get("clientId").asLong()));
+        assertEquals(clientRepository.count(), ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertTrue(page.get("nextCursor").isNull());
+    }
+
+    @Test
+    void streamClients_writesTheSameRowsAsOneJsonArray() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/clients/stream").param("managerId", Long.toString(MANAGER)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        JsonNode clients = read(mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/json"))
+            .andReturn());
+
+        assertTrue(clients.isArray());
+        List<Long> ids = new ArrayList<>();
+        clients.forEach(client -> ids.add(client.get("clientId").asLong()));
+        assertEquals(managerClientIds, ids);
+        assertEquals("Keyset Client 0", clients.get(0).get("fullName").asText());
+    }
+
+    @Test
+    @Transactional
+    void addClient_withAnExistingIdKeepsItsHoldingsVersion() throws Exception {
+        Long clientId = managerClientIds.get(0);
+        clientRepository.incrementHoldingsVersion(clientId);
+
+        mockMvc.perform(post("/api/clients")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"clientId\":" + clientId + ",\"managerId\":" + MANAGER + ",\"fullName\":\"Renamed\"}"))
+            .andExpect(status().isOk());
+
+        assertEquals(1L, clientRepository.findHoldingsVersion(clientId));
+    }
+
+    private Client client(long managerId, String name) {
+        Client client = new Client();
+        client.setManagerId(managerId);
+        client.setFullName(name);
+        return clientRepository.save(client);
+    }
+
+    private JsonNode read(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
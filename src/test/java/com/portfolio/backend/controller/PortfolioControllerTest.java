@@ -0,0 +1,109 @@
+package com.portfolio.backend.controller;
+
+import com.portfolio.backend.entity.Asset;
+import com.portfolio.backend.entity.Client;
+import com.portfolio.backend.entity.ClientHolding;
+import com.portfolio.backend.entity.enums.AssetCategory;
+import com.portfolio.backend.repository.AssetRepository;
+import com.portfolio.backend.repository.ClientHoldingRepository;
+import com.portfolio.backend.repository.ClientRepository;
+import com.portfolio.backend.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Holdings reads against H2, counting the SQL statements each one costs
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.portfolio.backend.support.StatementCounter",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class PortfolioControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private ClientHoldingRepository holdingRepository;
+
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        client = new Client();
+        client.setFullName("Asha Rao");
+        client = clientRepository.save(client);
+        Asset reliance = asset("READ-RELIANCE", "Reliance Industries", AssetCategory.NSE);
+        Asset gold = asset("READ-GOLD", "Gold 24k", AssetCategory.COMMODITY);
+        holding(reliance, "10", "2450.50");
+        holding(gold, "2", "6100.00");
+        holding(reliance, "5", "2600.00");
+    }
+
+    @Test
+    void getHoldings_returnsFlatRowsFromOneStatement() throws Exception {
+        StatementCounter.reset();
+
+        mockMvc.perform(get("/api/portfolio/{clientId}", client.getClientId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$[0].symbol").value("READ-RELIANCE"))
+            .andExpect(jsonPath("$[0].assetName").value("Reliance Industries"))
+            .andExpect(jsonPath("$[0].category").value("NSE"))
+            .andExpect(jsonPath("$[0].quantity").value(10.0))
+            .andExpect(jsonPath("$[0].avgBuyPrice").value(2450.5))
+            .andExpect(jsonPath("$[0].buyDate").value("2025-01-15"))
+            .andExpect(jsonPath("$[1].symbol").value("READ-GOLD"))
+            .andExpect(jsonPath("$[0].client").doesNotExist())
+            .andExpect(jsonPath("$[0].asset").doesNotExist());
+
+        assertEquals(1, StatementCounter.count());
+    }
+
+    @Test
+    void findByClientId_loadsHoldingsAndAssetsInOneStatement() {
+        StatementCounter.reset();
+
+        List<ClientHolding> holdings = holdingRepository.findByClient_ClientId(client.getClientId());
+        List<String> symbols = holdings.stream().map(holding -> holding.getAsset().getSymbol()).toList();
+
+        assertEquals(List.of("READ-RELIANCE", "READ-GOLD", "READ-RELIANCE"), symbols);
+        assertEquals(1, StatementCounter.count(), "assets come from the entity graph, not one select per holding");
+    }
+
+    private Asset asset(String symbol, String name, AssetCategory category) {
+        return assetRepository.findAll().stream()
+            .filter(asset -> asset.getSymbol().equals(symbol))
+            .findFirst()
+            .orElseGet(() -> assetRepository.save(new Asset(null, symbol, name, category, null)));
+    }
+
+    private void holding(Asset asset, String quantity, String avgBuyPrice) {
+        ClientHolding holding = new ClientHolding();
+        holding.setClient(client);
+        holding.setAsset(asset);
+        holding.setQuantity(new BigDecimal(quantity));
+        holding.setAvgBuyPrice(new BigDecimal(avgBuyPrice));
+        holding.setBuyDate(LocalDate.of(2025, 1, 15));
+        holdingRepository.save(holding);
+    }
+}
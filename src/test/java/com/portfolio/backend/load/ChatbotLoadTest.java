@@ -0,0 +1,212 @@
+package com.portfolio.backend.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.support.GeminiStubServer;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives POST /api/chatbot/chat at fixed concurrency against GeminiStubServer and reports latency
+ * percentiles, throughput and the peak number of platform threads; not part of the normal build
+ *
+ * Run with: ./mvnw -Pload test [-Dload.concurrency=32 -Dload.requests=2000 -Dload.latencyMedianMs=800
+ *           -Dload.latencyP99Ms=3000 -Dload.rateLimitRate=0.02 -Dload.serverErrorRate=0.01 -Dload.truncatedRate=0.01]
+ *
+ * Every question is distinct and the response cache is off, so each chat reaches the stub; use it to
+ * compare concurrency changes to the chat path with the same settings before and after.
+ * VirtualThreadChatbotLoadTest runs the same load with spring.threads.virtual.enabled, and also lists
+ * where virtual threads were pinned to their carrier for 20 ms or more (JFR jdk.VirtualThreadPinned).
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+@DirtiesContext // Stop this server before the other thread mode starts its own
+class ChatbotLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 2_000);
+    private static final int WARMUP = Math.min(REQUESTS / 10, 200);
+
+    private static final GeminiStubServer gemini = startStub();
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void geminiStub(DynamicPropertyRegistry registry) {
+        registry.add("gemini.base-url", gemini::baseUrl);
+        registry.add("gemini.stream-url", gemini::streamUrl);
+        registry.add("gemini.api-keys", () -> "load-key-1,load-key-2,load-key-3,load-key-4");
+        registry.add("gemini.key-requests-per-minute", () -> 1_000_000);
+        registry.add("gemini.key-tokens-per-minute", () -> 1_000_000_000);
+        registry.add("gemini.retry-backoff-millis", () -> 100);
+        registry.add("gemini.max-concurrent-calls", () -> Math.max(CONCURRENCY, 16));
+        registry.add("gemini.response-cache-enabled", () -> false);
+    }
+
+    @Test
+    void chatThroughput() throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        run(client, WARMUP, new long[WARMUP], new TreeMap<>());
+
+        long[] latencies = new long[REQUESTS];
+        Map<String, Integer> outcomes = new TreeMap<>();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long[] stubBefore = stubCounters();
+        Map<String, Integer> pinned = new TreeMap<>();
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        try (RecordingStream pinning = recordPinning(pinned)) {
+            run(client, REQUESTS, latencies, outcomes);
+            pinning.stop(); // Waits until the recorded events have been consumed
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] stub = stubCounters();
+        for (int i = 0; i < stub.length; i++) {
+            stub[i] -= stubBefore[i];
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("%nChat load: %d requests at concurrency %d on %s threads against Gemini stub (%s)%n",
+            REQUESTS, CONCURRENCY, virtualThreads ? "virtual" : "platform", gemini.describe());
+        System.out.printf("  throughput  %.1f chats/s%n", REQUESTS / seconds);
+        System.out.printf("  latency     p50 %d ms  p90 %d ms  p99 %d ms  max %d ms%n",
+            percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99), latencies[REQUESTS - 1]);
+        System.out.printf("  threads     peak %d platform threads in the JVM (server, stub and client)%n", threads.getPeakThreadCount());
+        System.out.printf("  outcomes    %s%n", outcomes);
+        System.out.printf("  stub        %d calls, %d x 429, %d x 503, %d truncated%n", stub[0], stub[1], stub[2], stub[3]);
+        if (virtualThreads) {
+            System.out.printf("  pinned      %s%n", pinned.isEmpty() ? "none for 20 ms or more" : pinned);
+        }
+        System.out.println();
+
+        assertEquals(REQUESTS, outcomes.entrySet().stream()
+            .filter(e -> e.getKey().startsWith("200 ")).mapToInt(Map.Entry::getValue).sum(), "every chat answered: " + outcomes);
+    }
+
+    /**
+     * count chats from CONCURRENCY workers, each sending its next one as soon as the last returns
+     * Workers are virtual threads, so the client side adds no platform threads at any concurrency.
+     */
+    private void run(HttpClient client, int count, long[] latencies, Map<String, Integer> outcomes) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?>[] futures = new Future<?>[CONCURRENCY];
+            for (int w = 0; w < CONCURRENCY; w++) {
+                futures[w] = workers.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                        long sent = System.nanoTime();
+                        String outcome = chat(client, "What drives the risk of position " + i + " in my portfolio?");
+                        latencies[i] = (System.nanoTime() - sent) / 1_000_000;
+                        counts.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        counts.forEach((outcome, n) -> outcomes.put(outcome, n.intValue()));
+    }
+
+    /**
+     * "200 ANALYTICAL" for a Gemini answer, "200 INFORMATIONAL" for the fallback, else the status code
+     */
+    private String chat(HttpClient client, String question) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/chatbot/chat"))
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofMinutes(2))
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of("message", question))))
+            .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return Integer.toString(response.statusCode());
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        return "200 " + body.path("type").asText();
+    }
+
+    /**
+     * Counts pinning events by the innermost application frame (else the top frame) while the stream is open
+     */
+    private static RecordingStream recordPinning(Map<String, Integer> pinned) {
+        RecordingStream stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20)).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", event -> {
+            List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+            String site = frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith("com.portfolio."))
+                .findFirst()
+                .or(() -> frames.stream().findFirst())
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .orElse("unknown");
+            synchronized (pinned) {
+                pinned.merge(site, 1, Integer::sum);
+            }
+        });
+        stream.startAsync();
+        return stream;
+    }
+
+    private static long[] stubCounters() {
+        return new long[] {gemini.getRequests(), gemini.getRateLimited(), gemini.getServerErrors(), gemini.getTruncated()};
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1)];
+    }
+
+    private static GeminiStubServer startStub() {
+        try {
+            // Shared by both thread modes and closed with the JVM, as each test class runs against it
+            GeminiStubServer stub = new GeminiStubServer();
+            Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+            return stub
+                .latency(GeminiStubServer.Latency.logNormal(Long.getLong("load.latencyMedianMs", 800),
+                    Long.getLong("load.latencyP99Ms", 3_000)))
+                .rateLimitRate(Double.parseDouble(System.getProperty("load.rateLimitRate", "0.02")), 1)
+                .serverErrorRate(Double.parseDouble(System.getProperty("load.serverErrorRate", "0.01")))
+                .truncatedRate(Double.parseDouble(System.getProperty("load.truncatedRate", "0.01")));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the Gemini stub", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.portfolio.backend.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * ChatbotLoadTest with Tomcat, the scheduler and the chat pipeline on virtual threads; compare its
+ * report with the platform-thread one from the same run
+ *
+ * Run with: ./mvnw -Pload test -Dload.concurrency=2000 -Dload.requests=20000
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadChatbotLoadTest extends ChatbotLoadTest {
+}
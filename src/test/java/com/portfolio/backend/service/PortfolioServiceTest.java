@@ -5,12 +5,14 @@ import com.portfolio.backend.entity.Asset;
 import com.portfolio.backend.entity.Client;
 import com.portfolio.backend.entity.ClientHolding;
 import com.portfolio.backend.entity.enums.AssetCategory;
-import com.portfolio.backend.repository.AssetRepository;
+import com.portfolio.backend.event.HoldingsChangedEvent;
 import com.portfolio.backend.repository.ClientHoldingRepository;
 import com.portfolio.backend.repository.ClientRepository;
+import com.portfolio.backend.service.market.AssetCatalog;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -22,14 +24,16 @@ class PortfolioServiceTest {
 
     private ClientHoldingRepository holdingRepository;
     private ClientRepository clientRepository;
-    private AssetRepository assetRepository;
+    private AssetCatalog assetCatalog;
+    private ApplicationEventPublisher eventPublisher;
     private PortfolioService portfolioService;
 
     @BeforeEach
     void setUp() {
         holdingRepository = mock(ClientHoldingRepository.class);
         clientRepository = mock(ClientRepository.class);
-        assetRepository = mock(AssetRepository.class);
+        assetCatalog = mock(AssetCatalog.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
 
         portfolioService = new PortfolioService();
         portfolioService.getClass();
@@ -44,9 +48,13 @@ class PortfolioServiceTest {
             f2.setAccessible(true);
             f2.set(portfolioService, clientRepository);
 
-            var f3 = PortfolioService.class.getDeclaredField("assetRepository");
+            var f3 = PortfolioService.class.getDeclaredField("assetCatalog");
             f3.setAccessible(true);
-            f3.set(portfolioService, assetRepository);
+            f3.set(portfolioService, assetCatalog);
+
+            var f4 = PortfolioService.class.getDeclaredField("eventPublisher");
+            f4.setAccessible(true);
+            f4.set(portfolioService, eventPublisher);
         } catch (Exception e) {
             throw new IllegalStateException(e);
         }
@@ -68,9 +76,10 @@ class PortfolioServiceTest {
         request.setPrice(new BigDecimal("100.00"));
 
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(assetRepository.findById(10L)).thenReturn(Optional.of(asset));
+        when(assetCatalog.findById(10L)).thenReturn(Optional.of(asset));
         when(holdingRepository.countByClientAndCategory(1L, AssetCategory.NSE)).thenReturn(0L);
         when(holdingRepository.save(any(ClientHolding.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(clientRepository.findHoldingsVersion(1L)).thenReturn(4L);
 
         ClientHolding holding = portfolioService.buyAsset(request);
 
@@ -79,6 +88,32 @@ class PortfolioServiceTest {
         assertEquals(asset, holding.getAsset());
         assertEquals(new BigDecimal("5"), holding.getQuantity());
         assertEquals(new BigDecimal("100.00"), holding.getAvgBuyPrice());
+
+        verify(clientRepository).incrementHoldingsVersion(1L);
+        ArgumentCaptor<HoldingsChangedEvent> event = ArgumentCaptor.forClass(HoldingsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().getClientId());
+        assertEquals(4L, event.getValue().getHoldingsVersion());
+    }
+
+    @Test
+    void sellAsset_deletesHoldingAndBumpsVersion() {
+        Client client = new Client();
+        client.setClientId(1L);
+        ClientHolding holding = new ClientHolding();
+        holding.setHoldingId(7L);
+        holding.setClient(client);
+
+        when(holdingRepository.findById(7L)).thenReturn(Optional.of(holding));
+        when(clientRepository.findHoldingsVersion(1L)).thenReturn(5L);
+
+        portfolioService.sellAsset(7L);
+
+        verify(holdingRepository).delete(holding);
+        verify(clientRepository).incrementHoldingsVersion(1L);
+        ArgumentCaptor<HoldingsChangedEvent> event = ArgumentCaptor.forClass(HoldingsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(5L, event.getValue().getHoldingsVersion());
     }
 
     @Test
@@ -108,7 +143,7 @@ class PortfolioServiceTest {
         request.setPrice(new BigDecimal("50.00"));
 
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(assetRepository.findById(10L)).thenReturn(Optional.of(asset));
+        when(assetCatalog.findById(10L)).thenReturn(Optional.of(asset));
         when(holdingRepository.countByClientAndCategory(1L, AssetCategory.COMMODITY)).thenReturn(3L);
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> portfolioService.buyAsset(request));
@@ -0,0 +1,94 @@
+package com.portfolio.backend.service.analysis;
+
+import com.portfolio.backend.dto.manager.ClientBookEntry;
+import com.portfolio.backend.dto.manager.ManagerBookResponse;
+import com.portfolio.backend.repository.ClientHoldingRepository;
+import com.portfolio.backend.repository.projection.ClientCategoryAggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ManagerBookServiceTest {
+
+    private ClientHoldingRepository holdingRepository;
+    private ManagerBookService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        holdingRepository = mock(ClientHoldingRepository.class);
+        service = new ManagerBookService();
+        Field field = ManagerBookService.class.getDeclaredField("holdingRepository");
+        field.setAccessible(true);
+        field.set(service, holdingRepository);
+    }
+
+    @Test
+    void getBook_aggregatesClientsAndBookTotals() {
+        when(holdingRepository.aggregateBookByManagerId(1L)).thenReturn(List.of(
+                row(2L, "Ravi", "COMMODITY", 1, "300.00", "200.00"),
+                row(1L, "Asha", "NSE", 2, "1000.00", "1100.00"),
+                row(1L, "Asha", "COMMODITY", 1, "240.00", "200.00"),
+                row(3L, "Meera", null, 0, null, null)));
+
+        ManagerBookResponse book = service.getBook(1L);
+
+        assertEquals(3, book.getClientCount());
+        assertEquals(List.of(1L, 2L, 3L), book.getClients().stream().map(ClientBookEntry::getClientId).toList());
+
+        ClientBookEntry asha = book.getClients().get(0);
+        assertEquals(0, new BigDecimal("1300.00").compareTo(asha.getTotalValue()));
+        assertEquals(0, new BigDecimal("60.00").compareTo(asha.getUnrealizedPnL()));
+        assertEquals(3, asha.getHoldingsCount());
+        // (1100 * 1.0 + 200 * 1.5) / 1300 = 1.0769...
+        assertEquals(1.0769, asha.getPortfolioBeta());
+
+        ClientBookEntry meera = book.getClients().get(2);
+        assertEquals(0, BigDecimal.ZERO.compareTo(meera.getTotalValue()));
+        assertEquals(1.0, meera.getPortfolioBeta());
+
+        assertEquals(0, new BigDecimal("1500.00").compareTo(book.getTotalValue()));
+        assertEquals(0, new BigDecimal("1540.00").compareTo(book.getTotalInvested()));
+        assertEquals(0, new BigDecimal("400.00").compareTo(book.getCategoryExposure().get("COMMODITY")));
+        assertEquals(0, new BigDecimal("26.67").compareTo(book.getCategoryPercentage().get("COMMODITY")));
+        assertEquals(1.1333, book.getPortfolioBeta());
+    }
+
+    @Test
+    void getBook_largeBookMatchesSequentialTotals() {
+        List<ClientCategoryAggregate> rows = new ArrayList<>();
+        BigDecimal expected = BigDecimal.ZERO;
+        for (long clientId = 1; clientId <= 3_000; clientId++) {
+            BigDecimal value = BigDecimal.valueOf(clientId * 10, 2);
+            rows.add(row(clientId, "Client " + clientId, "MF", 1, "1.00", value.toPlainString()));
+            expected = expected.add(value);
+        }
+        when(holdingRepository.aggregateBookByManagerId(7L)).thenReturn(rows);
+
+        ManagerBookResponse book = service.getBook(7L);
+
+        assertEquals(3_000, book.getClientCount());
+        assertEquals(0, expected.compareTo(book.getTotalValue()));
+        assertEquals(0.7, book.getPortfolioBeta());
+        assertEquals(3_000L, book.getClients().get(2_999).getClientId());
+        verify(holdingRepository, times(1)).aggregateBookByManagerId(7L);
+    }
+
+    private static ClientCategoryAggregate row(Long clientId, String fullName, String category, long count,
+                                               String invested, String marketValue) {
+        return new ClientCategoryAggregate() {
+            public Long getClientId() { return clientId; }
+            public String getFullName() { return fullName; }
+            public String getCategory() { return category; }
+            public Long getHoldingsCount() { return count; }
+            public BigDecimal getInvested() { return invested == null ? null : new BigDecimal(invested); }
+            public BigDecimal getMarketValue() { return marketValue == null ? null : new BigDecimal(marketValue); }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.portfolio.backend.service.analysis;
+
+import com.portfolio.backend.config.PortfolioAnalysisConfig;
+import com.portfolio.backend.dto.CacheStats;
+import com.portfolio.backend.dto.chatbot.PortfolioAnalysisResult;
+import com.portfolio.backend.event.HoldingsChangedEvent;
+import com.portfolio.backend.repository.ClientRepository;
+import com.portfolio.backend.service.market.PriceServiceInterface;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PortfolioAnalysisCacheTest {
+
+    private PortfolioAnalysisServiceInterface analysisService;
+    private ClientRepository clientRepository;
+    private final AtomicLong priceEpoch = new AtomicLong();
+    private PortfolioAnalysisCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        analysisService = mock(PortfolioAnalysisServiceInterface.class);
+        clientRepository = mock(ClientRepository.class);
+        PriceServiceInterface priceService = mock(PriceServiceInterface.class);
+        when(priceService.getCurrentPrices()).thenReturn(Map.of());
+        when(priceService.getPriceEpoch()).thenAnswer(inv -> priceEpoch.get());
+        when(analysisService.analyzePortfolio(anyLong(), anyMap())).thenAnswer(inv -> new PortfolioAnalysisResult());
+        when(analysisService.generatePortfolioSummary(any())).thenReturn("## Portfolio Summary\n");
+        when(clientRepository.findHoldingsVersion(anyLong())).thenReturn(3L);
+
+        PortfolioAnalysisConfig config = new PortfolioAnalysisConfig();
+        config.setCacheMaxEntries(2);
+
+        cache = new PortfolioAnalysisCache();
+        set("portfolioAnalysisService", analysisService);
+        set("priceService", priceService);
+        set("clientRepository", clientRepository);
+        set("config", config);
+    }
+
+    @Test
+    void repeatedLookups_hitWithoutTouchingTheDatabase() {
+        AnalysisSnapshot first = cache.get(1L);
+        AnalysisSnapshot second = cache.get(1L);
+        cache.get(1L);
+
+        assertSame(first, second);
+        assertEquals(3L, first.getHoldingsVersion());
+        verify(clientRepository, times(1)).findHoldingsVersion(1L);
+        verify(analysisService, times(1)).analyzePortfolio(eq(1L), anyMap());
+        CacheStats stats = cache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void holdingsChange_missesOnNewVersion() {
+        AnalysisSnapshot before = cache.get(1L);
+
+        cache.onHoldingsChanged(new HoldingsChangedEvent(1L, 4L));
+        AnalysisSnapshot after = cache.get(1L);
+
+        assertNotSame(before, after);
+        assertEquals(4L, after.getHoldingsVersion());
+        verify(clientRepository, times(1)).findHoldingsVersion(1L); // Version came from the event
+    }
+
+    @Test
+    void staleEvent_doesNotRollVersionBack() {
+        cache.onHoldingsChanged(new HoldingsChangedEvent(1L, 6L));
+        cache.onHoldingsChanged(new HoldingsChangedEvent(1L, 5L));
+
+        assertEquals(6L, cache.get(1L).getHoldingsVersion());
+        verify(clientRepository, never()).findHoldingsVersion(any());
+    }
+
+    @Test
+    void priceChange_missesOnNewEpoch() {
+        AnalysisSnapshot before = cache.get(1L);
+
+        priceEpoch.incrementAndGet();
+
+        assertNotSame(before, cache.get(1L));
+        verify(analysisService, times(2)).analyzePortfolio(eq(1L), anyMap());
+    }
+
+    @Test
+    void leastRecentlyUsed_isEvictedBeyondCapacity() {
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(1L); // 2 is now the eldest
+        cache.get(3L);
+
+        CacheStats stats = cache.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+
+        cache.get(1L);
+        assertEquals(2, cache.getStats().getHits()); // 1 survived
+        cache.get(2L);
+        assertEquals(4, cache.getStats().getMisses()); // 2 did not
+    }
+
+    private void set(String name, Object value) throws Exception {
+        var field = PortfolioAnalysisCache.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(cache, value);
+    }
+}
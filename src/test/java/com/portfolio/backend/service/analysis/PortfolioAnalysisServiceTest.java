@@ -0,0 +1,140 @@
+package com.portfolio.backend.service.analysis;
+
+import com.portfolio.backend.dto.chatbot.PortfolioAnalysisResult;
+import com.portfolio.backend.entity.Asset;
+import com.portfolio.backend.entity.ClientHolding;
+import com.portfolio.backend.entity.enums.AssetCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The fixed-point path must be indistinguishable from the BigDecimal one: same values, same
+ * scales (BigDecimal.equals), same doubles. Cases are drawn from a fixed seed so failures replay.
+ */
+class PortfolioAnalysisServiceTest {
+
+    private static final long SEED = 20240607L;
+    private static final int CASES = 2_000;
+
+    private PortfolioAnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PortfolioAnalysisService(new SimpleMeterRegistry());
+    }
+
+    @Test
+    void fixedPointPath_matchesBigDecimalPath_forRandomPortfolios() {
+        Random random = new Random(SEED);
+        for (int n = 0; n < CASES; n++) {
+            List<ClientHolding> holdings = new ArrayList<>();
+            Map<String, BigDecimal> prices = new HashMap<>();
+            int size = 1 + random.nextInt(12);
+            for (int i = 0; i < size; i++) {
+                String symbol = "S" + i;
+                holdings.add(holding(symbol, AssetCategory.values()[random.nextInt(AssetCategory.values().length)],
+                        randomAmount(random, 100_000), randomAmount(random, 1_000_000)));
+                if (random.nextInt(5) > 0) { // Some symbols fall back to the buy price
+                    prices.put(symbol, randomAmount(random, 1_000_000));
+                }
+            }
+
+            PortfolioAnalysisResult scratch = new PortfolioAnalysisResult();
+            assertNotNull(FixedPointPortfolioCalculator.calculate(holdings, prices, scratch), "case " + n + " not eligible");
+            assertEquals(service.analyzeHoldingsWithBigDecimal(7L, holdings, prices),
+                    service.analyzeHoldings(7L, holdings, prices), "case " + n);
+        }
+    }
+
+    @Test
+    void fixedPointPath_roundsHalfUpOnTies() {
+        // 0.01 / 200.00 = 0.00005: a tie at four places in both directions, where HALF_EVEN would differ
+        List<ClientHolding> holdings = List.of(
+                holding("A", AssetCategory.NSE, new BigDecimal("1"), new BigDecimal("200.00")),
+                holding("B", AssetCategory.MF, new BigDecimal("1"), new BigDecimal("200.00")),
+                holding("C", AssetCategory.COMMODITY, new BigDecimal("1.5"), new BigDecimal("2.00")));
+        Map<String, BigDecimal> prices = Map.of(
+                "A", new BigDecimal("200.01"),
+                "B", new BigDecimal("199.99"),
+                "C", new BigDecimal("1.99"));
+
+        assertNotNull(FixedPointPortfolioCalculator.calculate(holdings, prices, new PortfolioAnalysisResult()));
+        PortfolioAnalysisResult result = service.analyzeHoldings(1L, holdings, prices);
+        assertEquals(service.analyzeHoldingsWithBigDecimal(1L, holdings, prices), result);
+        assertEquals(0.01, result.getTopPerformers().get(0).getPnlPercentage());
+        assertEquals(-0.01, result.getTopPerformers().get(1).getPnlPercentage());
+    }
+
+    @Test
+    void halfUpDivision_matchesBigDecimalForBothSigns() {
+        Random random = new Random(SEED);
+        for (int n = 0; n < 100_000; n++) {
+            long numerator = random.nextLong() >> random.nextInt(63);
+            long denominator = (random.nextLong() >> random.nextInt(63)) | 1L;
+            long expected = BigDecimal.valueOf(numerator)
+                    .divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_UP).longValueExact();
+            assertEquals(expected, FixedPointPortfolioCalculator.divideHalfUp(numerator, denominator),
+                    numerator + " / " + denominator);
+        }
+        for (int n = 0; n < 100_000; n++) {
+            long numerator = random.nextLong() >> random.nextInt(63);
+            long denominator = (random.nextLong() >> random.nextInt(63)) | 1L;
+            BigDecimal expected = BigDecimal.valueOf(numerator)
+                    .divide(BigDecimal.valueOf(denominator), 4, RoundingMode.HALF_UP);
+            if (expected.unscaledValue().bitLength() < 63) {
+                assertEquals(expected.unscaledValue().longValue(),
+                        FixedPointPortfolioCalculator.ratioHalfUp(numerator, denominator, 4), numerator + " / " + denominator);
+            }
+        }
+        assertEquals(3, FixedPointPortfolioCalculator.divideHalfUp(5, 2));
+        assertEquals(-3, FixedPointPortfolioCalculator.divideHalfUp(-5, 2));
+        assertEquals(-2, FixedPointPortfolioCalculator.divideHalfUp(-7, 4));
+    }
+
+    @Test
+    void ineligibleInputs_fallBackToBigDecimal() {
+        List<ClientHolding> threeDecimals = List.of(
+                holding("A", AssetCategory.NSE, new BigDecimal("0.125"), new BigDecimal("100.00")));
+        List<ClientHolding> overflowing = List.of(
+                holding("A", AssetCategory.NSE, new BigDecimal("99999999999999.99"), new BigDecimal("99999999999999.99")));
+
+        for (List<ClientHolding> holdings : List.of(threeDecimals, overflowing)) {
+            assertNull(FixedPointPortfolioCalculator.calculate(holdings, Map.of(), new PortfolioAnalysisResult()));
+            assertEquals(service.analyzeHoldingsWithBigDecimal(1L, holdings, Map.of()),
+                    service.analyzeHoldings(1L, holdings, Map.of()));
+        }
+    }
+
+    /**
+     * Amounts with 0-2 decimals, including zero and values that are whole at a coarser scale
+     */
+    private static BigDecimal randomAmount(Random random, int maxUnits) {
+        int scale = random.nextInt(3);
+        long unscaled = random.nextInt(10) == 0 ? 0 : random.nextInt(maxUnits) * (long) Math.pow(10, scale)
+                + random.nextInt((int) Math.pow(10, scale));
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    private static ClientHolding holding(String symbol, AssetCategory category, BigDecimal quantity, BigDecimal avgBuyPrice) {
+        Asset asset = new Asset();
+        asset.setSymbol(symbol);
+        asset.setAssetName(symbol + " Ltd");
+        asset.setCategory(category);
+        ClientHolding holding = new ClientHolding();
+        holding.setAsset(asset);
+        holding.setQuantity(quantity);
+        holding.setAvgBuyPrice(avgBuyPrice);
+        return holding;
+    }
+}
@@ -0,0 +1,116 @@
+package com.portfolio.backend.service.analysis;
+
+import com.portfolio.backend.dto.PortfolioValuation;
+import com.portfolio.backend.dto.market.PriceTick;
+import com.portfolio.backend.entity.Asset;
+import com.portfolio.backend.entity.Client;
+import com.portfolio.backend.entity.ClientHolding;
+import com.portfolio.backend.entity.enums.AssetCategory;
+import com.portfolio.backend.repository.ClientHoldingRepository;
+import com.portfolio.backend.service.market.PriceServiceInterface;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PortfolioValuationEngineTest {
+
+    private ClientHoldingRepository holdingRepository;
+    private final Map<String, BigDecimal> prices = new ConcurrentHashMap<>();
+    private PortfolioAnalysisService analysisService;
+    private PortfolioValuationEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        holdingRepository = mock(ClientHoldingRepository.class);
+        PriceServiceInterface priceService = mock(PriceServiceInterface.class);
+        when(priceService.getCurrentPrices()).thenReturn(prices);
+        when(priceService.getCurrentPrice(anyString())).thenAnswer(inv -> prices.get(inv.<String>getArgument(0)));
+
+        analysisService = new PortfolioAnalysisService(new SimpleMeterRegistry());
+        set(analysisService, "holdingRepository", holdingRepository);
+
+        engine = new PortfolioValuationEngine();
+        set(engine, "holdingRepository", holdingRepository);
+        set(engine, "priceService", priceService);
+        set(engine, "portfolioAnalysisService", analysisService);
+
+        prices.put("TCS", new BigDecimal("110.00"));
+        prices.put("GOLD", new BigDecimal("50.00"));
+        when(holdingRepository.findByClient_ClientId(1L)).thenReturn(List.of(
+                holding(1L, "TCS", AssetCategory.NSE, "10", "100.00"),
+                holding(1L, "GOLD", AssetCategory.COMMODITY, "4", "60.00")));
+        when(holdingRepository.findByClient_ClientId(2L)).thenReturn(List.of(
+                holding(2L, "GOLD", AssetCategory.COMMODITY, "1", "40.00")));
+    }
+
+    @Test
+    void getValuation_buildsAggregatesFromHoldings() {
+        PortfolioValuation valuation = engine.getValuation(1L);
+
+        assertEquals(0, new BigDecimal("1300.00").compareTo(valuation.getTotalValue()));
+        assertEquals(0, new BigDecimal("1240.00").compareTo(valuation.getTotalInvested()));
+        assertEquals(0, new BigDecimal("200.00").compareTo(valuation.getCategoryExposure().get("COMMODITY")));
+        assertEquals(2, valuation.getHoldingsCount());
+    }
+
+    @Test
+    void priceTick_updatesOnlyClientsHoldingTheSymbol() {
+        engine.getValuation(1L);
+        engine.getValuation(2L);
+
+        prices.put("TCS", new BigDecimal("120.00"));
+        engine.onPriceTick(new PriceTick(1L, 1L, "TCS", new BigDecimal("120.00"), 1L, LocalDateTime.now()));
+
+        assertEquals(0, new BigDecimal("1400.00").compareTo(engine.getValuation(1L).getTotalValue()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(engine.getValuation(2L).getTotalValue()));
+        verify(holdingRepository, times(1)).findByClient_ClientId(1L); // Served from memory after the first load
+    }
+
+    @Test
+    void reconcile_matchesFullRecomputeAfterTicks() {
+        engine.getValuation(1L);
+        prices.put("GOLD", new BigDecimal("47.35"));
+        engine.onPriceTick(new PriceTick(2L, 2L, "GOLD", new BigDecimal("47.35"), 1L, LocalDateTime.now()));
+
+        assertTrue(engine.reconcile(1L));
+        assertEquals(analysisService.analyzePortfolio(1L, prices).getPortfolioBeta(),
+                engine.getValuation(1L).getPortfolioBeta());
+    }
+
+    @Test
+    void invalidate_reloadsHoldingsOnNextRead() {
+        engine.getValuation(1L);
+
+        engine.invalidate(1L);
+        engine.getValuation(1L);
+
+        verify(holdingRepository, times(2)).findByClient_ClientId(1L);
+    }
+
+    private static ClientHolding holding(Long clientId, String symbol, AssetCategory category, String qty, String avg) {
+        Client client = new Client();
+        client.setClientId(clientId);
+        Asset asset = new Asset(null, symbol, symbol, category, null);
+        ClientHolding holding = new ClientHolding();
+        holding.setClient(client);
+        holding.setAsset(asset);
+        holding.setQuantity(new BigDecimal(qty));
+        holding.setAvgBuyPrice(new BigDecimal(avg));
+        return holding;
+    }
+
+    private static void set(Object target, String field, Object value) throws Exception {
+        var f = target.getClass().getDeclaredField(field);
+        f.setAccessible(true);
+        f.set(target, value);
+    }
+}
@@ -0,0 +1,223 @@
+package com.portfolio.backend.service.chatbot;
+
+import com.portfolio.backend.config.ChatbotConfig;
+import com.portfolio.backend.dto.chatbot.ChatRequest;
+import com.portfolio.backend.dto.chatbot.ChatResponse;
+import com.portfolio.backend.dto.chatbot.ChatStreamEvent;
+import com.portfolio.backend.dto.chatbot.PortfolioAnalysisResult;
+import com.portfolio.backend.dto.chatbot.VisualizationMetadata;
+import com.portfolio.backend.service.analysis.AnalysisSnapshot;
+import com.portfolio.backend.service.analysis.PortfolioAnalysisCache;
+import com.portfolio.backend.service.llm.LLMServiceInterface;
+import com.portfolio.backend.service.rag.KnowledgeChunk;
+import com.portfolio.backend.service.rag.RAGServiceInterface;
+import com.portfolio.backend.service.visualization.VisualizationExplanationServiceInterface;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChatbotServiceTest {
+
+    private LLMServiceInterface llmService;
+    private RAGServiceInterface ragService;
+    private PortfolioAnalysisCache analysisCache;
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatbotService chatbotService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        llmService = mock(LLMServiceInterface.class);
+        ragService = mock(RAGServiceInterface.class);
+        analysisCache = mock(PortfolioAnalysisCache.class);
+        executor = Executors.newFixedThreadPool(2);
+
+        chatbotService = new ChatbotService();
+        set("llmService", llmService);
+        set("ragService", ragService);
+        set("portfolioAnalysisCache", analysisCache);
+        set("visualizationExplanationService", mock(VisualizationExplanationServiceInterface.class));
+        set("pipelineExecutor", executor);
+        set("chatbotConfig", new ChatbotConfig());
+        meterRegistry = new SimpleMeterRegistry();
+        set("chatMetrics", new ChatMetrics(meterRegistry));
+
+        PortfolioAnalysisResult analysis = new PortfolioAnalysisResult();
+        analysis.setRiskWarnings(List.of("Portfolio Beta > 1.2: Aggressive portfolio with high volatility risk"));
+        when(analysisCache.get(1L)).thenReturn(new AnalysisSnapshot(analysis, "## Portfolio Summary\n", 0L, 0L));
+        when(ragService.retrieveChunks(any(), any(), any())).thenReturn(List.of(new KnowledgeChunk(0, "risk_heuristics", "RAG")));
+        when(llmService.generateResponse(any(), any())).thenAnswer(inv -> Mono.just(new ChatResponse()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void processChat_analyzesPortfolioOncePerRequest() {
+        ChatResponse response = chatbotService.processChat(request(1L)).join();
+
+        verify(analysisCache, times(1)).get(1L);
+        assertEquals(List.of("Portfolio Beta > 1.2: Aggressive portfolio with high volatility risk"), response.getInsights());
+
+        ArgumentCaptor<String> context = ArgumentCaptor.forClass(String.class);
+        verify(llmService).generateResponse(eq("How risky is this?"), context.capture());
+        assertTrue(context.getValue().startsWith("--- BEGIN PORTFOLIO DATA"));
+        assertTrue(context.getValue().contains("## Portfolio Summary\n--- END PORTFOLIO DATA ---"));
+        assertTrue(context.getValue().endsWith("\n\nRAG"));
+    }
+
+    @Test
+    void processChat_sendsTheChartHintWithTheChartExplanation() {
+        when(ragService.getChartSpecificContext("pie")).thenReturn("Pie hint");
+        ChatRequest request = request(1L);
+        VisualizationMetadata chart = new VisualizationMetadata();
+        chart.setChartType("pie");
+        request.setVisualizationContext(chart);
+
+        chatbotService.processChat(request).join();
+
+        ArgumentCaptor<String> context = ArgumentCaptor.forClass(String.class);
+        verify(llmService).generateResponse(any(), context.capture());
+        assertTrue(context.getValue().contains("\n\nPie hint\n\n"));
+    }
+
+    @Test
+    void processChat_runsRagAndAnalysisConcurrently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        AtomicBoolean overlapped = new AtomicBoolean(true);
+        when(ragService.retrieveChunks(any(), any(), any())).thenAnswer(inv -> {
+            bothStarted.countDown();
+            overlapped.compareAndSet(true, bothStarted.await(5, TimeUnit.SECONDS));
+            return List.of();
+        });
+        PortfolioAnalysisResult analysis = new PortfolioAnalysisResult();
+        analysis.setRiskWarnings(List.of());
+        when(analysisCache.get(1L)).thenAnswer(inv -> {
+            bothStarted.countDown();
+            overlapped.compareAndSet(true, bothStarted.await(5, TimeUnit.SECONDS));
+            return new AnalysisSnapshot(analysis, "## Portfolio Summary\n", 0L, 0L);
+        });
+
+        chatbotService.processChat(request(1L)).join();
+
+        assertTrue(overlapped.get(), "RAG and analysis should be in flight at the same time");
+        verify(llmService).generateResponse(any(), any());
+    }
+
+    @Test
+    void processChat_withoutClientSkipsAnalysis() {
+        chatbotService.processChat(request(null)).join();
+
+        verify(analysisCache, never()).get(any());
+    }
+
+    @Test
+    void processChat_returnsBeforeTheLlmAnswers() {
+        Sinks.One<ChatResponse> gemini = Sinks.one();
+        when(llmService.generateResponse(any(), any())).thenReturn(gemini.asMono());
+
+        CompletableFuture<ChatResponse> pending = chatbotService.processChat(request(1L));
+        verify(llmService, timeout(5_000)).generateResponse(any(), any());
+        assertFalse(pending.isDone());
+
+        gemini.tryEmitValue(new ChatResponse());
+        assertEquals(List.of("Portfolio Beta > 1.2: Aggressive portfolio with high volatility risk"),
+            pending.join().getInsights());
+    }
+
+    @Test
+    void processChat_turnsStageFailuresIntoAnErrorResponse() {
+        when(ragService.retrieveChunks(any(), any(), any())).thenThrow(new IllegalStateException("index unavailable"));
+
+        ChatResponse response = chatbotService.processChat(request(1L)).join();
+
+        assertTrue(response.getResponse().startsWith("## Error"));
+        verify(llmService, never()).generateResponse(any(), any());
+        assertEquals(1, meterRegistry.get("chat.requests").tags("mode", "chat", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void processChat_recordsTheRequestAndEachStageThatRan() {
+        ChatResponse answer = new ChatResponse();
+        answer.setType(ChatResponse.ResponseType.ANALYTICAL);
+        when(llmService.generateResponse(any(), any())).thenReturn(Mono.just(answer));
+
+        chatbotService.processChat(request(1L)).join();
+
+        assertEquals(1, meterRegistry.get("chat.requests").tags("mode", "chat", "outcome", "analytical").timer().count());
+        for (String stage : List.of("analysis", "rag", "prompt", "llm", "post_process")) {
+            assertEquals(1, meterRegistry.get("chat.stage").tag("stage", stage).timer().count(), stage);
+        }
+        assertEquals(0, meterRegistry.get("chat.stage").tag("stage", "visualization").timer().count(), "no chart in the request");
+    }
+
+    @Test
+    void streamChat_passesDeltasThroughAndPostProcessesTheFinalAnswer() {
+        when(llmService.streamResponse(any(), any())).thenReturn(
+            Flux.just(ChatStreamEvent.delta("Beta "), ChatStreamEvent.delta("is high"), ChatStreamEvent.done(new ChatResponse())));
+
+        List<ChatStreamEvent> events = chatbotService.streamChat(request(1L)).collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(ChatStreamEvent.delta("Beta "), ChatStreamEvent.delta("is high")), events.subList(0, 2));
+        assertEquals(ChatStreamEvent.EventType.DONE, events.get(2).getType());
+        assertEquals(List.of("Portfolio Beta > 1.2: Aggressive portfolio with high volatility risk"),
+            events.get(2).getResponse().getInsights());
+        verify(llmService, never()).generateResponse(any(), any());
+    }
+
+    @Test
+    void streamChat_turnsStageFailuresIntoAnErrorEvent() {
+        when(ragService.retrieveChunks(any(), any(), any())).thenThrow(new IllegalStateException("index unavailable"));
+
+        List<ChatStreamEvent> events = chatbotService.streamChat(request(1L)).collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(1, events.size());
+        assertEquals(ChatStreamEvent.EventType.ERROR, events.get(0).getType());
+        assertTrue(events.get(0).getResponse().getResponse().startsWith("## Error"));
+        verify(llmService, never()).streamResponse(any(), any());
+    }
+
+    @Test
+    void requestContext_recordsEachStageOnce() {
+        ChatRequestContext ctx = new ChatRequestContext(request(1L));
+
+        assertEquals("a", ctx.run(ChatStage.PROMPT, () -> "a"));
+        assertEquals("a", ctx.run(ChatStage.PROMPT, () -> "b")); // Memoized
+        assertTrue(ctx.getStageMillis(ChatStage.PROMPT) >= 0);
+        assertEquals(-1, ctx.getStageMillis(ChatStage.LLM));
+        assertTrue(ctx.describeTimings().contains("PROMPT="));
+    }
+
+    private static ChatRequest request(Long clientId) {
+        ChatRequest request = new ChatRequest();
+        request.setMessage("How risky is this?");
+        request.setClientId(clientId);
+        return request;
+    }
+
+    private void set(String name, Object value) throws Exception {
+        var field = ChatbotService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(chatbotService, value);
+    }
+}
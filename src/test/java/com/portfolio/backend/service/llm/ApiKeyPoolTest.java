@@ -0,0 +1,78 @@
+package com.portfolio.backend.service.llm;
+
+import com.portfolio.backend.config.GeminiConfig;
+import com.portfolio.backend.dto.chatbot.ApiKeyStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiKeyPoolTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private ApiKeyPool pool;
+
+    @BeforeEach
+    void setUp() {
+        GeminiConfig config = new GeminiConfig();
+        config.setApiKeys("key-aaaa,key-bbbb");
+        config.parseApiKeys();
+        config.setKeyRequestsPerMinute(2);
+        config.setKeyTokensPerMinute(1_000);
+        config.setKeyCooldownSeconds(60);
+        pool = new ApiKeyPool(config, now::get);
+    }
+
+    @Test
+    void requests_goToTheKeyWithTheMostCapacityLeft() {
+        assertEquals("key-aaaa", pool.acquire(100).getKey());
+        assertEquals("key-bbbb", pool.acquire(100).getKey());
+        assertEquals("key-aaaa", pool.acquire(100).getKey());
+        assertEquals("key-bbbb", pool.acquire(100).getKey());
+
+        assertNull(pool.acquire(100), "two requests per minute per key");
+        assertEquals(30_000, pool.millisUntilAvailable(100));
+        now.addAndGet(30_000);
+        assertNotNull(pool.acquire(100));
+    }
+
+    @Test
+    void tokenQuota_isEnforcedAlongsideRequests() {
+        assertEquals("key-aaaa", pool.acquire(900).getKey());
+        assertEquals("key-bbbb", pool.acquire(900).getKey());
+
+        assertNull(pool.acquire(500));
+        assertEquals(24_000, pool.millisUntilAvailable(500)); // 400 of 1,000 tokens per minute to refill
+    }
+
+    @Test
+    void rateLimitedKey_sitsOutItsRetryAfter() {
+        ApiKeyPool.Lease first = pool.acquire(10);
+        pool.rateLimited(first, 45_000);
+
+        assertEquals("key-bbbb", pool.acquire(10).getKey());
+        assertEquals("key-bbbb", pool.acquire(10).getKey());
+        assertNull(pool.acquire(10));
+        assertEquals(30_000, pool.millisUntilAvailable(10)); // key-bbbb refills before key-aaaa cools down
+
+        List<ApiKeyStatus> status = pool.getStatus();
+        assertEquals("****aaaa", status.get(0).getKey());
+        assertEquals(45_000, status.get(0).getCoolingDownMillis());
+        assertEquals(1, status.get(0).getRateLimited());
+    }
+
+    @Test
+    void failures_lowerTheScoreUntilTheNextSuccess() {
+        pool.failed(pool.acquire(10)); // key-aaaa
+        now.addAndGet(60_000); // Both buckets full again
+
+        assertEquals("key-bbbb", pool.acquire(10).getKey());
+        ApiKeyPool.Lease retry = pool.acquire(10);
+        assertEquals("key-aaaa", retry.getKey(), "a tie with key-bbbb at half capacity goes to the least recently used key");
+        pool.succeeded(retry);
+        assertEquals(0, pool.getStatus().get(0).getConsecutiveFailures());
+    }
+}
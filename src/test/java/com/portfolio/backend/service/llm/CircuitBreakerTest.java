@@ -0,0 +1,81 @@
+package com.portfolio.backend.service.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 4, 4, 0.5, 1_000, 2, now::get);
+
+    @Test
+    void opensOnceTheFailureRateOverTheWindowReachesTheThreshold() {
+        breaker.onSuccess(breaker.tryAcquirePermission());
+        breaker.onFailure(breaker.tryAcquirePermission());
+        breaker.onSuccess(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "below the minimum number of calls");
+
+        breaker.onFailure(breaker.tryAcquirePermission());
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(-1, breaker.tryAcquirePermission());
+        assertEquals(1, breaker.getNotPermittedCalls());
+    }
+
+    @Test
+    void oldFailuresLeaveTheWindow() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onSuccess(breaker.tryAcquirePermission());
+        }
+        breaker.onFailure(breaker.tryAcquirePermission());
+        breaker.onSuccess(breaker.tryAcquirePermission()); // Pushes out the first success
+
+        assertEquals(0.25, breaker.getFailureRate());
+        assertEquals(4, breaker.getBufferedCalls());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpenTrialsCloseOrReopenTheCircuit() {
+        open();
+        now.addAndGet(1_000);
+
+        long first = breaker.tryAcquirePermission();
+        long second = breaker.tryAcquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(-1, breaker.tryAcquirePermission(), "only two trial calls");
+        breaker.onSuccess(first);
+        breaker.onFailure(second);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        now.addAndGet(1_000);
+        breaker.onSuccess(breaker.tryAcquirePermission());
+        breaker.onSuccess(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getBufferedCalls());
+        assertEquals(5, breaker.getTransitions()); // Open, half-open, open, half-open, closed
+    }
+
+    @Test
+    void outcomesOfCallsFromAnEarlierStateAreIgnored() {
+        long slow = breaker.tryAcquirePermission();
+        open();
+        now.addAndGet(1_000);
+        long trial = breaker.tryAcquirePermission();
+
+        breaker.onFailure(slow); // Started while CLOSED, finished during HALF_OPEN
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onIgnored(trial);
+        assertTrue(breaker.tryAcquirePermission() >= 0);
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(breaker.tryAcquirePermission());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,90 @@
+package com.portfolio.backend.service.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextPackerTest {
+
+    private static final String SUMMARY = "## Portfolio Summary\n- Total value: 12,50,000\n- Beta: 1.31";
+
+    @Test
+    void pack_sendsRepeatedParagraphsOnce() {
+        PackedContext packed = ContextPacker.pack(List.of(
+                ContextSegment.required("portfolio", SUMMARY),
+                ContextSegment.optional("visualization", "## Allocation Chart Analysis\n\n" + SUMMARY.replace("\n", "\n  "), 0.9)),
+            1_000);
+
+        assertEquals(1, packed.getText().split("Portfolio Summary", -1).length - 1);
+        assertTrue(packed.getText().contains("Allocation Chart Analysis"));
+        assertEquals(1, packed.getDuplicateParagraphs());
+    }
+
+    @Test
+    void pack_fillsBudgetByRelevanceAndNeverDropsRequiredSegments() {
+        String chunk = "Concentration risk is over-exposure to a single asset, sector or category of the book.";
+        int chunkTokens = TokenEstimator.estimate(chunk);
+        int budget = TokenEstimator.estimate(SUMMARY) + 2 * (chunkTokens + TokenEstimator.estimate("\n\n"));
+
+        PackedContext packed = ContextPacker.pack(List.of(
+                ContextSegment.optional("knowledge:3", chunk + " (3)", 0.2),
+                ContextSegment.optional("knowledge:1", chunk + " (1)", 0.8),
+                ContextSegment.required("portfolio", SUMMARY),
+                ContextSegment.optional("knowledge:2", chunk + " (2)", 0.4)),
+            budget);
+
+        assertEquals(List.of("portfolio", "knowledge:1"), packed.getIncluded());
+        assertEquals(List.of("knowledge:2", "knowledge:3"), packed.getDropped());
+        assertTrue(packed.getText().startsWith(SUMMARY));
+        assertTrue(packed.getTokens() <= budget);
+        assertEquals(TokenEstimator.estimate(packed.getText()), packed.getTokens());
+    }
+
+    @Test
+    void pack_keepsAParagraphOfADroppedSegmentForALaterOne() {
+        String shared = "Beta above 1.2 means the book moves more than the market.";
+        String padding = "Concentration risk is over-exposure to a single asset, sector or category of the book.";
+        int budget = TokenEstimator.estimate(SUMMARY) + TokenEstimator.estimate("\n\n") + TokenEstimator.estimate(shared);
+
+        PackedContext packed = ContextPacker.pack(List.of(
+                ContextSegment.required("portfolio", SUMMARY),
+                ContextSegment.optional("knowledge:1", shared + "\n\n" + padding, 0.8),
+                ContextSegment.optional("knowledge:2", shared, 0.4)),
+            budget);
+
+        assertEquals(List.of("portfolio", "knowledge:2"), packed.getIncluded());
+        assertEquals(List.of("knowledge:1"), packed.getDropped());
+        assertTrue(packed.getText().endsWith(shared));
+        assertEquals(0, packed.getDuplicateParagraphs());
+    }
+
+    @Test
+    void pack_truncatesRequiredSegmentAtLineBoundary() {
+        PackedContext packed = ContextPacker.pack(List.of(ContextSegment.required("portfolio", SUMMARY)),
+            TokenEstimator.estimate("## Portfolio Summary\n- Total value: 12,50,000"));
+
+        assertEquals("## Portfolio Summary\n- Total value: 12,50,000", packed.getText());
+        assertEquals(List.of("portfolio"), packed.getIncluded());
+    }
+
+    @Test
+    void pack_keepsTheClosingLineOfATruncatedSegment() {
+        String end = "--- END PORTFOLIO DATA ---";
+        PackedContext packed = ContextPacker.pack(List.of(ContextSegment.required("portfolio", SUMMARY, end)),
+            TokenEstimator.estimate("## Portfolio Summary\n- Total value: 12,50,000\n" + end));
+
+        assertEquals("## Portfolio Summary\n- Total value: 12,50,000\n" + end, packed.getText());
+        assertEquals(List.of("portfolio"), packed.getIncluded());
+    }
+
+    @Test
+    void estimate_countsWordsDigitsAndSymbols() {
+        assertEquals(0, TokenEstimator.estimate(""));
+        assertEquals(0, TokenEstimator.estimate(null));
+        assertEquals(2, TokenEstimator.estimate("beta risk"));
+        assertEquals(3, TokenEstimator.estimate("diversification"));
+        assertEquals(5, TokenEstimator.estimate("1.31%"));
+    }
+}
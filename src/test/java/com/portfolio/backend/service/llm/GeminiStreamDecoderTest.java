@@ -0,0 +1,57 @@
+package com.portfolio.backend.service.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiStreamDecoderTest {
+
+    private static final String FIRST = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"## Risk ₹\"}]}}]}";
+    private static final String SECOND = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"\\n- Beta [1.3]\"}]}}],"
+        + "\"usageMetadata\":{\"promptTokenCount\":321}}";
+    private static final byte[] BODY = ("[" + FIRST + "\r\n,\r\n" + SECOND + "\r\n]").getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void feed_emitsEachElementAsSoonAsItCloses_evenWhenSplitInsideCharacters() throws IOException {
+        GeminiStreamDecoder decoder = new GeminiStreamDecoder(objectMapper);
+        List<Integer> completedAt = new ArrayList<>();
+        List<JsonNode> elements = new ArrayList<>();
+        for (int i = 0; i < BODY.length; i++) {
+            List<JsonNode> completed = decoder.feed(BODY, i, 1); // One byte at a time, splitting the rupee sign
+            if (!completed.isEmpty()) {
+                completedAt.add(i);
+                elements.addAll(completed);
+            }
+        }
+        elements.addAll(decoder.finish());
+
+        assertEquals(List.of(objectMapper.readTree(FIRST), objectMapper.readTree(SECOND)), elements);
+        assertEquals("## Risk ₹", elements.get(0).at("/candidates/0/content/parts/0/text").asText());
+        assertEquals(FIRST.getBytes(StandardCharsets.UTF_8).length, completedAt.get(0), "first element before the rest arrives");
+    }
+
+    @Test
+    void feed_handlesWholeBodyInOneChunk() throws IOException {
+        GeminiStreamDecoder decoder = new GeminiStreamDecoder(objectMapper);
+
+        assertEquals(2, decoder.feed(BODY, 0, BODY.length).size());
+        assertTrue(decoder.finish().isEmpty());
+    }
+
+    @Test
+    void finish_failsWhenTheBodyIsCutOff() throws IOException {
+        GeminiStreamDecoder decoder = new GeminiStreamDecoder(objectMapper);
+        decoder.feed(BODY, 0, 30);
+
+        assertThrows(IOException.class, decoder::finish);
+    }
+}
@@ -0,0 +1,93 @@
+package com.portfolio.backend.service.llm;
+
+import com.portfolio.backend.config.GeminiConfig;
+import com.portfolio.backend.dto.CacheStats;
+import com.portfolio.backend.dto.chatbot.ChatResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LLMResponseCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private GeminiConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new GeminiConfig();
+        config.setResponseCacheMaxEntries(2);
+        config.setResponseCacheTtlSeconds(60);
+    }
+
+    @Test
+    void key_normalizesTheQuestionAndSeparatesModelsAndContexts() {
+        LLMResponseCache cache = new LLMResponseCache(config, now::get);
+
+        assertEquals(cache.keyFor("What is  concentration risk?", "CTX"), cache.keyFor("what is concentration risk", "CTX"));
+        assertNotEquals(cache.keyFor("What is beta?", "CTX"), cache.keyFor("What is beta?", "CTX2"));
+        assertEquals("gemini-2.5-flash", cache.keyFor("q", null).getModel());
+
+        config.setBaseUrl("https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-pro:generateContent");
+        assertEquals("gemini-2.5-pro", cache.keyFor("q", null).getModel());
+    }
+
+    @Test
+    void entries_expireAfterTheTtlAndTheLeastRecentlyUsedIsEvicted() {
+        LLMResponseCache cache = new LLMResponseCache(config, now::get);
+        LLMResponseCache.Key a = cache.keyFor("a", null);
+        LLMResponseCache.Key b = cache.keyFor("b", null);
+        cache.put(a, answer("A"));
+        cache.put(b, answer("B"));
+        assertEquals("A", cache.get(a).getResponse()); // b is now least recently used
+
+        cache.put(cache.keyFor("c", null), answer("C"));
+        assertNull(cache.get(b));
+
+        now.addAndGet(60_000);
+        assertNull(cache.get(a));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(2, stats.getEvictions());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void diskTier_survivesARestart() throws Exception {
+        config.setResponseCacheDir(dir.toString());
+        LLMResponseCache before = new LLMResponseCache(config, now::get);
+        LLMResponseCache.Key key = before.keyFor("Explain portfolio beta", "CTX");
+        before.put(key, answer("## Beta"));
+        before.shutdown();
+
+        LLMResponseCache after = new LLMResponseCache(config, now::get);
+        ChatResponse cached = after.get(key);
+        assertEquals("## Beta", cached.getResponse());
+        assertEquals(42, cached.getPromptTokens());
+        assertEquals(ChatResponse.ResponseType.ANALYTICAL, cached.getType());
+
+        now.addAndGet(60_000);
+        assertNull(new LLMResponseCache(config, now::get).get(key));
+        try (var files = Files.list(dir)) {
+            assertEquals(0, files.count(), "expired files are deleted on read");
+        }
+    }
+
+    private static ChatResponse answer(String text) {
+        ChatResponse response = new ChatResponse();
+        response.setResponse(text);
+        response.setType(ChatResponse.ResponseType.ANALYTICAL);
+        response.setPromptTokens(42);
+        return response;
+    }
+}
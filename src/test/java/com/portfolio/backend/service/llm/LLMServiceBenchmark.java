@@ -0,0 +1,68 @@
+package com.portfolio.backend.service.llm;
+
+import com.portfolio.backend.config.GeminiConfig;
+import com.portfolio.backend.dto.chatbot.ChatResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The local work around one Gemini call: building the prompt from question and context, and parsing
+ * a generateContent body into a ChatResponse; no network involved
+ *
+ * The context is a portfolio summary plus knowledge snippets of about the size ChatbotService sends.
+ *
+ * Run with: ./mvnw -Pbenchmark verify -DskipTests -Djmh.include=LLMServiceBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LLMServiceBenchmark {
+
+    private static final String QUESTION = "What are the main risks in my portfolio right now?";
+
+    private static final String RESPONSE = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":"
+        + "\"## Portfolio Risk\\n\\n- Beta of 1.3 means the portfolio moves more than the market\\n"
+        + "- Top holding is 28% of value, above the 25% concentration guideline\\n"
+        + "- Commodity exposure adds diversification but also volatility\\n"
+        + "- Unrealized P&L of 12.4% is concentrated in two NSE positions\"}],\"role\":\"model\"},"
+        + "\"finishReason\":\"STOP\",\"index\":0}],"
+        + "\"usageMetadata\":{\"promptTokenCount\":812,\"candidatesTokenCount\":74,\"totalTokenCount\":886}}";
+
+    private LLMService service;
+    private String context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GeminiConfig config = new GeminiConfig();
+        config.setApiKeys("benchmark-key");
+        service = new LLMService(config, new LLMResponseCache(config), new ApiKeyPool(config), new SimpleMeterRegistry());
+
+        StringBuilder builder = new StringBuilder("## Portfolio Summary\n\n")
+            .append("**Total Portfolio Value:** $2391245.10\n**Total Invested:** $2127800.00\n")
+            .append("**Unrealized P&L:** $263445.10\n**Portfolio Beta:** 1.30\n\n**Allocation:**\n")
+            .append("- NSE: 52.40%\n- MF: 31.10%\n- COMMODITY: 16.50%\n\n**Top Holdings:**\n");
+        for (int i = 1; i <= 10; i++) {
+            builder.append("- SYM").append(i).append(": ").append(12 - i).append(".20% of portfolio\n");
+        }
+        builder.append("\nBETA: Measure of portfolio volatility relative to the market. A beta above 1 ")
+            .append("means the portfolio tends to move more than the market in either direction.\n\n")
+            .append("CONCENTRATION: A single holding above a quarter of the portfolio value is usually ")
+            .append("considered concentrated and raises idiosyncratic risk.\n");
+        context = builder.toString();
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return service.buildPrompt(QUESTION, context);
+    }
+
+    @Benchmark
+    public ChatResponse parseGeminiResponse() {
+        return service.parseGeminiResponse(RESPONSE);
+    }
+}
@@ -0,0 +1,309 @@
+package com.portfolio.backend.service.llm;
+
+import com.portfolio.backend.config.GeminiConfig;
+import com.portfolio.backend.dto.chatbot.ApiKeyStatus;
+import com.portfolio.backend.dto.chatbot.ChatResponse;
+import com.portfolio.backend.dto.chatbot.ChatStreamEvent;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LLMService against a local HTTP stub of the Gemini endpoint
+ */
+class LLMServiceTest {
+
+    private static final String ANSWER = """
+        {"candidates":[{"content":{"parts":[{"text":"## Risk\\n- Beta is 1.3"}]}}],
+         "usageMetadata":{"promptTokenCount":321}}
+        """;
+
+    private HttpServer server;
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final AtomicInteger rateLimitsLeft = new AtomicInteger();
+    private volatile String retryAfter = "30";
+    private final List<String> requestedKeys = new CopyOnWriteArrayList<>();
+    private GeminiConfig config;
+    private ApiKeyPool keyPool;
+    private MeterRegistry meterRegistry;
+    private LLMService llmService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/gemini", this::handle);
+        server.createContext("/gemini-stream", this::handleStream);
+        server.start();
+
+        config = new GeminiConfig();
+        config.setApiKeys("k1,k2");
+        config.parseApiKeys();
+        config.setBaseUrl("http://localhost:" + server.getAddress().getPort() + "/gemini");
+        config.setStreamUrl("http://localhost:" + server.getAddress().getPort() + "/gemini-stream");
+        config.setTimeoutSeconds(30); // Generous: the first WebClient call of a JVM can be slow
+        config.setRetryBackoffMillis(10);
+        keyPool = new ApiKeyPool(config);
+        meterRegistry = new SimpleMeterRegistry();
+        llmService = new LLMService(config, new LLMResponseCache(config), keyPool, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void generateResponse_isLazyAndReportsGeminiTokenCount() {
+        Mono<ChatResponse> pending = llmService.generateResponse("How risky?", "PORTFOLIO");
+        assertTrue(requestedKeys.isEmpty(), "nothing is sent before subscription");
+
+        ChatResponse response = pending.block(Duration.ofSeconds(10));
+
+        assertEquals("## Risk\n- Beta is 1.3", response.getResponse());
+        assertEquals(321, response.getPromptTokens());
+        assertEquals(List.of("k1"), requestedKeys);
+    }
+
+    @Test
+    void generateResponse_retriesOnTheNextKey() {
+        failuresLeft.set(1);
+
+        ChatResponse response = llmService.generateResponse("How risky?", null).block(Duration.ofSeconds(10));
+
+        assertEquals(ChatResponse.ResponseType.ANALYTICAL, response.getType());
+        assertEquals(List.of("k1", "k2"), requestedKeys);
+        assertEquals(1, meterRegistry.get("gemini.calls").tag("outcome", "server_error").timer().count());
+        assertEquals(1, meterRegistry.get("gemini.calls").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("gemini.retries").counter().count());
+    }
+
+    @Test
+    void generateResponse_coolsDownARateLimitedKeyForItsRetryAfter() {
+        rateLimitsLeft.set(1);
+
+        ChatResponse response = llmService.generateResponse("How risky?", null).block(Duration.ofSeconds(10));
+
+        assertEquals(ChatResponse.ResponseType.ANALYTICAL, response.getType());
+        assertEquals(List.of("k1", "k2"), requestedKeys, "a 429 is not retried on the same key");
+        List<ApiKeyStatus> status = keyPool.getStatus();
+        assertEquals(1, status.get(0).getRateLimited());
+        assertTrue(status.get(0).getCoolingDownMillis() > 25_000, "Retry-After: 30");
+        assertEquals(0, status.get(0).getHealthScore());
+        assertEquals(1, status.get(1).getSuccesses());
+
+        llmService.generateResponse("Something else?", null).block(Duration.ofSeconds(10));
+        assertEquals("k2", requestedKeys.get(2));
+    }
+
+    @Test
+    void generateResponse_waitsForAKeyWithoutUsingUpAnAttempt() {
+        config.setApiKeys("k1");
+        config.parseApiKeys();
+        config.setMaxRetries(2);
+        rateLimitsLeft.set(1);
+        retryAfter = "1";
+        LLMService service = new LLMService(config, new LLMResponseCache(config), new ApiKeyPool(config), meterRegistry);
+
+        ChatResponse response = service.generateResponse("How risky?", null).block(Duration.ofSeconds(10));
+
+        assertEquals(ChatResponse.ResponseType.ANALYTICAL, response.getType(), "the second call waits out the cooldown");
+        assertEquals(List.of("k1", "k1"), requestedKeys);
+        assertEquals(1, meterRegistry.get("gemini.retries").counter().count(), "only the 429 is a retry");
+    }
+
+    @Test
+    void generateResponse_fallsBackWhenEveryAttemptFails() {
+        failuresLeft.set(Integer.MAX_VALUE);
+
+        ChatResponse response = llmService.generateResponse("How risky?", null).block(Duration.ofSeconds(10));
+
+        assertEquals(ChatResponse.ResponseType.INFORMATIONAL, response.getType());
+        assertTrue(response.getResponse().startsWith("## Service Temporarily Unavailable"));
+        assertEquals(3, requestedKeys.size(), "max-retries is the whole budget, no nested retries");
+        assertTrue(response.getPromptTokens() > 0, "estimated when Gemini reports nothing");
+        assertEquals(1, meterRegistry.get("gemini.fallbacks").tag("reason", "retries_exhausted").counter().count());
+        assertEquals(0, meterRegistry.get("gemini.calls.active").gauge().value(), "every bulkhead slot handed back");
+    }
+
+    @Test
+    void generateResponse_answersARepeatedQuestionFromTheCache() {
+        ChatResponse first = llmService.generateResponse("Explain portfolio beta", "PORTFOLIO").block(Duration.ofSeconds(10));
+        first.setInsights(List.of("added by the chat pipeline"));
+
+        ChatResponse second = llmService.generateResponse("  explain Portfolio beta? ", "PORTFOLIO").block(Duration.ofSeconds(10));
+        List<ChatStreamEvent> streamed = llmService.streamResponse("Explain portfolio beta", "PORTFOLIO")
+            .collectList().block(Duration.ofSeconds(10));
+
+        assertEquals(List.of("k1"), requestedKeys);
+        assertEquals(first.getResponse(), second.getResponse());
+        assertEquals(321, second.getPromptTokens());
+        assertNull(second.getInsights(), "each hit is a fresh copy");
+        assertEquals(ChatStreamEvent.delta(first.getResponse()), streamed.get(0));
+
+        llmService.generateResponse("Explain portfolio beta", "CHANGED PORTFOLIO").block(Duration.ofSeconds(10));
+        assertEquals(2, requestedKeys.size());
+    }
+
+    @Test
+    void generateResponse_coalescesIdenticalConcurrentRequests() {
+        // zip subscribes to both before the stub answers the first
+        var both = Mono.zip(llmService.generateResponse("Explain portfolio beta", "PORTFOLIO"),
+            llmService.generateResponse("explain portfolio beta?", "PORTFOLIO")).block(Duration.ofSeconds(10));
+
+        assertEquals(List.of("k1"), requestedKeys);
+        assertEquals(both.getT1(), both.getT2());
+        assertNotSame(both.getT1(), both.getT2(), "each caller adds its own insights");
+    }
+
+    @Test
+    void generateResponse_doesNotCacheFallbacks() {
+        failuresLeft.set(Integer.MAX_VALUE);
+        llmService.generateResponse("How risky?", null).block(Duration.ofSeconds(10));
+        failuresLeft.set(0);
+
+        ChatResponse response = llmService.generateResponse("How risky?", null).block(Duration.ofSeconds(10));
+
+        assertEquals(ChatResponse.ResponseType.ANALYTICAL, response.getType());
+    }
+
+    @Test
+    void generateResponse_stopsRetryingWhenTheTimeBudgetIsSpent() {
+        failuresLeft.set(Integer.MAX_VALUE);
+        config.setRetryBackoffMillis(2_000);
+        config.setRetryBudgetSeconds(1);
+
+        llmService.generateResponse("How risky?", null).block(Duration.ofSeconds(10));
+
+        assertEquals(1, requestedKeys.size(), "the 2 s backoff would end past the 1 s budget");
+    }
+
+    @Test
+    void openCircuit_failsFastWithoutCallingGemini() {
+        failuresLeft.set(Integer.MAX_VALUE);
+        config.setCircuitMinimumCalls(2);
+        config.setMaxRetries(1);
+        LLMService service = new LLMService(config, new LLMResponseCache(config), keyPool, meterRegistry);
+
+        service.generateResponse("First?", null).block(Duration.ofSeconds(10));
+        service.generateResponse("Second?", null).block(Duration.ofSeconds(10));
+        assertEquals("OPEN", service.getResilienceStatus().getCircuitState());
+
+        ChatResponse response = service.generateResponse("Third?", null).block(Duration.ofSeconds(10));
+        assertTrue(response.getResponse().startsWith("## Service Temporarily Unavailable"));
+        assertEquals(2, requestedKeys.size());
+        assertEquals(1, service.getResilienceStatus().getNotPermittedCalls());
+    }
+
+    @Test
+    void rateLimits_doNotOpenTheCircuit() {
+        rateLimitsLeft.set(2);
+        config.setCircuitMinimumCalls(2);
+        config.setRetryBudgetSeconds(1); // Rather than wait 30 s for a key
+        LLMService service = new LLMService(config, new LLMResponseCache(config), keyPool, meterRegistry);
+
+        service.generateResponse("How risky?", null).block(Duration.ofSeconds(10));
+
+        assertEquals("CLOSED", service.getResilienceStatus().getCircuitState());
+    }
+
+    @Test
+    void fullBulkhead_answersWithTheFallbackAtOnce() {
+        config.setMaxConcurrentCalls(0);
+        LLMService service = new LLMService(config, new LLMResponseCache(config), keyPool, meterRegistry);
+
+        ChatResponse response = service.generateResponse("How risky?", null).block(Duration.ofSeconds(10));
+
+        assertEquals(ChatResponse.ResponseType.INFORMATIONAL, response.getType());
+        assertTrue(requestedKeys.isEmpty());
+        assertEquals(1, service.getResilienceStatus().getRejectedCalls());
+    }
+
+    @Test
+    void streamResponse_passesDeltasThroughThenCompletes() {
+        List<ChatStreamEvent> events = llmService.streamResponse("How risky?", "PORTFOLIO")
+            .collectList().block(Duration.ofSeconds(10));
+
+        assertEquals(List.of(ChatStreamEvent.delta("## Risk"), ChatStreamEvent.delta("\n- Beta is 1.3")),
+            events.subList(0, 2));
+        ChatStreamEvent done = events.get(2);
+        assertEquals(ChatStreamEvent.EventType.DONE, done.getType());
+        assertEquals("## Risk\n- Beta is 1.3", done.getResponse().getResponse());
+        assertEquals(321, done.getResponse().getPromptTokens());
+        assertEquals(3, events.size());
+    }
+
+    @Test
+    void streamResponse_failingBeforeTheFirstChunk_fallsBackToGenerateContent() {
+        failuresLeft.set(1);
+
+        List<ChatStreamEvent> events = llmService.streamResponse("How risky?", null)
+            .collectList().block(Duration.ofSeconds(10));
+
+        assertEquals(List.of(ChatStreamEvent.delta("## Risk\n- Beta is 1.3"), ChatStreamEvent.EventType.DONE),
+            List.of(events.get(0), events.get(1).getType()));
+        assertEquals(2, requestedKeys.size());
+    }
+
+    @Test
+    void streamResponse_failingBeforeTheFirstChunk_countsAsTheFirstAttempt() {
+        failuresLeft.set(Integer.MAX_VALUE);
+
+        List<ChatStreamEvent> events = llmService.streamResponse("How risky?", null)
+            .collectList().block(Duration.ofSeconds(10));
+
+        assertTrue(events.get(0).getText().startsWith("## Service Temporarily Unavailable"));
+        assertEquals(3, requestedKeys.size(), "the stream and two generateContent calls share max-retries");
+        assertEquals(2, meterRegistry.get("gemini.retries").counter().count());
+    }
+
+    private void handleStream(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        requestedKeys.add(exchange.getRequestURI().getQuery().replace("key=", ""));
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        if (failuresLeft.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(200, 0); // Chunked
+        for (String chunk : List.of("[{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"## Ri",
+                "sk\"}]}}]}\r\n,\r\n{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"\\n- Beta is 1.3\"}]}}],",
+                "\"usageMetadata\":{\"promptTokenCount\":321}}\r\n]")) {
+            exchange.getResponseBody().write(chunk.getBytes(StandardCharsets.UTF_8));
+            exchange.getResponseBody().flush();
+        }
+        exchange.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        requestedKeys.add(exchange.getRequestURI().getQuery().replace("key=", ""));
+        if (rateLimitsLeft.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+            exchange.getResponseHeaders().add("Retry-After", retryAfter);
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+            return;
+        }
+        boolean fail = failuresLeft.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0;
+        byte[] body = (fail ? "{\"error\":\"overloaded\"}" : ANSWER).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(fail ? 503 : 200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
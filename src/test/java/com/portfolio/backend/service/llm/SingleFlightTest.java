@@ -0,0 +1,85 @@
+package com.portfolio.backend.service.llm;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void concurrentCallers_shareOneCall() {
+        Sinks.One<String> gemini = Sinks.one();
+        Mono<String> first = singleFlight.execute("q", () -> call(gemini));
+        Mono<String> second = singleFlight.execute("q", () -> call(gemini));
+        assertEquals(0, calls.get(), "nothing starts before subscription");
+
+        AtomicReference<String> firstResult = new AtomicReference<>();
+        AtomicReference<String> secondResult = new AtomicReference<>();
+        first.subscribe(firstResult::set);
+        second.subscribe(secondResult::set);
+        assertEquals("independent", singleFlight.execute("other", () -> Mono.just("independent")).block());
+
+        gemini.tryEmitValue("answer");
+        assertEquals("answer", firstResult.get());
+        assertEquals("answer", secondResult.get());
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getCoalesced());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void errors_reachEveryCallerAndAreNotReused() {
+        Sinks.One<String> gemini = Sinks.one();
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        AtomicReference<Throwable> secondError = new AtomicReference<>();
+        singleFlight.execute("q", () -> call(gemini)).subscribe(v -> { }, firstError::set);
+        singleFlight.execute("q", () -> call(gemini)).subscribe(v -> { }, secondError::set);
+
+        gemini.tryEmitError(new IllegalStateException("429"));
+
+        assertEquals("429", firstError.get().getMessage());
+        assertSame(firstError.get(), secondError.get());
+        assertEquals("retried", singleFlight.execute("q", () -> Mono.just("retried")).block());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void cancellingOneCaller_leavesTheCallRunningForTheOthers() {
+        Sinks.One<String> gemini = Sinks.one();
+        AtomicReference<String> survivor = new AtomicReference<>();
+        Disposable impatient = singleFlight.execute("q", () -> call(gemini)).subscribe();
+        singleFlight.execute("q", () -> call(gemini)).subscribe(survivor::set);
+
+        impatient.dispose();
+        assertEquals(1, gemini.currentSubscriberCount(), "the call is not cancelled");
+        gemini.tryEmitValue("answer");
+
+        assertEquals("answer", survivor.get());
+    }
+
+    @Test
+    void timedOutCaller_getsItsTimeoutWhileTheCallCompletes() {
+        Sinks.One<String> gemini = Sinks.one();
+        Mono<String> flight = singleFlight.execute("q", () -> call(gemini));
+
+        assertThrows(RuntimeException.class, () -> flight.timeout(Duration.ofMillis(20)).block());
+        assertEquals(1, singleFlight.getInFlight());
+        gemini.tryEmitValue("late answer");
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    private Mono<String> call(Sinks.One<String> gemini) {
+        calls.incrementAndGet();
+        return gemini.asMono();
+    }
+}
@@ -0,0 +1,104 @@
+package com.portfolio.backend.service.market;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.entity.Asset;
+import com.portfolio.backend.entity.enums.AssetCategory;
+import com.portfolio.backend.repository.AssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AssetCatalogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AssetRepository assetRepository;
+    private AssetCatalog assetCatalog;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assetRepository = mock(AssetRepository.class);
+        assetCatalog = new AssetCatalog();
+
+        var f1 = AssetCatalog.class.getDeclaredField("assetRepository");
+        f1.setAccessible(true);
+        f1.set(assetCatalog, assetRepository);
+
+        var f2 = AssetCatalog.class.getDeclaredField("objectMapper");
+        f2.setAccessible(true);
+        f2.set(assetCatalog, objectMapper);
+    }
+
+    @Test
+    void refresh_buildsLookupsAndSerializedBody() throws Exception {
+        when(assetRepository.findAll(any(Sort.class))).thenReturn(List.of(
+                new Asset(1L, "TCS", "Tata Consultancy Services", AssetCategory.NSE, "IT Services"),
+                new Asset(2L, "GOLD", "Gold 24k", AssetCategory.COMMODITY, null)));
+
+        assertTrue(assetCatalog.refresh());
+
+        assertEquals("TCS", assetCatalog.findById(1L).orElseThrow().getSymbol());
+        assertEquals(2L, assetCatalog.findBySymbol("GOLD").orElseThrow().getAssetId());
+        assertTrue(assetCatalog.findById(3L).isEmpty());
+        assertTrue(assetCatalog.findById(null).isEmpty());
+
+        JsonNode body = objectMapper.readTree(assetCatalog.getSnapshot().getJson());
+        assertEquals(2, body.size());
+        assertEquals("Tata Consultancy Services", body.get(0).get("assetName").asText());
+        assertEquals("COMMODITY", body.get(1).get("category").asText());
+        assertTrue(assetCatalog.getSnapshot().getEtag().matches("\"[0-9a-f]{32}\""));
+    }
+
+    @Test
+    void refresh_keepsSnapshotWhenNothingChanged() {
+        when(assetRepository.findAll(any(Sort.class))).thenAnswer(inv -> List.of(
+                new Asset(1L, "TCS", "Tata Consultancy Services", AssetCategory.NSE, null)));
+        assetCatalog.refresh();
+        AssetCatalog.Snapshot first = assetCatalog.getSnapshot();
+
+        assertFalse(assetCatalog.refresh());
+        assertSame(first, assetCatalog.getSnapshot());
+    }
+
+    @Test
+    void refresh_changesEtagWhenAnAssetChanges() {
+        when(assetRepository.findAll(any(Sort.class)))
+                .thenReturn(List.of(new Asset(1L, "TCS", "Tata Consultancy Services", AssetCategory.NSE, null)))
+                .thenReturn(List.of(new Asset(1L, "TCS", "Tata Consultancy Services Ltd", AssetCategory.NSE, null)));
+        assetCatalog.refresh();
+        String before = assetCatalog.getSnapshot().getEtag();
+
+        assertTrue(assetCatalog.refresh());
+
+        assertNotEquals(before, assetCatalog.getSnapshot().getEtag());
+        assertEquals("Tata Consultancy Services Ltd", assetCatalog.findById(1L).orElseThrow().getAssetName());
+    }
+
+    @Test
+    void refresh_holdsCopiesOfTheLoadedEntities() {
+        Asset loaded = new Asset(1L, "TCS", "Tata Consultancy Services", AssetCategory.NSE, null);
+        when(assetRepository.findAll(any(Sort.class))).thenReturn(List.of(loaded));
+        assetCatalog.refresh();
+
+        loaded.setAssetName("changed in a persistence context");
+
+        assertNotSame(loaded, assetCatalog.findById(1L).orElseThrow());
+        assertEquals("Tata Consultancy Services", assetCatalog.findById(1L).orElseThrow().getAssetName());
+    }
+
+    @Test
+    void load_leavesCatalogEmptyWhenTheDatabaseFails() {
+        when(assetRepository.findAll(any(Sort.class))).thenThrow(new IllegalStateException("connection refused"));
+
+        assetCatalog.load();
+
+        assertTrue(assetCatalog.getAssets().isEmpty());
+        assertEquals("[]", new String(assetCatalog.getSnapshot().getJson()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.portfolio.backend.service.market;
+
+import com.portfolio.backend.config.MarketDataConfig;
+import com.portfolio.backend.dto.market.PriceSeriesResponse;
+import com.portfolio.backend.dto.market.PriceTick;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketSeriesServiceTest {
+
+    // A Monday, so weekly buckets line up with the loop below
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 1, 5, 9, 15);
+
+    private MarketDataConfig config;
+    private MarketSeriesService service;
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new MarketDataConfig();
+        service = new MarketSeriesService();
+        var f = MarketSeriesService.class.getDeclaredField("config");
+        f.setAccessible(true);
+        f.set(service, config);
+    }
+
+    @Test
+    void weeklyRange_keepsLastCloseOfEachWeek() {
+        for (int day = 0; day < 21; day++) {
+            service.onPriceTick(tick("TCS", 100 + day, MONDAY.plusDays(day)));
+        }
+
+        PriceSeriesResponse series = service.getPriceSeries("TCS", "52w");
+
+        assertEquals(List.of("2026-01-11", "2026-01-18", "2026-01-25"), series.getLabels());
+        assertEquals(List.of(106.0, 113.0, 120.0), series.getPrices());
+    }
+
+    @Test
+    void dailyRange_collapsesIntradayTicksToDailyClose() {
+        service.onPriceTick(tick("GOLD", 10, MONDAY));
+        service.onPriceTick(tick("GOLD", 11, MONDAY.plusHours(2)));
+        service.onPriceTick(tick("GOLD", 12, MONDAY.plusDays(1)));
+
+        PriceSeriesResponse series = service.getPriceSeries("GOLD", "1y");
+
+        assertEquals(List.of(11.0, 12.0), series.getPrices());
+    }
+
+    @Test
+    void intradayRange_dropsOutOfOrderTicksAndOverwritesOldest() {
+        config.setSeriesIntradayCapacity(3);
+        for (int i = 0; i < 5; i++) {
+            service.onPriceTick(tick("INFY", 50 + i, MONDAY.plusMinutes(5L * i)));
+        }
+        service.onPriceTick(tick("INFY", 1, MONDAY)); // Back-filled, ignored
+
+        PriceSeriesResponse series = service.getPriceSeries("INFY", "intraday");
+
+        assertEquals(List.of(52.0, 53.0, 54.0), series.getPrices());
+        assertEquals("09:25", series.getLabels().get(0));
+    }
+
+    @Test
+    void unknownSymbol_returnsEmptySeries() {
+        PriceSeriesResponse series = service.getPriceSeries("UNKNOWN", "52w");
+
+        assertTrue(series.getLabels().isEmpty());
+        assertTrue(series.getPrices().isEmpty());
+    }
+
+    @Test
+    void unsupportedRange_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.getPriceSeries("TCS", "10y"));
+    }
+
+    private PriceTick tick(String symbol, double price, LocalDateTime at) {
+        return new PriceTick(nextId++, 1L, symbol, BigDecimal.valueOf(price), 10L, at);
+    }
+}
@@ -0,0 +1,148 @@
+package com.portfolio.backend.service.market;
+
+import com.portfolio.backend.config.MarketDataConfig;
+import com.portfolio.backend.dto.market.PriceTick;
+import com.portfolio.backend.repository.MarketDataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PriceServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 5, 10, 0);
+
+    private MarketDataRepository marketDataRepository;
+    private PriceTickListener listener;
+    private PriceService priceService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        marketDataRepository = mock(MarketDataRepository.class);
+        listener = mock(PriceTickListener.class);
+        ObjectProvider<PriceTickListener> listeners = mock(ObjectProvider.class);
+        when(listeners.orderedStream()).thenAnswer(inv -> Stream.of(listener));
+        priceService = new PriceService();
+
+        var f1 = PriceService.class.getDeclaredField("marketDataRepository");
+        f1.setAccessible(true);
+        f1.set(priceService, marketDataRepository);
+
+        var f2 = PriceService.class.getDeclaredField("config");
+        f2.setAccessible(true);
+        MarketDataConfig config = new MarketDataConfig();
+        config.setRefreshOverlapRows(5);
+        f2.set(priceService, config);
+
+        var f3 = PriceService.class.getDeclaredField("tickListenerProvider");
+        f3.setAccessible(true);
+        f3.set(priceService, listeners);
+    }
+
+    @Test
+    void loadLatestPrices_primesCacheFromSingleQuery() {
+        when(marketDataRepository.findMaxDataId()).thenReturn(20L);
+        when(marketDataRepository.findLatestPerAsset()).thenReturn(List.of(
+                tick(11L, "TCS", "3500.00", T0),
+                tick(20L, "GOLD", "6100.50", T0)));
+
+        priceService.loadLatestPrices();
+
+        assertEquals(new BigDecimal("3500.00"), priceService.getCurrentPrice("TCS"));
+        assertEquals(new BigDecimal("6100.50"), priceService.getCurrentPrices().get("GOLD"));
+        verify(marketDataRepository, times(1)).findLatestPerAsset();
+    }
+
+    @Test
+    void refresh_readsOnlyRowsAboveHighWaterMark() {
+        when(marketDataRepository.findMaxDataId()).thenReturn(20L);
+        when(marketDataRepository.findLatestPerAsset()).thenReturn(List.of(tick(20L, "TCS", "3500.00", T0)));
+        when(marketDataRepository.findDataIdsBetween(15L, 20L)).thenReturn(List.of(16L, 17L, 18L, 19L, 20L));
+        when(marketDataRepository.findTicksAfter(eq(15L), any(Pageable.class)))
+                .thenReturn(List.of(tick(20L, "TCS", "3500.00", T0), tick(21L, "TCS", "3510.00", T0.plusMinutes(1))));
+        when(marketDataRepository.findTicksAfter(eq(16L), any(Pageable.class)))
+                .thenReturn(List.of(tick(20L, "TCS", "3500.00", T0), tick(21L, "TCS", "3510.00", T0.plusMinutes(1))));
+
+        priceService.loadLatestPrices();
+        priceService.refresh();
+        priceService.refresh();
+
+        assertEquals(new BigDecimal("3510.00"), priceService.getCurrentPrice("TCS"));
+        verify(marketDataRepository).findTicksAfter(eq(15L), any(Pageable.class));
+        verify(marketDataRepository).findTicksAfter(eq(16L), any(Pageable.class));
+        verify(listener, times(1)).onPriceTick(any(PriceTick.class)); // Rows in the overlap window are published once
+    }
+
+    @Test
+    void refresh_picksUpARowCommittedBelowTheHighWaterMark() {
+        when(marketDataRepository.findMaxDataId()).thenReturn(20L);
+        when(marketDataRepository.findLatestPerAsset()).thenReturn(List.of(tick(20L, "TCS", "3500.00", T0)));
+        when(marketDataRepository.findDataIdsBetween(15L, 20L)).thenReturn(List.of(16L, 17L, 18L, 20L));
+        PriceTick late = tick(19L, "GOLD", "6100.50", T0);
+        when(marketDataRepository.findTicksAfter(eq(15L), any(Pageable.class)))
+                .thenReturn(List.of(tick(20L, "TCS", "3500.00", T0)))
+                .thenReturn(List.of(late, tick(20L, "TCS", "3500.00", T0)));
+
+        priceService.loadLatestPrices();
+        priceService.refresh();
+        priceService.refresh(); // Row 19 has committed since
+
+        assertEquals(new BigDecimal("6100.50"), priceService.getCurrentPrice("GOLD"));
+        verify(listener, times(1)).onPriceTick(late);
+        verify(listener, times(1)).onPriceTick(any(PriceTick.class));
+    }
+
+    @Test
+    void refresh_ignoresBackfilledOlderRows() {
+        when(marketDataRepository.findMaxDataId()).thenReturn(20L);
+        when(marketDataRepository.findLatestPerAsset()).thenReturn(List.of(tick(20L, "TCS", "3500.00", T0)));
+        when(marketDataRepository.findTicksAfter(eq(15L), any(Pageable.class)))
+                .thenReturn(List.of(tick(21L, "TCS", "3400.00", T0.minusDays(1))));
+
+        priceService.loadLatestPrices();
+        priceService.refresh();
+
+        assertEquals(new BigDecimal("3500.00"), priceService.getCurrentPrice("TCS"));
+    }
+
+    @Test
+    void priceEpoch_advancesOnlyWhenAPriceChanges() {
+        when(marketDataRepository.findMaxDataId()).thenReturn(20L);
+        when(marketDataRepository.findLatestPerAsset()).thenReturn(List.of(tick(20L, "TCS", "3500.00", T0)));
+        when(marketDataRepository.findTicksAfter(eq(15L), any(Pageable.class)))
+                .thenReturn(List.of(tick(21L, "TCS", "3500.0", T0.plusMinutes(1))));
+
+        priceService.loadLatestPrices();
+        long epoch = priceService.getPriceEpoch();
+        priceService.refresh();
+
+        assertEquals(epoch, priceService.getPriceEpoch()); // Same price, newer row
+
+        when(marketDataRepository.findTicksAfter(eq(16L), any(Pageable.class)))
+                .thenReturn(List.of(tick(21L, "TCS", "3500.0", T0.plusMinutes(1)), tick(22L, "TCS", "3510.00", T0.plusMinutes(2))));
+        priceService.refresh();
+
+        assertEquals(epoch + 1, priceService.getPriceEpoch());
+    }
+
+    @Test
+    void getCurrentPrices_isReadOnly() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> priceService.getCurrentPrices().put("TCS", BigDecimal.ONE));
+    }
+
+    private PriceTick tick(Long dataId, String symbol, String price, LocalDateTime at) {
+        return new PriceTick(dataId, 1L, symbol, new BigDecimal(price), 100L, at);
+    }
+}
@@ -0,0 +1,82 @@
+package com.portfolio.backend.service.market.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void rangeRead_spansRolledOverSegments() throws Exception {
+        TickStore store = new TickStore(root, 4);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(store.append(1L, 1000L + i, 100L * i, i));
+        }
+
+        List<TickSlice> slices = store.read(1L, 1002L, 1008L);
+
+        assertEquals(3, slices.size()); // Segments [1000-1003], [1004-1007], [1008-1009]
+        assertEquals(7, slices.stream().mapToInt(TickSlice::size).sum());
+        assertEquals(1002L, slices.get(0).timestamp(0));
+        assertEquals(800L, slices.get(2).price(0));
+        assertEquals(10L, store.size(1L));
+    }
+
+    @Test
+    void append_rejectsOutOfOrderTicks() throws Exception {
+        TickStore store = new TickStore(root, 8);
+        store.append(1L, 2000L, 1L, 1L);
+
+        assertFalse(store.append(1L, 1999L, 1L, 1L));
+        assertTrue(store.append(1L, 2000L, 2L, 1L));
+    }
+
+    @Test
+    void reopen_recoversSealedAndOpenSegments() throws Exception {
+        TickStore store = new TickStore(root, 4);
+        for (int i = 0; i < 6; i++) {
+            store.append(7L, 5000L + i, i, i);
+        }
+        store.flush();
+
+        TickStore reopened = new TickStore(root, 4);
+
+        assertEquals(6L, reopened.size(7L));
+        assertEquals(5005L, reopened.lastTimestamp(7L));
+        assertTrue(reopened.append(7L, 5006L, 6L, 6L));
+    }
+
+    @Test
+    void reopen_truncatesTornLastSegment() throws Exception {
+        TickStore store = new TickStore(root, 8);
+        for (int i = 0; i < 5; i++) {
+            store.append(3L, 100L + i, i, i);
+        }
+        store.flush();
+
+        // Simulate a crash mid-append: row 3's price column was rewritten but its checksum was not
+        Path segment = root.resolve("3").resolve("0000000000.seg");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer garbage = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, 999_999L);
+            channel.write(garbage, TickSegment.HEADER_BYTES + 8L * 8 + 3L * 8);
+        }
+
+        TickStore reopened = new TickStore(root, 8);
+
+        assertEquals(3L, reopened.size(3L));
+        assertEquals(102L, reopened.lastTimestamp(3L));
+        assertTrue(reopened.append(3L, 103L, 30L, 1L));
+        assertEquals(30L, reopened.read(3L, 103L, 103L).get(0).price(0));
+    }
+}
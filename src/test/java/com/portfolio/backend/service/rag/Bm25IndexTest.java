@@ -0,0 +1,41 @@
+package com.portfolio.backend.service.rag;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Bm25IndexTest {
+
+    private final Bm25Index index = new Bm25Index(List.of(
+            new KnowledgeChunk(0, "a", "Beta measures volatility relative to the market."),
+            new KnowledgeChunk(1, "a", "Commodity exposure above 30% adds volatility. Commodity weight is 1.5."),
+            new KnowledgeChunk(2, "b", "Rebalance when allocation drifts more than 10% from target."),
+            new KnowledgeChunk(3, "b", "Doughnut charts show allocation percentages.")), 1.2f, 0.75f);
+
+    @Test
+    void search_ranksByBm25AndDropsNonMatches() {
+        List<KnowledgeChunk> hits = index.search("commodity volatility", 10);
+
+        assertEquals(List.of(1, 0), hits.stream().map(KnowledgeChunk::getId).toList());
+    }
+
+    @Test
+    void search_prefersChunksMatchingMoreTerms() {
+        assertEquals(List.of(3), index.search("doughnut", 5).stream().map(KnowledgeChunk::getId).toList());
+        assertEquals(List.of(3, 2), index.search("allocation doughnut", 5).stream().map(KnowledgeChunk::getId).toList());
+    }
+
+    @Test
+    void search_limitsToTopKAndIgnoresStopWordsAndRepeats() {
+        assertEquals(1, index.search("allocation", 1).size());
+        assertTrue(index.search("what is the", 5).isEmpty());
+        assertEquals(index.search("beta", 5).size(), index.search("beta beta beta", 5).size());
+    }
+
+    @Test
+    void tokenize_lowercasesAndSplitsOnPunctuation() {
+        assertEquals(List.of("var", "95", "confidence"), Bm25Index.tokenize("VaR at 95% confidence?"));
+    }
+}
@@ -0,0 +1,175 @@
+package com.portfolio.backend.service.rag;
+
+import com.portfolio.backend.config.RagConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RAGServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private RAGService ragService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ragService = newService(new RagConfig());
+    }
+
+    @Test
+    void retrieveChunks_returnsTopKDistinctChunks() {
+        List<KnowledgeChunk> chunks = ragService.retrieveChunks("How should I read my portfolio beta?", null, null);
+
+        assertEquals(4, chunks.size());
+        assertEquals(chunks.size(), new HashSet<>(chunks.stream().map(KnowledgeChunk::getText).toList()).size());
+        assertTrue(chunks.get(0).getText().contains("BETA"));
+    }
+
+    @Test
+    void retrieveContext_isMuchSmallerThanTheKnowledgeBase() {
+        String context = ragService.retrieveContext("How many commodity assets can a client hold?", null, null);
+
+        assertTrue(context.contains("Maximum 3 assets per category for COMMODITY"));
+        assertTrue(context.length() < 2_500, "context length " + context.length());
+        assertEquals(context.indexOf("ASSET LIMIT RULES"), context.lastIndexOf("ASSET LIMIT RULES"));
+    }
+
+    @Test
+    void retrieveContext_usesChartTypeAsQueryAndHint() {
+        String context = ragService.retrieveContext("Explain this", null, "doughnut");
+
+        assertTrue(context.contains("DOUGHNUT / PIE CHARTS"));
+        assertTrue(context.endsWith("Balanced portfolios show more evenly distributed segments."));
+    }
+
+    @Test
+    void vectorIndex_isUsedOnlyWhenBuiltFromTheSameChunks() throws Exception {
+        Path file = dir.resolve("vectors.bin");
+        VectorIndexBuilder.main(new String[]{"src/main/resources/knowledge", file.toString()});
+
+        RagConfig config = new RagConfig();
+        config.setVectorIndexLocation(file.toUri().toString());
+        RAGService hybrid = newService(config);
+        assertNotNull(vectorIndex(hybrid));
+        List<KnowledgeChunk> chunks = hybrid.retrieveChunks("How volatile am I?", null, null);
+        assertEquals(4, chunks.size());
+        assertEquals(chunks.size(), new HashSet<>(chunks.stream().map(KnowledgeChunk::getId).toList()).size());
+        assertTrue(chunks.stream().anyMatch(chunk -> chunk.getText().contains("Beta: Measure of portfolio volatility")));
+
+        // Chunked differently at runtime than at build time: the stale artifact is ignored
+        config.setMinChunkChars(200);
+        assertNull(vectorIndex(newService(config)));
+    }
+
+    @Test
+    void missingVectorIndex_fallsBackToBm25() throws Exception {
+        RagConfig config = new RagConfig();
+        config.setVectorIndexLocation(dir.resolve("missing.bin").toUri().toString());
+        RAGService lexical = newService(config);
+
+        assertNull(vectorIndex(lexical));
+        // "risky" alone pulls the warning-signals chunk ahead lexically, so ask with terms BM25 can rank
+        assertTrue(lexical.retrieveChunks("How should I read my portfolio beta?", null, null).get(0).getText().contains("BETA"));
+    }
+
+    @Test
+    void reload_swapsInANewSnapshotAndLeavesTheHeldOneIntact() throws Exception {
+        RAGService service = newService(externalDirConfig(copyKnowledge()));
+        KnowledgeSnapshot before = service.getSnapshot();
+        Files.writeString(dir.resolve("knowledge/custody.txt"),
+            "CUSTODY RULES: Client securities are held by an external custodian bank and never pooled with house assets.");
+
+        service.reload(List.of("custody.txt"));
+
+        KnowledgeSnapshot after = service.getSnapshot();
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertEquals(before.getChunks().size() + 1, after.getChunks().size());
+        assertNotNull(after.getVectors());
+        assertTrue(service.retrieveChunks("who is the custodian of securities", null, null).get(0).getText().startsWith("CUSTODY RULES"));
+        assertFalse(before.getFiles().containsKey("custody.txt"));
+
+        Files.delete(dir.resolve("knowledge/custody.txt"));
+        service.reload(List.of("custody.txt"));
+        assertEquals(before.getChunks().size(), service.getSnapshot().getChunks().size());
+
+        service.reload(List.of("portfolio_rules.txt"));
+        assertEquals(after.getVersion() + 1, service.getSnapshot().getVersion(), "unchanged content does not republish");
+    }
+
+    @Test
+    void reload_reanalysesOnlyTheChangedFiles() throws Exception {
+        RAGService service = newService(externalDirConfig(copyKnowledge()));
+        KnowledgeSnapshot before = service.getSnapshot();
+        Path rules = dir.resolve("knowledge/portfolio_rules.txt");
+        Files.writeString(rules, Files.readString(rules) + "\n\nCUSTODY RULES: Client securities are held by an external custodian bank.");
+
+        service.reload(List.of("portfolio_rules.txt"));
+
+        KnowledgeSnapshot after = service.getSnapshot();
+        assertNotSame(before.getIndexed().get("portfolio_rules.txt"), after.getIndexed().get("portfolio_rules.txt"));
+        assertSame(before.getIndexed().get("risk_heuristics.txt").getTexts(), after.getIndexed().get("risk_heuristics.txt").getTexts());
+        assertSame(before.getIndexed().get("risk_heuristics.txt").getTokens(), after.getIndexed().get("risk_heuristics.txt").getTokens());
+        // Same chunks as indexing the whole directory from scratch
+        assertEquals(KnowledgeChunker.fingerprint(newService(externalDirConfig(dir.resolve("knowledge"))).getSnapshot().getChunks()),
+            KnowledgeChunker.fingerprint(after.getChunks()));
+        assertNotNull(after.getVectors());
+        assertTrue(service.retrieveChunks("who is the custodian of securities", null, null).get(0).getText().contains("CUSTODY RULES"));
+    }
+
+    @Test
+    void watcher_reindexesEditedFiles() throws Exception {
+        RAGService service = newService(externalDirConfig(copyKnowledge()));
+        try {
+            long version = service.getSnapshot().getVersion();
+            Files.writeString(dir.resolve("knowledge/custody.txt"),
+                "CUSTODY RULES: Client securities are held by an external custodian bank and never pooled with house assets.");
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (service.getSnapshot().getVersion() == version && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(service.getSnapshot().getFiles().containsKey("custody.txt"));
+        } finally {
+            service.stopWatcher();
+        }
+    }
+
+    private Path copyKnowledge() throws Exception {
+        Path knowledge = Files.createDirectories(dir.resolve("knowledge"));
+        try (var files = Files.list(Path.of("src/main/resources/knowledge"))) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".txt")).toList()) {
+                Files.writeString(knowledge.resolve(file.getFileName()), Files.readString(file, StandardCharsets.UTF_8));
+            }
+        }
+        return knowledge;
+    }
+
+    private static RagConfig externalDirConfig(Path knowledge) {
+        RagConfig config = new RagConfig();
+        config.setKnowledgeDir(knowledge.toString());
+        config.setReloadDebounceMs(50);
+        return config;
+    }
+
+    private static RAGService newService(RagConfig config) throws Exception {
+        RAGService service = new RAGService();
+        var field = RAGService.class.getDeclaredField("config");
+        field.setAccessible(true);
+        field.set(service, config);
+        service.loadKnowledgeBase();
+        return service;
+    }
+
+    private static VectorIndex vectorIndex(RAGService service) {
+        return service.getSnapshot().getVectors();
+    }
+}
@@ -0,0 +1,84 @@
+package com.portfolio.backend.service.rag;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<KnowledgeChunk> chunks = KnowledgeChunker.chunk(knowledgeBase(), 40);
+    private final HashedNgramEmbedder embedder = new HashedNgramEmbedder(512, 3, 5);
+
+    @Test
+    void search_findsParaphrasesThroughSharedNgrams() throws IOException {
+        Path file = dir.resolve("vectors.bin");
+        VectorIndex.write(file, embedder, chunks);
+        VectorIndex index = VectorIndex.open(file);
+
+        assertEquals(chunks.size(), index.getCount());
+        assertEquals(KnowledgeChunker.fingerprint(chunks), index.getFingerprint());
+        // No token in common with the beta chunk ("volatile" vs "volatility"), only n-grams
+        int[] top = index.search("how volatile am I", 2, 0.05f);
+        assertTrue(top.length > 0);
+        assertTrue(chunks.get(top[0]).getText().contains("volatility"), chunks.get(top[0]).getText());
+    }
+
+    @Test
+    void search_respectsKAndMinSimilarity() throws IOException {
+        Path file = dir.resolve("vectors.bin");
+        VectorIndex.write(file, embedder, chunks);
+        VectorIndex index = VectorIndex.open(file);
+
+        assertEquals(1, index.search("diversification across categories", 1, 0f).length);
+        assertEquals(0, index.search("diversification across categories", 3, 1.01f).length);
+        assertEquals(0, index.search("   ", 3, 0f).length);
+    }
+
+    @Test
+    void open_rejectsForeignFiles() throws IOException {
+        Path file = dir.resolve("not-an-index.bin");
+        Files.write(file, new byte[64]);
+
+        assertThrows(IOException.class, () -> VectorIndex.open(file));
+    }
+
+    @Test
+    void build_onTheHeapMatchesTheWrittenFile() throws IOException {
+        Path file = dir.resolve("vectors.bin");
+        VectorIndex.write(file, embedder, chunks);
+        VectorIndex mapped = VectorIndex.open(file);
+        VectorIndex heap = VectorIndex.build(embedder, chunks.stream().map(chunk -> embedder.count(chunk.getText())).toList(),
+            KnowledgeChunker.fingerprint(chunks));
+
+        assertEquals(mapped.getCount(), heap.getCount());
+        assertEquals(mapped.getFingerprint(), heap.getFingerprint());
+        assertArrayEquals(mapped.search("how volatile am I", 3, 0f), heap.search("how volatile am I", 3, 0f));
+        assertArrayEquals(mapped.search("rebalancing weights", 3, 0f), heap.search("rebalancing weights", 3, 0f));
+    }
+
+    private static Map<String, String> knowledgeBase() {
+        Map<String, String> knowledgeBase = new LinkedHashMap<>();
+        knowledgeBase.put("risk", """
+            Beta measures the volatility of a portfolio relative to the market benchmark.
+
+            A beta above one means the holdings swing more than the index does.
+            """);
+        knowledgeBase.put("allocation", """
+            Diversification spreads the book across asset categories such as equity and gold.
+
+            Rebalancing restores the target weights once a category drifts too far.
+            """);
+        return knowledgeBase;
+    }
+}
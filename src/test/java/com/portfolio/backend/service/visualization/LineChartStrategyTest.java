@@ -43,7 +43,7 @@ class LineChartStrategyTest {
         hoverData.put("Value", "$100000");
         metadata.setHoverData(hoverData);
 
-        String explanation = strategy.explain(metadata, null);
+        String explanation = strategy.explain(metadata);
 
         assertNotNull(explanation);
         assertTrue(explanation.contains("Line Chart Analysis"));
@@ -54,22 +54,20 @@ class LineChartStrategyTest {
     }
 
     @Test
-    void testExplain_WithPortfolioContext() {
+    void testExplain_LeavesPortfolioContextToThePrompt() {
         metadata.setChartType("line");
-        String portfolioContext = "Portfolio beta: 1.2";
 
-        String explanation = strategy.explain(metadata, portfolioContext);
+        String explanation = strategy.explain(metadata);
 
         assertNotNull(explanation);
-        assertTrue(explanation.contains("Portfolio Context"));
-        assertTrue(explanation.contains("1.2"));
+        assertFalse(explanation.contains("Portfolio Context")); // Sent once, as its own prompt segment
     }
 
     @Test
     void testExplain_WithNullFields() {
         metadata.setChartType("line");
 
-        String explanation = strategy.explain(metadata, null);
+        String explanation = strategy.explain(metadata);
 
         assertNotNull(explanation);
         assertTrue(explanation.contains("Line Chart Analysis"));
@@ -0,0 +1,245 @@
+package com.portfolio.backend.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for the Gemini generateContent and streamGenerateContent endpoints
+ *
+ * Answers in the wire format LLMService parses, after a delay drawn from the configured latency
+ * distribution, and injects faults at the configured rates: 429 with Retry-After, 503, and bodies
+ * cut off halfway through. Each request is served on its own virtual thread, so thousands of
+ * concurrent slow calls cost no more than the sockets.
+ *
+ * Point gemini.base-url at baseUrl() and gemini.stream-url at streamUrl().
+ */
+public class GeminiStubServer implements AutoCloseable {
+
+    private static final String MODEL_PATH = "/v1beta/models/gemini-stub";
+    private static final String ANSWER = "## Portfolio Risk\\n\\n- Beta of 1.3 means the portfolio moves more than the market\\n"
+        + "- Top holding is 28% of value, above the 25% concentration guideline\\n"
+        + "- Commodity exposure adds diversification but also volatility";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile Latency latency = Latency.fixed(0);
+    private volatile double rateLimitRate;
+    private volatile double serverErrorRate;
+    private volatile double truncatedRate;
+    private volatile int retryAfterSeconds = 1;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder truncated = new LongAdder();
+
+    public GeminiStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.createContext(MODEL_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + MODEL_PATH + ":generateContent";
+    }
+
+    public String streamUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + MODEL_PATH + ":streamGenerateContent";
+    }
+
+    public GeminiStubServer latency(Latency latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Share of requests answered 429 with Retry-After: retryAfterSeconds
+     */
+    public GeminiStubServer rateLimitRate(double rate, int retryAfterSeconds) {
+        this.rateLimitRate = rate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        return this;
+    }
+
+    public GeminiStubServer serverErrorRate(double rate) {
+        this.serverErrorRate = rate;
+        return this;
+    }
+
+    /**
+     * Share of requests whose body stops halfway and the connection closes
+     */
+    public GeminiStubServer truncatedRate(double rate) {
+        this.truncatedRate = rate;
+        return this;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.sum();
+    }
+
+    public long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    public long getTruncated() {
+        return truncated.sum();
+    }
+
+    public String describe() {
+        return String.format("latency %s, 429 %.1f%%, 503 %.1f%%, truncated %.1f%%",
+            latency, rateLimitRate * 100, serverErrorRate * 100, truncatedRate * 100);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.increment();
+            byte[] request = exchange.getRequestBody().readAllBytes();
+            sleep(latency.nextMillis());
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < rateLimitRate) {
+                rateLimited.increment();
+                exchange.getResponseHeaders().add("Retry-After", Integer.toString(retryAfterSeconds));
+                sendError(exchange, 429, "RESOURCE_EXHAUSTED");
+                return;
+            }
+            if (roll < rateLimitRate + serverErrorRate) {
+                serverErrors.increment();
+                sendError(exchange, 503, "UNAVAILABLE");
+                return;
+            }
+            boolean truncate = roll < rateLimitRate + serverErrorRate + truncatedRate;
+            if (truncate) {
+                truncated.increment();
+            }
+            int promptTokens = request.length / 4;
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            if (exchange.getRequestURI().getPath().endsWith(":streamGenerateContent")) {
+                stream(exchange, promptTokens, truncate);
+            } else {
+                byte[] body = element(ANSWER, promptTokens).getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body, 0, truncate ? body.length / 2 : body.length);
+            }
+        }
+    }
+
+    /**
+     * One array element per line of the answer, flushed separately like the real endpoint's chunks
+     */
+    private void stream(HttpExchange exchange, int promptTokens, boolean truncate) throws IOException {
+        exchange.sendResponseHeaders(200, 0); // Chunked
+        OutputStream out = exchange.getResponseBody();
+        List<String> lines = List.of(ANSWER.split("(?<=\\\\n)"));
+        for (int i = 0; i < lines.size(); i++) {
+            String element = (i == 0 ? "[" : ",\r\n") + element(lines.get(i), i == lines.size() - 1 ? promptTokens : -1);
+            byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+            if (truncate && i == lines.size() / 2) {
+                out.write(bytes, 0, bytes.length / 2);
+                out.flush();
+                return;
+            }
+            out.write(bytes);
+            out.flush();
+        }
+        out.write("]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String element(String text, int promptTokens) {
+        String usage = promptTokens < 0 ? "" : ",\"usageMetadata\":{\"promptTokenCount\":" + promptTokens
+            + ",\"candidatesTokenCount\":60,\"totalTokenCount\":" + (promptTokens + 60) + "}";
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}],\"role\":\"model\"},"
+            + "\"finishReason\":\"STOP\"}]" + usage + "}";
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String reason) throws IOException {
+        byte[] body = ("{\"error\":{\"code\":" + status + ",\"message\":\"Injected by GeminiStubServer\",\"status\":\""
+            + reason + "\"}}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Response delay distribution
+     */
+    public interface Latency {
+
+        long nextMillis();
+
+        static Latency fixed(long millis) {
+            return new Latency() {
+                public long nextMillis() {
+                    return millis;
+                }
+
+                public String toString() {
+                    return "fixed " + millis + " ms";
+                }
+            };
+        }
+
+        static Latency uniform(long minMillis, long maxMillis) {
+            return new Latency() {
+                public long nextMillis() {
+                    return ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+                }
+
+                public String toString() {
+                    return "uniform " + minMillis + "-" + maxMillis + " ms";
+                }
+            };
+        }
+
+        /**
+         * Log-normal with the given median and 99th percentile: a long right tail like real LLM latency
+         */
+        static Latency logNormal(long medianMillis, long p99Millis) {
+            double mu = Math.log(medianMillis);
+            double sigma = Math.log((double) p99Millis / medianMillis) / 2.326; // z of the 99th percentile
+            return new Latency() {
+                public long nextMillis() {
+                    return Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+                }
+
+                public String toString() {
+                    return "log-normal p50 " + medianMillis + " ms, p99 " + p99Millis + " ms";
+                }
+            };
+        }
+    }
+}
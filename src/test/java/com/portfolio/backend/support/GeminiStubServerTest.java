@@ -0,0 +1,76 @@
+package com.portfolio.backend.support;
+
+import com.portfolio.backend.config.GeminiConfig;
+import com.portfolio.backend.dto.chatbot.ChatResponse;
+import com.portfolio.backend.dto.chatbot.ChatStreamEvent;
+import com.portfolio.backend.service.llm.ApiKeyPool;
+import com.portfolio.backend.service.llm.LLMResponseCache;
+import com.portfolio.backend.service.llm.LLMService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The stub speaks the wire format LLMService parses, and its faults reach LLMService as real ones
+ */
+class GeminiStubServerTest {
+
+    private GeminiStubServer gemini;
+    private GeminiConfig config;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        gemini = new GeminiStubServer();
+        config = new GeminiConfig();
+        config.setApiKeys("k1");
+        config.parseApiKeys();
+        config.setBaseUrl(gemini.baseUrl());
+        config.setStreamUrl(gemini.streamUrl());
+        config.setResponseCacheEnabled(false);
+        config.setTimeoutSeconds(5);
+        config.setRetryBackoffMillis(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gemini.close();
+    }
+
+    @Test
+    void answers_parseAndStreamLineByLine() {
+        ChatResponse response = newService().generateResponse("How risky?", null).block(Duration.ofSeconds(10));
+        List<ChatStreamEvent> events = newService().streamResponse("How risky?", null).collectList().block(Duration.ofSeconds(10));
+
+        assertTrue(response.getResponse().startsWith("## Portfolio Risk"));
+        assertTrue(response.getPromptTokens() > 0);
+        assertEquals(6, events.size(), "a delta per line, then done");
+        assertEquals(response.getResponse(), events.get(5).getResponse().getResponse());
+    }
+
+    @Test
+    void injectedFaults_endInTheFallbackAnswer() {
+        config.setMaxRetries(3);
+        gemini.latency(GeminiStubServer.Latency.uniform(1, 5));
+
+        gemini.rateLimitRate(1.0, 1);
+        assertEquals(ChatResponse.ResponseType.INFORMATIONAL, newService().generateResponse("a", null).block(Duration.ofSeconds(10)).getType());
+        gemini.rateLimitRate(0, 1).serverErrorRate(1.0);
+        assertEquals(ChatResponse.ResponseType.INFORMATIONAL, newService().generateResponse("b", null).block(Duration.ofSeconds(10)).getType());
+        gemini.serverErrorRate(0).truncatedRate(1.0);
+        assertEquals(ChatResponse.ResponseType.INFORMATIONAL, newService().generateResponse("c", null).block(Duration.ofSeconds(10)).getType());
+
+        assertEquals(3, gemini.getRateLimited(), "waiting out the only key's Retry-After uses up no attempt");
+        assertEquals(3, gemini.getServerErrors());
+        assertEquals(3, gemini.getTruncated());
+    }
+
+    private LLMService newService() {
+        return new LLMService(config, new LLMResponseCache(config), new ApiKeyPool(config), new SimpleMeterRegistry());
+    }
+}
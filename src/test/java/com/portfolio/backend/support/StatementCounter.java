@@ -0,0 +1,28 @@
+package com.portfolio.backend.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread
+ *
+ * Register with spring.jpa.properties.hibernate.session_factory.statement_inspector set to this
+ * class; counting per thread keeps scheduled jobs running in the background out of the numbers.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int count() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+}